@@ -1,10 +1,25 @@
 package comp303;
 
+/**
+ * A playing card as one of 52 constants. The constants are ordered
+ * by suit, then by rank, so the suit and rank of a card are computed
+ * from its ordinal. The values of the enumerated types are cached in
+ * arrays, because values() creates a new copy of its array at every call.
+ */
 public enum EnumeratedCard
 {
 	ACE_CLUBS, TWO_CLUBS, THREE_CLUBS, FOUR_CLUBS, FIVE_CLUBS, SIX_CLUBS, SEVEN_CLUBS, 
 	EIGHT_CLUBS, NINE_CLUBS, TEN_CLUBS, JACK_CLUBS, QUEEN_CLUBS, KING_CLUBS, 
-	ACE_DIAMONDS, TWO_DIAMONDS, THREE_DIAMONDS;
+	ACE_DIAMONDS, TWO_DIAMONDS, THREE_DIAMONDS, FOUR_DIAMONDS, FIVE_DIAMONDS, SIX_DIAMONDS, SEVEN_DIAMONDS, 
+	EIGHT_DIAMONDS, NINE_DIAMONDS, TEN_DIAMONDS, JACK_DIAMONDS, QUEEN_DIAMONDS, KING_DIAMONDS, 
+	ACE_SPADES, TWO_SPADES, THREE_SPADES, FOUR_SPADES, FIVE_SPADES, SIX_SPADES, SEVEN_SPADES, 
+	EIGHT_SPADES, NINE_SPADES, TEN_SPADES, JACK_SPADES, QUEEN_SPADES, KING_SPADES, 
+	ACE_HEARTS, TWO_HEARTS, THREE_HEARTS, FOUR_HEARTS, FIVE_HEARTS, SIX_HEARTS, SEVEN_HEARTS, 
+	EIGHT_HEARTS, NINE_HEARTS, TEN_HEARTS, JACK_HEARTS, QUEEN_HEARTS, KING_HEARTS;
+	
+	private static final Suit[] SUITS = Suit.values();
+	private static final Rank[] RANKS = Rank.values();
+	private static final EnumeratedCard[] CARDS = values();
 	
 	/**
 	 * A card's suit.
@@ -22,14 +37,26 @@ public enum EnumeratedCard
 		SEVEN, EIGHT, NINE, TEN, JACK, QUEEN, KING;
 	}
 	
+	/**
+	 * @param pRank The rank of the card.
+	 * @param pSuit The suit of the card.
+	 * @return The card with rank pRank and suit pSuit.
+	 * @pre pRank != null && pSuit != null
+	 */
+	public static EnumeratedCard get(Rank pRank, Suit pSuit)
+	{
+		assert pRank != null && pSuit != null;
+		return CARDS[pSuit.ordinal() * RANKS.length + pRank.ordinal()];
+	}
+	
 	public Suit getSuit()
 	{
-		return Suit.values()[ordinal() / Rank.values().length];
+		return SUITS[ordinal() / RANKS.length];
 	}
 	
 	public Rank getRank()
 	{
-		return Rank.values()[ordinal() % Rank.values().length];
+		return RANKS[ordinal() % RANKS.length];
 	}
 
 }
@@ -0,0 +1,126 @@
+package comp303;
+
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * A deck of EnumeratedCard. The order of the cards is kept in an array
+ * with a cursor marking the top of the deck, as in comp303m02.Deck, and
+ * the cards that are left are also kept in an EnumSet, so checking whether
+ * a card is still in the deck is a single bit test.
+ */
+public class EnumeratedDeck implements Iterable<EnumeratedCard>
+{
+	private static final EnumSet<EnumeratedCard> ALL_CARDS = EnumSet.allOf(EnumeratedCard.class);
+	
+	private final EnumeratedCard[] aCards = EnumeratedCard.values();
+	private final EnumSet<EnumeratedCard> aRemaining = EnumSet.noneOf(EnumeratedCard.class);
+	private int aSize = 0; // Cards at indices [0, aSize) are in the deck, the top one last.
+	private final RandomGenerator aRandom;
+	
+	/**
+	 * Creates an empty deck that shuffles its cards
+	 * with a default random number generator.
+	 */
+	public EnumeratedDeck()
+	{
+		this(new SplittableRandom());
+	}
+	
+	/**
+	 * Creates an empty deck that shuffles its cards
+	 * using pRandom.
+	 * 
+	 * @param pRandom The source of randomness for shuffling.
+	 * @pre pRandom != null
+	 */
+	public EnumeratedDeck(RandomGenerator pRandom)
+	{
+		assert pRandom != null;
+		aRandom = pRandom;
+	}
+	
+	/**
+	 * Puts all 52 cards back in the deck and shuffles them
+	 * with a Fisher-Yates shuffle.
+	 */
+	public void shuffle()
+	{
+		for( int i = aCards.length - 1; i > 0; i-- )
+		{
+			int j = aRandom.nextInt(i + 1);
+			EnumeratedCard card = aCards[i];
+			aCards[i] = aCards[j];
+			aCards[j] = card;
+		}
+		aSize = aCards.length;
+		aRemaining.addAll(ALL_CARDS);
+	}
+	
+	/**
+	 * @return The card on top of the deck, which is removed from the deck.
+	 * @pre !isEmpty()
+	 */
+	public EnumeratedCard draw()
+	{
+		assert !isEmpty();
+		aSize--;
+		aRemaining.remove(aCards[aSize]);
+		return aCards[aSize];
+	}
+	
+	/**
+	 * @param pCard A card to check for containment.
+	 * @return True if pCard has not been drawn yet.
+	 * @pre pCard != null
+	 */
+	public boolean contains(EnumeratedCard pCard)
+	{
+		assert pCard != null;
+		return aRemaining.contains(pCard);
+	}
+	
+	/**
+	 * @return The number of cards in the deck.
+	 */
+	public int size()
+	{
+		return aSize;
+	}
+	
+	public boolean isEmpty()
+	{
+		return aSize == 0;
+	}
+	
+	/**
+	 * Iterates over the cards from the bottom of the deck to the top.
+	 */
+	@Override
+	public Iterator<EnumeratedCard> iterator()
+	{
+		return new Iterator<EnumeratedCard>()
+		{
+			private int aNext = 0;
+
+			@Override
+			public boolean hasNext()
+			{
+				return aNext < aSize;
+			}
+
+			@Override
+			public EnumeratedCard next()
+			{
+				if( !hasNext() )
+				{
+					throw new NoSuchElementException();
+				}
+				return aCards[aNext++];
+			}
+		};
+	}
+}
@@ -0,0 +1,154 @@
+package comp303;
+
+import java.util.EnumSet;
+import java.util.Iterator;
+
+import comp303.EnumeratedCard.Rank;
+import comp303.EnumeratedCard.Suit;
+
+/**
+ * A collection of cards in a player's hand, stored in an EnumSet.
+ * Because there are fewer than 64 cards, the set is a single bit vector,
+ * so a hand cannot contain the same card twice and iterates over its
+ * cards by suit then by rank. EnumSet does not expose its bit vector,
+ * so the hand keeps a copy of it, with bit i set for the card of
+ * ordinal i, and counts cards with a mask and a bit count.
+ */
+public class EnumeratedHand implements Iterable<EnumeratedCard>, Comparable<EnumeratedHand>
+{
+	private static final int NUMBER_OF_RANKS = Rank.values().length;
+	private static final long SUIT_MASK = (1L << NUMBER_OF_RANKS) - 1;
+	private static final long ACES = 1L | 1L << NUMBER_OF_RANKS | 1L << 2 * NUMBER_OF_RANKS | 1L << 3 * NUMBER_OF_RANKS;
+	
+	private final EnumSet<EnumeratedCard> aCards = EnumSet.noneOf(EnumeratedCard.class);
+	private long aMask; // The same cards as aCards
+	private final int aMaxCards;
+	
+	/**
+	 * Creates a new, empty hand, which can hold
+	 * a maximum of pMaxCards.
+	 * 
+	 * @param pMaxCards The maximum number of cards allowed in this hand.
+	 * @pre pMaxCards > 0;
+	 */
+	public EnumeratedHand(int pMaxCards)
+	{
+		assert pMaxCards > 0;
+		aMaxCards = pMaxCards;
+	}
+	
+	/**
+	 * Add pCards to the hand.
+	 * @param pCard The card to add.
+	 * @pre !isFull()
+	 * @pre pCard != null;
+	 * @pre !contains(pCard);
+	 */
+	public void add(EnumeratedCard pCard)
+	{
+		assert pCard != null;
+		assert !isFull();
+		assert !contains(pCard);
+		aCards.add(pCard);
+		aMask |= 1L << pCard.ordinal();
+	}
+	
+	/**
+	 * @return True if the number of cards in the hand
+	 * is the maximum number of cards allowable, as specified
+	 * in the constructor.
+	 */
+	public boolean isFull()
+	{
+		return aCards.size() == aMaxCards;
+	}
+	
+	/**
+	 * @return True if there are no cards in this hand.
+	 */
+	public boolean isEmpty()
+	{
+		return aCards.isEmpty();
+	}
+	
+	/**
+	 * Removes pCards if it is in the hand. If it is not in the
+	 * hand, does nothing. 
+	 * 
+	 * @param pCard The card to remove.
+	 * @pre pCards != null;
+	 */
+	public void remove(EnumeratedCard pCard)
+	{
+		assert pCard != null;
+		aCards.remove(pCard);
+		aMask &= ~(1L << pCard.ordinal());
+	}
+	
+	/**
+	 * @param pCard A card to check for containment.
+	 * @return True if pCard is a card in this hand.
+	 * @pre pCard != null
+	 */
+	public boolean contains(EnumeratedCard pCard)
+	{
+		assert pCard != null;
+		return aCards.contains(pCard);
+	}
+	
+	/**
+	 * @return The number of cards in this hand.
+	 */
+	public int size()
+	{
+		return aCards.size();
+	}
+	
+	/**
+	 * @param pRank A rank.
+	 * @return The number of cards of rank pRank in this hand.
+	 * @pre pRank != null
+	 */
+	public int countOf(Rank pRank)
+	{
+		assert pRank != null;
+		return Long.bitCount(aMask & (ACES << pRank.ordinal()));
+	}
+	
+	/**
+	 * @param pSuit A suit.
+	 * @return The number of cards of suit pSuit in this hand.
+	 * @pre pSuit != null
+	 */
+	public int countOf(Suit pSuit)
+	{
+		assert pSuit != null;
+		return Long.bitCount(aMask & (SUIT_MASK << pSuit.ordinal() * NUMBER_OF_RANKS));
+	}
+	
+	/**
+	 * @return A new array with, at the ordinal of each rank, the
+	 * number of cards of that rank in this hand.
+	 */
+	public int[] countsByRank()
+	{
+		int[] counts = new int[NUMBER_OF_RANKS];
+		for( int rank = 0; rank < NUMBER_OF_RANKS; rank++ )
+		{
+			counts[rank] = Long.bitCount(aMask & (ACES << rank));
+		}
+		return counts;
+	}
+	
+	@Override
+	public Iterator<EnumeratedCard> iterator()
+	{
+		return aCards.iterator();
+	}
+	
+	@Override
+	public int compareTo(EnumeratedHand pHand)
+	{
+		return aCards.size() - pHand.aCards.size();
+	}
+}
@@ -1,18 +1,25 @@
 package comp303m02;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.ToIntFunction;
 
 import comp303m02.Card.Rank;
+import comp303m02.Card.Suit;
 
 /**
- * A collection of cards in a player's hand.
+ * A collection of cards in a player's hand. The cards are
+ * stored in a CardSet, so a hand cannot contain the same
+ * card twice and iterates over its cards by suit then by rank.
  */
-public class Hand implements Iterable<Card>, Comparable<Hand>
+public class Hand implements HandView, Comparable<Hand>
 {
-	private final List<Card> aCards = new ArrayList<>();
+	private final CardSet aCards = new CardSet();
 	private final int aMaxCards;
 	
 	/**
@@ -33,11 +40,13 @@ public class Hand implements Iterable<Card>, Comparable<Hand>
 	 * @param pCard The card to add.
 	 * @pre !isFull()
 	 * @pre pCard != null;
+	 * @pre !contains(pCard);
 	 */
 	public void add(Card pCard)
 	{
 		assert pCard != null;
 		assert !isFull();
+		assert !contains(pCard);
 		aCards.add(pCard);
 	}
 	
@@ -56,7 +65,7 @@ public class Hand implements Iterable<Card>, Comparable<Hand>
 	 */
 	public boolean isEmpty()
 	{
-		return aCards.size() == 0;
+		return aCards.isEmpty();
 	}
 	
 	/**
@@ -72,6 +81,15 @@ public class Hand implements Iterable<Card>, Comparable<Hand>
 		aCards.remove(pCard);
 	}
 	
+	/**
+	 * Removes all the cards from the hand, which can then be
+	 * reused as a new hand with the same maximum number of cards.
+	 */
+	public void clear()
+	{
+		aCards.clear();
+	}
+	
 	/**
 	 * @param pCard A card to check for containment.
 	 * @return True if pCard is a card in this hand.
@@ -83,6 +101,144 @@ public class Hand implements Iterable<Card>, Comparable<Hand>
 		return aCards.contains(pCard);
 	}
 
+	/**
+	 * @return The number of cards in this hand.
+	 */
+	public int size()
+	{
+		return aCards.size();
+	}
+	
+	/**
+	 * @param pRank A rank.
+	 * @return The number of cards of rank pRank in this hand.
+	 * @pre pRank != null
+	 */
+	public int countOf(Rank pRank)
+	{
+		assert pRank != null;
+		return aCards.countOf(pRank);
+	}
+	
+	/**
+	 * @param pSuit A suit.
+	 * @return The number of cards of suit pSuit in this hand.
+	 * @pre pSuit != null
+	 */
+	public int countOf(Suit pSuit)
+	{
+		assert pSuit != null;
+		return aCards.countOf(pSuit);
+	}
+
+	/**
+	 * Returns the cards of this hand in the order of pComparator. Comparators that
+	 * order cards by an ordinal key, such as Card.createByRankComparator() and
+	 * Card.CompareBySuitFirst, are applied in linear time (see Card.hasOrdinalKey).
+	 * Other comparators fall back to a comparison sort.
+	 * 
+	 * @param pComparator The order of the cards.
+	 * @return A new list with the cards of this hand, sorted.
+	 * @pre pComparator != null
+	 */
+	public List<Card> toList(Comparator<Card> pComparator)
+	{
+		assert pComparator != null;
+		List<Card> cards = new ArrayList<>(aCards.size());
+		if( Card.hasOrdinalKey(pComparator) )
+		{
+			long mask = aCards.toMask();
+			for( byte card : CardSorter.cardsByKey((Card.OrdinalComparator) pComparator) )
+			{
+				if( (mask & (1L << card)) != 0 )
+				{
+					cards.add(Card.get(card));
+				}
+			}
+		}
+		else
+		{
+			for( Card card : aCards )
+			{
+				cards.add(card);
+			}
+			cards.sort(pComparator);
+		}
+		return cards;
+	}
+	
+	/**
+	 * Performs pAction on the index (see Card.index()) of each card, by
+	 * suit then by rank. Unlike iterator(), creates no object.
+	 * 
+	 * @param pAction The action to perform on each card index.
+	 * @pre pAction != null
+	 */
+	public void forEachCardCode(IntConsumer pAction)
+	{
+		assert pAction != null;
+		for( long cards = aCards.toMask(); cards != 0; cards &= cards - 1 )
+		{
+			pAction.accept(Long.numberOfTrailingZeros(cards));
+		}
+	}
+	
+	/**
+	 * Performs pAction on each card, by suit then by rank.
+	 * Unlike iterator(), creates no object.
+	 * 
+	 * @param pAction The action to perform on each card.
+	 * @pre pAction != null
+	 */
+	public void forEachCard(Consumer<? super Card> pAction)
+	{
+		assert pAction != null;
+		for( long cards = aCards.toMask(); cards != 0; cards &= cards - 1 )
+		{
+			pAction.accept(Card.get(Long.numberOfTrailingZeros(cards)));
+		}
+	}
+	
+	/**
+	 * @return A new array with the index (see Card.index()) of each card,
+	 * by suit then by rank. Later changes to the hand do not affect the array.
+	 */
+	public int[] cardCodes()
+	{
+		int[] codes = new int[aCards.size()];
+		int i = 0;
+		for( long cards = aCards.toMask(); cards != 0; cards &= cards - 1 )
+		{
+			codes[i++] = Long.numberOfTrailingZeros(cards);
+		}
+		return codes;
+	}
+	
+	/**
+	 * @return An immutable hand with the same cards and the same
+	 * maximum number of cards as this hand.
+	 */
+	public ImmutableHand toImmutableHand()
+	{
+		return new ImmutableHand(aCards.toMask(), aMaxCards);
+	}
+	
+	/**
+	 * @return The mask of the cards in this hand, as in CardSet.
+	 */
+	long toMask()
+	{
+		return aCards.toMask();
+	}
+	
+	/**
+	 * @return The maximum number of cards allowed in this hand.
+	 */
+	int maxCards()
+	{
+		return aMaxCards;
+	}
+
 	@Override
 	public Iterator<Card> iterator()
 	{
@@ -95,61 +251,75 @@ public class Hand implements Iterable<Card>, Comparable<Hand>
 		return aCards.size() - pHand.aCards.size();
 	}
 	
-	public static Comparator<Hand> createAscendingComparator()
+	public static <T extends HandView> Comparator<T> createAscendingComparator()
 	{
-		return new Comparator<Hand>() {
+		return new Comparator<T>() {
 
 			@Override
-			public int compare(Hand pHand1, Hand pHand2)
+			public int compare(T pHand1, T pHand2)
 			{
-				return pHand1.aCards.size() - pHand2.aCards.size();
+				return pHand1.size() - pHand2.size();
 			}};
 	}
 	
-	public static Comparator<Hand> createDescendingComparator()
+	public static <T extends HandView> Comparator<T> createDescendingComparator()
 	{
-		return new Comparator<Hand>() {
+		return new Comparator<T>() {
 
 			@Override
-			public int compare(Hand pHand1, Hand pHand2)
+			public int compare(T pHand1, T pHand2)
 			{
-				return pHand2.aCards.size() - pHand1.aCards.size();
+				return pHand2.size() - pHand1.size();
 			}};
 	}
 	
 	/**
 	 * Creates a comparator that compares hands in terms of ascending number
-	 * of cards of rank pRank in the hand.
+	 * of cards of rank pRank in the hand. The comparator works with
+	 * any kind of hand, including ImmutableHand.
 	 * 
 	 * @param pRank The rank to test against.
+	 * @param <T> The type of hands to compare.
 	 * @return A new Comparator instance that can compare by number
 	 * of cards of the specified rank.
 	 */
-	public static Comparator<Hand> createByRankComparator(Rank pRank)
+	public static <T extends HandView> Comparator<T> createByRankComparator(Rank pRank)
 	{
-		return new Comparator<Hand>()
+		return new Comparator<T>()
 		{
 			@Override
-			public int compare(Hand pHand1, Hand pHand2)
-			{
-				return countCards(pHand1, pRank) - countCards(pHand2, pRank);
-			}
-			
-			private int countCards(Hand pHand, Rank pRank)
+			public int compare(T pHand1, T pHand2)
 			{
-				int total = 0;
-				for( Card card : pHand)
-				{
-					if( card.getRank() == pRank )
-					{
-						total++;
-					}
-				}
-				return total;
+				return pHand1.countOf(pRank) - pHand2.countOf(pRank);
 			}
 		};
-		
-		
+	}
+	
+	/**
+	 * Sorts pHands in ascending order of the key computed by pKey. The key
+	 * of each hand is computed only once, instead of at every comparison as
+	 * with a Comparator. The sort is stable.
+	 * 
+	 * @param pHands The hands to sort.
+	 * @param pKey The function that computes the sort key of a hand, 
+	 * for example hand -> hand.countOf(Rank.ACE).
+	 * @pre pHands != null && pKey != null
+	 */
+	public static void sort(List<Hand> pHands, ToIntFunction<Hand> pKey)
+	{
+		assert pHands != null && pKey != null;
+		Hand[] hands = pHands.toArray(new Hand[pHands.size()]);
+		// Each entry holds the key in its high half and the position of the hand in its low half.
+		long[] keys = new long[hands.length];
+		for( int i = 0; i < hands.length; i++ )
+		{
+			keys[i] = (long) pKey.applyAsInt(hands[i]) << 32 | i;
+		}
+		Arrays.sort(keys);
+		for( int i = 0; i < keys.length; i++ )
+		{
+			pHands.set(i, hands[(int) keys[i]]);
+		}
 	}
 	
 	/**
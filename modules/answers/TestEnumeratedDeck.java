@@ -0,0 +1,78 @@
+package comp303;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.Test;
+
+public class TestEnumeratedDeck
+{
+	private static final int NUMBER_OF_CARDS = 52;
+
+	@Test
+	public void testNewDeckIsEmpty()
+	{
+		EnumeratedDeck deck = new EnumeratedDeck();
+		assertTrue(deck.isEmpty());
+		assertEquals(0, deck.size());
+		assertFalse(deck.iterator().hasNext());
+		assertFalse(deck.contains(EnumeratedCard.ACE_CLUBS));
+	}
+
+	@Test
+	public void testShuffleAndDraw()
+	{
+		EnumeratedDeck deck = new EnumeratedDeck(new SplittableRandom(1));
+		for( int i = 0; i < 100; i++ )
+		{
+			deck.shuffle();
+			assertEquals(NUMBER_OF_CARDS, deck.size());
+			EnumSet<EnumeratedCard> drawn = EnumSet.noneOf(EnumeratedCard.class);
+			while( !deck.isEmpty() )
+			{
+				EnumeratedCard card = deck.draw();
+				assertTrue(drawn.add(card));
+				assertFalse(deck.contains(card));
+				assertEquals(NUMBER_OF_CARDS - drawn.size(), deck.size());
+			}
+			assertEquals(EnumSet.allOf(EnumeratedCard.class), drawn);
+		}
+	}
+
+	@Test
+	public void testContainsMatchesIteration()
+	{
+		EnumeratedDeck deck = new EnumeratedDeck(new SplittableRandom(2));
+		deck.shuffle();
+		for( int i = 0; i < 20; i++ )
+		{
+			deck.draw();
+		}
+		List<EnumeratedCard> cards = new ArrayList<>();
+		deck.forEach(cards::add);
+		assertEquals(NUMBER_OF_CARDS - 20, cards.size());
+		for( EnumeratedCard card : EnumeratedCard.values() )
+		{
+			assertEquals(cards.contains(card), deck.contains(card));
+		}
+		// The iteration ends with the top of the deck
+		assertSame(cards.get(cards.size() - 1), deck.draw());
+	}
+
+	@Test
+	public void testShuffleIsReproducible()
+	{
+		EnumeratedDeck deck1 = new EnumeratedDeck(new SplittableRandom(3));
+		EnumeratedDeck deck2 = new EnumeratedDeck(new SplittableRandom(3));
+		deck1.shuffle();
+		deck2.shuffle();
+		while( !deck1.isEmpty() )
+		{
+			assertSame(deck1.draw(), deck2.draw());
+		}
+	}
+}
@@ -0,0 +1,111 @@
+package comp303;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.Test;
+
+import comp303.EnumeratedCard.Rank;
+import comp303.EnumeratedCard.Suit;
+
+public class TestEnumeratedHand
+{
+	private static final int HAND_SIZE = 7;
+
+	@Test
+	public void testCardOrder()
+	{
+		EnumeratedCard[] cards = EnumeratedCard.values();
+		for( Suit suit : Suit.values() )
+		{
+			for( Rank rank : Rank.values() )
+			{
+				EnumeratedCard card = EnumeratedCard.get(rank, suit);
+				assertSame(cards[suit.ordinal() * Rank.values().length + rank.ordinal()], card);
+				assertSame(rank, card.getRank());
+				assertSame(suit, card.getSuit());
+				assertEquals(rank + "_" + suit, card.name());
+			}
+		}
+	}
+
+	@Test
+	public void testCountOf()
+	{
+		EnumeratedDeck deck = new EnumeratedDeck(new SplittableRandom(1));
+		for( int i = 0; i < 1000; i++ )
+		{
+			deck.shuffle();
+			EnumeratedHand hand = new EnumeratedHand(HAND_SIZE);
+			for( int j = 0; j < 1 + i % HAND_SIZE; j++ )
+			{
+				hand.add(deck.draw());
+			}
+			int[] ranks = new int[Rank.values().length];
+			int[] suits = new int[Suit.values().length];
+			for( EnumeratedCard card : hand )
+			{
+				ranks[card.getRank().ordinal()]++;
+				suits[card.getSuit().ordinal()]++;
+			}
+			for( Rank rank : Rank.values() )
+			{
+				assertEquals(ranks[rank.ordinal()], hand.countOf(rank));
+			}
+			for( Suit suit : Suit.values() )
+			{
+				assertEquals(suits[suit.ordinal()], hand.countOf(suit));
+			}
+			assertArrayEquals(ranks, hand.countsByRank());
+		}
+	}
+
+	@Test
+	public void testRemove()
+	{
+		EnumeratedHand hand = new EnumeratedHand(4);
+		hand.add(EnumeratedCard.KING_CLUBS);
+		hand.add(EnumeratedCard.KING_HEARTS);
+		hand.add(EnumeratedCard.ACE_HEARTS);
+		assertEquals(2, hand.countOf(Rank.KING));
+		assertEquals(2, hand.countOf(Suit.HEARTS));
+		hand.remove(EnumeratedCard.KING_HEARTS);
+		assertFalse(hand.contains(EnumeratedCard.KING_HEARTS));
+		assertEquals(1, hand.countOf(Rank.KING));
+		assertEquals(1, hand.countOf(Suit.HEARTS));
+		// Removing a card that is not in the hand does nothing
+		hand.remove(EnumeratedCard.KING_HEARTS);
+		assertEquals(2, hand.size());
+		assertEquals(1, hand.countOf(Rank.KING));
+		hand.remove(EnumeratedCard.KING_CLUBS);
+		hand.remove(EnumeratedCard.ACE_HEARTS);
+		assertTrue(hand.isEmpty());
+		assertArrayEquals(new int[Rank.values().length], hand.countsByRank());
+	}
+
+	@Test
+	public void testCountsByRankIsCopy()
+	{
+		EnumeratedHand hand = new EnumeratedHand(2);
+		hand.add(EnumeratedCard.TEN_SPADES);
+		int[] counts = hand.countsByRank();
+		counts[Rank.TEN.ordinal()] = 3;
+		assertEquals(1, hand.countsByRank()[Rank.TEN.ordinal()]);
+	}
+
+	@Test
+	public void testIterationOrder()
+	{
+		EnumeratedHand hand = new EnumeratedHand(3);
+		hand.add(EnumeratedCard.KING_HEARTS);
+		hand.add(EnumeratedCard.TEN_SPADES);
+		hand.add(EnumeratedCard.ACE_CLUBS);
+		assertTrue(hand.isFull());
+		List<EnumeratedCard> cards = new ArrayList<>();
+		hand.forEach(cards::add);
+		assertEquals(List.of(EnumeratedCard.ACE_CLUBS, EnumeratedCard.TEN_SPADES, EnumeratedCard.KING_HEARTS), cards);
+	}
+}
@@ -0,0 +1,504 @@
+package comp303m02;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Evaluates a BlackjackStrategy by playing many rounds of blackjack, one
+ * player against the dealer, from a multi-deck Shoe. The rules are those
+ * assumed by BlackjackStrategy: the dealer stands on soft 17 and checks for
+ * blackjack before the player acts, blackjack pays 3 to 2, the player can
+ * double on any two cards and split a pair once, including aces, which then
+ * receive one card each, and there is no insurance or surrender.
+ *
+ * The shoe keeps the Hi-Lo count as cards are drawn. The bet of a round is
+ * based on the true count before the round is dealt, and the decisions of the
+ * player on the true count of the cards seen so far, which excludes the hole
+ * card of the dealer. The result of each round is recorded in the bucket of
+ * its true count, so that the result gives the expected value of the strategy
+ * at each count.
+ *
+ * The rounds are split into blocks, each played from its own shoe seeded with
+ * a deal of a ShuffleStream, and the blocks are split recursively into
+ * fork/join tasks. Workers never share a shoe or random state, their results
+ * are merged at the end, and the same seed produces exactly the same result
+ * whatever the number of threads.
+ */
+public final class BlackjackSimulator
+{
+	private static final long ROUNDS_PER_SHOE = 1 << 16;
+	private static final int BLACKJACK = 21;
+	private static final int DEALER_STANDS = 17;
+	private static final int ACE = 11;
+	private static final int DOUBLED = 32; // Added to the total of a doubled hand
+	private static final int CARDS_PER_DECK = 52;
+	private static final double Z_95 = 1.96;
+
+	private final int aNumberOfDecks;
+	private final double aPenetration;
+	private final BlackjackStrategy aStrategy;
+
+	/**
+	 * Creates a simulator for pStrategy with a shoe of pNumberOfDecks decks.
+	 *
+	 * @param pNumberOfDecks The number of decks in the shoe.
+	 * @param pPenetration The fraction of the cards dealt before the shoe is reshuffled.
+	 * @param pStrategy The strategy of the player.
+	 * @pre pNumberOfDecks > 0
+	 * @pre pPenetration > 0 && pPenetration <= 1
+	 * @pre pStrategy != null
+	 */
+	public BlackjackSimulator(int pNumberOfDecks, double pPenetration, BlackjackStrategy pStrategy)
+	{
+		assert pNumberOfDecks > 0;
+		assert pPenetration > 0 && pPenetration <= 1;
+		assert pStrategy != null;
+		aNumberOfDecks = pNumberOfDecks;
+		aPenetration = pPenetration;
+		aStrategy = pStrategy;
+	}
+
+	/**
+	 * Plays pRounds rounds in the common fork/join pool.
+	 *
+	 * @param pRounds The number of rounds.
+	 * @param pSeed The seed of the shoes.
+	 * @return The result of the simulation.
+	 * @pre pRounds > 0
+	 */
+	public Result simulate(long pRounds, long pSeed)
+	{
+		return simulate(pRounds, pSeed, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Plays pRounds rounds in pPool.
+	 *
+	 * @param pRounds The number of rounds.
+	 * @param pSeed The seed of the shoes.
+	 * @param pPool The pool that plays the rounds.
+	 * @return The result of the simulation.
+	 * @pre pRounds > 0 && pPool != null
+	 */
+	public Result simulate(long pRounds, long pSeed, ForkJoinPool pPool)
+	{
+		assert pRounds > 0 && pPool != null;
+		long shoes = (pRounds + ROUNDS_PER_SHOE - 1) / ROUNDS_PER_SHOE;
+		return pPool.invoke(new Simulation(new ShuffleStream(pSeed).substream(0, shoes), pRounds));
+	}
+
+	/**
+	 * Plays a billion rounds of a counting strategy in the common pool
+	 * and prints the results.
+	 *
+	 * @param args Not used.
+	 */
+	public static void main(String[] args)
+	{
+		BlackjackStrategy strategy = new BlackjackStrategy(new int[] {1, 1, 2, 4, 8, 12}, true);
+		BlackjackSimulator simulator = new BlackjackSimulator(6, 0.75, strategy);
+		long start = System.nanoTime();
+		Result result = simulator.simulate(1_000_000_000L, 0);
+		long elapsed = System.nanoTime() - start;
+		System.out.println(result);
+		System.out.printf("%.0f rounds/s on %d threads%n", result.getRounds() * 1e9 / elapsed,
+				ForkJoinPool.commonPool().getParallelism());
+	}
+
+	/*
+	 * Plays pRounds rounds from a shoe shuffled with pSeed.
+	 */
+	private Result play(long pSeed, long pRounds)
+	{
+		Table table = new Table(new Shoe(aNumberOfDecks, aPenetration, new SplittableRandom(pSeed)));
+		Result result = new Result();
+		for( long round = 0; round < pRounds; round++ )
+		{
+			if( table.aShoe.isCutCardReached() )
+			{
+				table.aShoe.shuffle();
+			}
+			double trueCount = table.aShoe.getTrueCount();
+			result.record(trueCount, aStrategy.getBet(trueCount), table.playRound());
+		}
+		return result;
+	}
+
+	private static int valueOf(Card pCard)
+	{
+		int rank = pCard.getRank().ordinal();
+		return rank == 0 ? ACE : Math.min(rank + 1, 10);
+	}
+
+	/*
+	 * The state of a round. Hands are kept as their hard total, counting aces
+	 * as 1, and whether they hold an ace: the hand is soft if counting one ace
+	 * as 11 does not bust it.
+	 */
+	private final class Table
+	{
+		private final Shoe aShoe;
+		private int aHoleCount = 0; // The Hi-Lo value of the hole card of the dealer
+
+		Table(Shoe pShoe)
+		{
+			aShoe = pShoe;
+		}
+
+		/*
+		 * Plays a round for a bet of one unit and returns the
+		 * net win of the player, in half units.
+		 */
+		int playRound()
+		{
+			int first = draw();
+			int upCard = draw();
+			int second = draw();
+			Card hole = drawCard();
+			aHoleCount = Shoe.hiLo(hole);
+			int holeCard = valueOf(hole);
+			boolean playerBlackjack = first + second == BLACKJACK;
+			if( upCard + holeCard == BLACKJACK )
+			{
+				return playerBlackjack ? 0 : -2;
+			}
+			if( playerBlackjack )
+			{
+				return 3;
+			}
+			int pair = first == second ? first : 0;
+			if( pair != 0 && aStrategy.getAction(total(2 * hard(pair), pair == ACE), pair == ACE, pair, upCard, true,
+					trueCount()) == BlackjackStrategy.Action.SPLIT )
+			{
+				int hand1;
+				int hand2;
+				if( pair == ACE )
+				{
+					hand1 = total(hard(ACE) + hard(draw()), true);
+					hand2 = total(hard(ACE) + hard(draw()), true);
+				}
+				else
+				{
+					hand1 = playHand(pair, draw(), upCard);
+					hand2 = playHand(pair, draw(), upCard);
+				}
+				int dealer = playDealer(upCard, holeCard, Math.min(hand1 % DOUBLED, hand2 % DOUBLED) <= BLACKJACK);
+				return settle(hand1, dealer) + settle(hand2, dealer);
+			}
+			int hand = playHand(first, second, upCard);
+			return settle(hand, playDealer(upCard, holeCard, hand % DOUBLED <= BLACKJACK));
+		}
+
+		/*
+		 * Plays a hand of two cards that is not split, and returns its final
+		 * total, plus DOUBLED if it was doubled.
+		 */
+		private int playHand(int pFirst, int pSecond, int pUpCard)
+		{
+			int hard = hard(pFirst) + hard(pSecond);
+			boolean ace = pFirst == ACE || pSecond == ACE;
+			boolean canDouble = true;
+			while( true )
+			{
+				int total = total(hard, ace);
+				if( total >= BLACKJACK )
+				{
+					return total;
+				}
+				BlackjackStrategy.Action action = aStrategy.getAction(total, total != hard, 0, pUpCard, canDouble, trueCount());
+				if( action == BlackjackStrategy.Action.STAND )
+				{
+					return total;
+				}
+				int card = draw();
+				hard += hard(card);
+				ace |= card == ACE;
+				if( action == BlackjackStrategy.Action.DOUBLE )
+				{
+					return total(hard, ace) + DOUBLED;
+				}
+				canDouble = false;
+			}
+		}
+
+		/*
+		 * Draws the cards of the dealer, if pNeeded, and returns the total of the dealer.
+		 */
+		private int playDealer(int pUpCard, int pHoleCard, boolean pNeeded)
+		{
+			int hard = hard(pUpCard) + hard(pHoleCard);
+			boolean ace = pUpCard == ACE || pHoleCard == ACE;
+			while( pNeeded && total(hard, ace) < DEALER_STANDS )
+			{
+				int card = draw();
+				hard += hard(card);
+				ace |= card == ACE;
+			}
+			return total(hard, ace);
+		}
+
+		private int settle(int pHand, int pDealer)
+		{
+			int wager = pHand >= DOUBLED ? 4 : 2;
+			int total = pHand % DOUBLED;
+			if( total > BLACKJACK || (pDealer <= BLACKJACK && total < pDealer) )
+			{
+				return -wager;
+			}
+			return total == pDealer ? 0 : wager;
+		}
+
+		/*
+		 * The true count of the cards seen by the player.
+		 */
+		private double trueCount()
+		{
+			return (aShoe.getRunningCount() - aHoleCount) * (double) CARDS_PER_DECK / (aShoe.size() + 1);
+		}
+
+		private int draw()
+		{
+			return valueOf(drawCard());
+		}
+
+		/*
+		 * Reshuffles the shoe if it runs out in the middle of a round,
+		 * which can only happen with a penetration close to 1.
+		 */
+		private Card drawCard()
+		{
+			if( aShoe.isEmpty() )
+			{
+				aShoe.shuffle();
+			}
+			return aShoe.draw();
+		}
+
+		private int hard(int pValue)
+		{
+			return pValue == ACE ? 1 : pValue;
+		}
+
+		private int total(int pHard, boolean pAce)
+		{
+			return pAce && pHard + 10 <= BLACKJACK ? pHard + 10 : pHard;
+		}
+	}
+
+	private final class Simulation extends RecursiveTask<Result>
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final ShuffleStream aShoes;
+		private final long aRounds; // The number of rounds in the last shoe of the whole simulation
+
+		Simulation(ShuffleStream pShoes, long pRounds)
+		{
+			aShoes = pShoes;
+			aRounds = pRounds;
+		}
+
+		@Override
+		protected Result compute()
+		{
+			if( aShoes.remaining() > 1 )
+			{
+				Simulation left = new Simulation(aShoes.split(), aRounds);
+				left.fork();
+				Result result = compute();
+				result.merge(left.join());
+				return result;
+			}
+			long first = aShoes.position() * ROUNDS_PER_SHOE;
+			return play(aShoes.nextSeed(), Math.min(ROUNDS_PER_SHOE, aRounds - first));
+		}
+	}
+
+	/**
+	 * The outcome of a simulation, by true count. The true count of a round is
+	 * the true count before the round is dealt, rounded down and limited to
+	 * the range from MIN_TRUE_COUNT to MAX_TRUE_COUNT. Expected values are in
+	 * units won per unit bet, and the net win of a round includes its doubles
+	 * and splits.
+	 */
+	public static final class Result
+	{
+		/**
+		 * The lowest true count of the buckets, which also holds the lower counts.
+		 */
+		public static final int MIN_TRUE_COUNT = -10;
+
+		/**
+		 * The highest true count of the buckets, which also holds the higher counts.
+		 */
+		public static final int MAX_TRUE_COUNT = 10;
+
+		private static final int BUCKETS = MAX_TRUE_COUNT - MIN_TRUE_COUNT + 1;
+
+		private final long[] aRounds = new long[BUCKETS];
+		private final long[] aNet = new long[BUCKETS]; // In half units per unit bet
+		private final long[] aSquares = new long[BUCKETS]; // Sum of the squares of the net wins in half units per unit bet
+		private long aBets = 0; // In units
+		private long aWon = 0; // In half units, according to the bets
+
+		private Result()
+		{}
+
+		private static int bucketOf(double pTrueCount)
+		{
+			return (int) Math.max(MIN_TRUE_COUNT, Math.min(Math.floor(pTrueCount), MAX_TRUE_COUNT)) - MIN_TRUE_COUNT;
+		}
+
+		private void record(double pTrueCount, int pBet, int pNet)
+		{
+			int bucket = bucketOf(pTrueCount);
+			aRounds[bucket]++;
+			aNet[bucket] += pNet;
+			aSquares[bucket] += pNet * pNet;
+			aBets += pBet;
+			aWon += (long) pBet * pNet;
+		}
+
+		private void merge(Result pResult)
+		{
+			for( int i = 0; i < BUCKETS; i++ )
+			{
+				aRounds[i] += pResult.aRounds[i];
+				aNet[i] += pResult.aNet[i];
+				aSquares[i] += pResult.aSquares[i];
+			}
+			aBets += pResult.aBets;
+			aWon += pResult.aWon;
+		}
+
+		private static void checkTrueCount(int pTrueCount)
+		{
+			assert pTrueCount >= MIN_TRUE_COUNT && pTrueCount <= MAX_TRUE_COUNT;
+		}
+
+		/**
+		 * @return The number of rounds played.
+		 */
+		public long getRounds()
+		{
+			long rounds = 0;
+			for( long count : aRounds )
+			{
+				rounds += count;
+			}
+			return rounds;
+		}
+
+		/**
+		 * @param pTrueCount A true count.
+		 * @return The number of rounds played at pTrueCount.
+		 * @pre pTrueCount >= MIN_TRUE_COUNT && pTrueCount <= MAX_TRUE_COUNT
+		 */
+		public long getRounds(int pTrueCount)
+		{
+			checkTrueCount(pTrueCount);
+			return aRounds[pTrueCount - MIN_TRUE_COUNT];
+		}
+
+		/**
+		 * @param pTrueCount A true count.
+		 * @return The expected value of a round played at pTrueCount, or 0
+		 * if no round was played at pTrueCount.
+		 * @pre pTrueCount >= MIN_TRUE_COUNT && pTrueCount <= MAX_TRUE_COUNT
+		 */
+		public double getExpectedValue(int pTrueCount)
+		{
+			checkTrueCount(pTrueCount);
+			int bucket = pTrueCount - MIN_TRUE_COUNT;
+			return aRounds[bucket] == 0 ? 0 : aNet[bucket] / 2.0 / aRounds[bucket];
+		}
+
+		/**
+		 * @param pTrueCount A true count.
+		 * @return The half-width of the 95% confidence interval of the expected
+		 * value at pTrueCount, or 0 if no round was played at pTrueCount.
+		 * @pre pTrueCount >= MIN_TRUE_COUNT && pTrueCount <= MAX_TRUE_COUNT
+		 */
+		public double getConfidenceInterval(int pTrueCount)
+		{
+			checkTrueCount(pTrueCount);
+			int bucket = pTrueCount - MIN_TRUE_COUNT;
+			return confidenceInterval(aRounds[bucket], aNet[bucket], aSquares[bucket]);
+		}
+
+		/**
+		 * @return The expected value of a round with a flat bet, over all counts.
+		 */
+		public double getExpectedValue()
+		{
+			long net = 0;
+			for( long count : aNet )
+			{
+				net += count;
+			}
+			return net / 2.0 / getRounds();
+		}
+
+		/**
+		 * @return The half-width of the 95% confidence interval of the expected
+		 * value with a flat bet.
+		 */
+		public double getConfidenceInterval()
+		{
+			long net = 0;
+			long squares = 0;
+			for( int i = 0; i < BUCKETS; i++ )
+			{
+				net += aNet[i];
+				squares += aSquares[i];
+			}
+			return confidenceInterval(getRounds(), net, squares);
+		}
+
+		private static double confidenceInterval(long pRounds, long pNet, long pSquares)
+		{
+			if( pRounds == 0 )
+			{
+				return 0;
+			}
+			double mean = pNet / 2.0 / pRounds;
+			double variance = pSquares / 4.0 / pRounds - mean * mean;
+			return Z_95 * Math.sqrt(Math.max(variance, 0) / pRounds);
+		}
+
+		/**
+		 * @return The average bet of a round, in units.
+		 */
+		public double getAverageBet()
+		{
+			return (double) aBets / getRounds();
+		}
+
+		/**
+		 * @return The average number of units won per round with the bets of
+		 * the strategy, which is negative if the player loses.
+		 */
+		public double getWinRate()
+		{
+			return aWon / 2.0 / getRounds();
+		}
+
+		@Override
+		public String toString()
+		{
+			StringBuilder result = new StringBuilder(String.format(
+					"EV %.5f +- %.5f, average bet %.3f, win rate %.5f units per round (%d rounds)",
+					getExpectedValue(), getConfidenceInterval(), getAverageBet(), getWinRate(), getRounds()));
+			for( int count = MIN_TRUE_COUNT; count <= MAX_TRUE_COUNT; count++ )
+			{
+				if( getRounds(count) > 0 )
+				{
+					result.append(String.format("%nTC %+3d: EV %+.5f +- %.5f (%d rounds)", count,
+							getExpectedValue(count), getConfidenceInterval(count), getRounds(count)));
+				}
+			}
+			return result.toString();
+		}
+	}
+}
@@ -0,0 +1,215 @@
+package comp303m02;
+
+/**
+ * A blackjack strategy that combines basic strategy with Hi-Lo card
+ * counting. Basic strategy is the best play for each total of the player
+ * against the up card of the dealer, for a shoe of four or more decks where
+ * the dealer stands on soft 17, doubling is allowed on any two cards
+ * including after a split, and surrender is not allowed.
+ *
+ * Counting changes the strategy in two ways, both configurable. The bet
+ * grows with the true count, following a bet ramp. Optionally, the
+ * strategy also deviates from basic strategy when the true count reaches
+ * the index of a play, for the most valuable plays of the "Illustrious 18".
+ *
+ * Card values are the blackjack values, from 2 to 10 for cards from
+ * TWO to KING and 11 for an ACE.
+ */
+public final class BlackjackStrategy
+{
+	/**
+	 * The decisions of the player.
+	 */
+	public enum Action
+	{ HIT, STAND, DOUBLE, SPLIT }
+
+	/*
+	 * The basic strategy, with one row per total and one column per up card
+	 * of the dealer, from 2 to ACE. H: hit, S: stand, D: double or else hit,
+	 * B: double or else stand, P: split.
+	 */
+	private static final String[] HARD = new String[22];
+	private static final String[] SOFT = new String[22];
+	private static final String[] PAIRS = new String[12]; // '-' if the pair is played as a total
+	private static final int FIRST_UP_CARD = 2;
+
+	static
+	{
+		for( int total = 4; total <= 21; total++ )
+		{
+			HARD[total] = total <= 8 ? "HHHHHHHHHH" : total >= 17 ? "SSSSSSSSSS" : "SSSSSHHHHH";
+		}
+		HARD[9] = "HDDDDHHHHH";
+		HARD[10] = "DDDDDDDDHH";
+		HARD[11] = "DDDDDDDDDH";
+		HARD[12] = "HHSSSHHHHH";
+		SOFT[12] = "HHHHHHHHHH";
+		SOFT[13] = "HHHDDHHHHH";
+		SOFT[14] = "HHHDDHHHHH";
+		SOFT[15] = "HHDDDHHHHH";
+		SOFT[16] = "HHDDDHHHHH";
+		SOFT[17] = "HDDDDHHHHH";
+		SOFT[18] = "SBBBBSSHHH";
+		SOFT[19] = "SSSSSSSSSS";
+		SOFT[20] = "SSSSSSSSSS";
+		SOFT[21] = "SSSSSSSSSS";
+		PAIRS[2] = "PPPPPPHHHH";
+		PAIRS[3] = "PPPPPPHHHH";
+		PAIRS[4] = "HHHPPHHHHH";
+		PAIRS[5] = "----------";
+		PAIRS[6] = "PPPPPHHHHH";
+		PAIRS[7] = "PPPPPPHHHH";
+		PAIRS[8] = "PPPPPPPPPP";
+		PAIRS[9] = "PPPPPSPPSS";
+		PAIRS[10] = "----------";
+		PAIRS[11] = "PPPPPPPPPP";
+	}
+
+	/*
+	 * The deviations, as {hard total, up card, index}. Stand at or above
+	 * the index and hit below it.
+	 */
+	private static final int[][] STAND_INDICES = {
+			{16, 10, 0}, {15, 10, 4}, {12, 2, 3}, {12, 3, 2}, {12, 4, 0},
+			{12, 5, -2}, {12, 6, -1}, {13, 2, -1}, {13, 3, -2} };
+
+	/*
+	 * Double at or above the index, if doubling is allowed.
+	 */
+	private static final int[][] DOUBLE_INDICES = {
+			{11, 11, 1}, {10, 10, 4}, {10, 11, 4}, {9, 2, 1}, {9, 7, 3} };
+
+	/*
+	 * Split a pair of tens at or above the index, as {up card, index}.
+	 */
+	private static final int[][] SPLIT_TENS_INDICES = { {5, 5}, {6, 4} };
+
+	private final int[] aBets;
+	private final boolean aDeviations;
+
+	/**
+	 * Creates a strategy with a bet ramp. The bet is pBets[i] units when the
+	 * true count, rounded down, is i, pBets[0] units when it is lower, and
+	 * the last element of pBets when it is higher.
+	 *
+	 * @param pBets The bet ramp, in units.
+	 * @param pDeviations True to play the count-based deviations from basic strategy.
+	 * @pre pBets != null && pBets.length > 0 && all the bets are > 0
+	 */
+	public BlackjackStrategy(int[] pBets, boolean pDeviations)
+	{
+		assert pBets != null && pBets.length > 0;
+		aBets = pBets.clone();
+		for( int bet : aBets )
+		{
+			assert bet > 0;
+		}
+		aDeviations = pDeviations;
+	}
+
+	/**
+	 * @return Basic strategy with a flat bet of one unit, which ignores the count.
+	 */
+	public static BlackjackStrategy basic()
+	{
+		return new BlackjackStrategy(new int[] {1}, false);
+	}
+
+	/**
+	 * @param pTrueCount The true count before the round is dealt.
+	 * @return The bet for the round, in units.
+	 */
+	public int getBet(double pTrueCount)
+	{
+		int index = (int) Math.floor(pTrueCount);
+		return aBets[Math.max(0, Math.min(index, aBets.length - 1))];
+	}
+
+	/**
+	 * @return True if this strategy deviates from basic strategy with the count.
+	 */
+	public boolean hasDeviations()
+	{
+		return aDeviations;
+	}
+
+	/**
+	 * Decides how to play a hand.
+	 *
+	 * @param pTotal The total of the hand, counting an ace as 11 if the hand is soft.
+	 * @param pSoft True if the hand counts an ace as 11.
+	 * @param pPair The value of the two cards of the hand if it is a pair that can be split, 0 otherwise.
+	 * @param pUpCard The value of the up card of the dealer.
+	 * @param pCanDouble True if the player can double.
+	 * @param pTrueCount The true count of the cards seen by the player.
+	 * @return The decision for the hand, which is never SPLIT if pPair is 0
+	 * or DOUBLE if pCanDouble is false.
+	 * @pre pTotal >= 4 && pTotal <= 21
+	 * @pre pPair == 0 || (pPair >= 2 && pPair <= 11)
+	 * @pre pUpCard >= 2 && pUpCard <= 11
+	 */
+	public Action getAction(int pTotal, boolean pSoft, int pPair, int pUpCard, boolean pCanDouble, double pTrueCount)
+	{
+		assert pTotal >= 4 && pTotal <= 21;
+		assert pPair == 0 || (pPair >= 2 && pPair <= 11);
+		assert pUpCard >= FIRST_UP_CARD && pUpCard <= 11;
+		int column = pUpCard - FIRST_UP_CARD;
+		if( pPair != 0 && (PAIRS[pPair].charAt(column) == 'P' || splitsTens(pPair, pUpCard, pTrueCount)) )
+		{
+			return Action.SPLIT;
+		}
+		if( aDeviations && !pSoft )
+		{
+			if( pCanDouble && reaches(DOUBLE_INDICES, pTotal, pUpCard, pTrueCount) )
+			{
+				return Action.DOUBLE;
+			}
+			for( int[] play : STAND_INDICES )
+			{
+				if( play[0] == pTotal && play[1] == pUpCard )
+				{
+					return pTrueCount >= play[2] ? Action.STAND : Action.HIT;
+				}
+			}
+		}
+		switch( (pSoft ? SOFT : HARD)[pTotal].charAt(column) )
+		{
+		case 'S':
+			return Action.STAND;
+		case 'D':
+			return pCanDouble ? Action.DOUBLE : Action.HIT;
+		case 'B':
+			return pCanDouble ? Action.DOUBLE : Action.STAND;
+		default:
+			return Action.HIT;
+		}
+	}
+
+	private boolean splitsTens(int pPair, int pUpCard, double pTrueCount)
+	{
+		if( !aDeviations || pPair != 10 )
+		{
+			return false;
+		}
+		for( int[] play : SPLIT_TENS_INDICES )
+		{
+			if( play[0] == pUpCard && pTrueCount >= play[1] )
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean reaches(int[][] pIndices, int pTotal, int pUpCard, double pTrueCount)
+	{
+		for( int[] play : pIndices )
+		{
+			if( play[0] == pTotal && play[1] == pUpCard && pTrueCount >= play[2] )
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -4,8 +4,30 @@ import java.util.Comparator;
 
 public class Card implements Comparable<Card>
 {
-	static class CompareBySuitFirst implements Comparator<Card>
+	/**
+	 * A comparator that orders cards by an integer key computed from each card.
+	 * Distinct cards have distinct keys between 0 and 51, so collections of cards
+	 * can be sorted in linear time by counting the cards with each key.
+	 */
+	interface OrdinalComparator extends Comparator<Card>
 	{
+		/**
+		 * @param pCard A card.
+		 * @return The key of pCard in the order of this comparator.
+		 * @pre pCard != null
+		 * @post return >= 0 && return < 52
+		 */
+		int keyOf(Card pCard);
+	}
+	
+	static class CompareBySuitFirst implements OrdinalComparator
+	{
+		@Override
+		public int keyOf(Card pCard)
+		{
+			return pCard.index();
+		}
+		
 		@Override
 		public int compare(Card pCard1, Card pCard2)
 		{
@@ -22,8 +44,14 @@ public class Card implements Comparable<Card>
 	
 	public static Comparator<Card> createByRankComparator()
 	{
-		return new Comparator<Card>() {
+		return new OrdinalComparator() {
 
+			@Override
+			public int keyOf(Card pCard)
+			{
+				return pCard.getRank().ordinal() * NUMBER_OF_SUITS + pCard.getSuit().ordinal();
+			}
+			
 			@Override
 			public int compare(Card pCard1, Card pCard2)
 			{
@@ -38,6 +66,18 @@ public class Card implements Comparable<Card>
 			}};
 	}
 	
+	/**
+	 * @param pComparator A comparator.
+	 * @return True if collections of cards can be sorted with pComparator
+	 * in linear time, that is, if pComparator orders cards by an ordinal key.
+	 * Such comparators are returned by createByRankComparator() and
+	 * by instances of CompareBySuitFirst.
+	 */
+	public static boolean hasOrdinalKey(Comparator<Card> pComparator)
+	{
+		return pComparator instanceof OrdinalComparator;
+	}
+	
 	/**
  	 * A card's rank. The Rank object is a part of a Card object.
 	 */
@@ -53,6 +93,8 @@ public class Card implements Comparable<Card>
 	{
 		CLUBS, DIAMONDS, SPADES, HEARTS;
 		
+		private final String aName = name().substring(0,1) + name().substring(1, name().length()).toLowerCase();
+		
 		enum Color
 		{
 			RED, BLACK;
@@ -72,12 +114,30 @@ public class Card implements Comparable<Card>
 		
 		public String toString()
 		{
-			return name().substring(0,1) + name().substring(1, name().length()).toLowerCase();
+			return aName;
 		}
 	}
 	
 	public static final String[] SUITS = {"Clubs", "Diamonds", "Spades", "Hearts"};
 	
+	private static final Rank[] RANKS = Rank.values();
+	private static final int NUMBER_OF_SUITS = Suit.values().length;
+	private static final Card[] CARDS = new Card[NUMBER_OF_SUITS * RANKS.length];
+	private static final String[] NAMES = new String[CARDS.length];
+	
+	static
+	{
+		for( Suit suit : Suit.values() )
+		{
+			for( Rank rank : RANKS )
+			{
+				Card card = new Card(rank, suit);
+				CARDS[card.index()] = card;
+				NAMES[card.index()] = rank + " of " + suit;
+			}
+		}
+	}
+	
 	private final Rank aRank;
 	private final Suit aSuit;
 	
@@ -99,6 +159,42 @@ public class Card implements Comparable<Card>
 		aSuit = pCard.aSuit;
 	}
 	
+	/**
+	 * Returns the unique shared instance that represents the card
+	 * with rank pRank and suit pSuit. Using this method instead of
+	 * the constructor avoids creating new Card objects.
+	 * 
+	 * @param pRank The rank of the card.
+	 * @param pSuit The suit of the card.
+	 * @return The canonical instance for this card.
+	 * @pre pRank != null && pSuit != null
+	 */
+	public static Card get(Rank pRank, Suit pSuit)
+	{
+		assert pRank != null && pSuit != null;
+		return CARDS[pSuit.ordinal() * RANKS.length + pRank.ordinal()];
+	}
+	
+	/**
+	 * @param pIndex The index of a card, as returned by index().
+	 * @return The canonical instance for the card at pIndex.
+	 * @pre pIndex >= 0 && pIndex < 52
+	 */
+	public static Card get(int pIndex)
+	{
+		assert pIndex >= 0 && pIndex < CARDS.length;
+		return CARDS[pIndex];
+	}
+	
+	/**
+	 * @return A number between 0 and 51 that uniquely identifies
+	 * this card, in increasing order of suit then rank.
+	 */
+	public int index()
+	{
+		return aSuit.ordinal() * RANKS.length + aRank.ordinal();
+	}
+	
 	/**
 	 * @return The index in RANKS corresponding to the rank of the card.
 	 */
@@ -115,10 +211,31 @@ public class Card implements Comparable<Card>
 		return aSuit;
 	}
 	
+	@Override
+	public boolean equals(Object pObject)
+	{
+		if( pObject == this )
+		{
+			return true;
+		}
+		if( pObject == null || pObject.getClass() != getClass() )
+		{
+			return false;
+		}
+		Card card = (Card) pObject;
+		return aRank == card.aRank && aSuit == card.aSuit;
+	}
+	
+	@Override
+	public int hashCode()
+	{
+		return index();
+	}
+	
 	@Override
 	public String toString()
 	{
-		return getRank() + " of " + getSuit();
+		return NAMES[index()];
 	}
 
 	public int compareTo(Card pCard)
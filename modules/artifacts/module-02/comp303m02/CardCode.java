@@ -0,0 +1,140 @@
+package comp303m02;
+
+import comp303m02.Card.Rank;
+import comp303m02.Card.Suit;
+
+/**
+ * Static methods to work with cards coded as integers, as in comp303.Card3.
+ * The code of a card is its index (see Card.index()): the ordinal of its suit
+ * times 13 plus the ordinal of its rank, so that codes are between 0 and 51 and
+ * fit in a byte. Codes are ordered like cards, by suit then by rank.
+ *
+ * Code that handles many cards, such as simulations, can store and compare codes
+ * instead of Card objects, and convert them to cards only when it needs to.
+ * IntDeck and IntHand are a deck and a hand that work directly with codes.
+ */
+public final class CardCode
+{
+	/**
+	 * The number of distinct codes.
+	 */
+	public static final int NUMBER_OF_CODES = 52;
+
+	private static final Rank[] RANKS = Rank.values();
+	private static final Suit[] SUITS = Suit.values();
+
+	private CardCode()
+	{}
+
+	/**
+	 * @param pRank The rank of a card.
+	 * @param pSuit The suit of a card.
+	 * @return The code of the card of rank pRank and suit pSuit.
+	 * @pre pRank != null && pSuit != null
+	 */
+	public static int pack(Rank pRank, Suit pSuit)
+	{
+		assert pRank != null && pSuit != null;
+		return pSuit.ordinal() * RANKS.length + pRank.ordinal();
+	}
+
+	/**
+	 * @param pCard A card.
+	 * @return The code of pCard.
+	 * @pre pCard != null
+	 */
+	public static int of(Card pCard)
+	{
+		assert pCard != null;
+		return pCard.index();
+	}
+
+	/**
+	 * @param pCode A code.
+	 * @return The shared instance of the card with code pCode.
+	 * @pre isValid(pCode)
+	 */
+	public static Card toCard(int pCode)
+	{
+		assert isValid(pCode);
+		return Card.get(pCode);
+	}
+
+	/**
+	 * @param pCode A code.
+	 * @return The rank of the card with code pCode.
+	 * @pre isValid(pCode)
+	 */
+	public static Rank rankOf(int pCode)
+	{
+		assert isValid(pCode);
+		return RANKS[pCode % RANKS.length];
+	}
+
+	/**
+	 * @param pCode A code.
+	 * @return The suit of the card with code pCode.
+	 * @pre isValid(pCode)
+	 */
+	public static Suit suitOf(int pCode)
+	{
+		assert isValid(pCode);
+		return SUITS[pCode / RANKS.length];
+	}
+
+	/**
+	 * @param pCode An integer.
+	 * @return True if pCode is the code of a card.
+	 */
+	public static boolean isValid(int pCode)
+	{
+		return pCode >= 0 && pCode < NUMBER_OF_CODES;
+	}
+
+	/**
+	 * Compares two codes in the order of the cards they code, as Card.compareTo.
+	 *
+	 * @param pCode1 A code.
+	 * @param pCode2 Another code.
+	 * @return A negative number, zero, or a positive number if the first
+	 * card is before, the same as, or after the second one.
+	 * @pre isValid(pCode1) && isValid(pCode2)
+	 */
+	public static int compare(int pCode1, int pCode2)
+	{
+		assert isValid(pCode1) && isValid(pCode2);
+		return pCode1 - pCode2;
+	}
+
+	/**
+	 * Compares two codes by the rank, then by the suit of the cards they code,
+	 * as the comparator returned by Card.createByRankComparator().
+	 *
+	 * @param pCode1 A code.
+	 * @param pCode2 Another code.
+	 * @return A negative number, zero, or a positive number if the first
+	 * card is before, the same as, or after the second one.
+	 * @pre isValid(pCode1) && isValid(pCode2)
+	 */
+	public static int compareByRank(int pCode1, int pCode2)
+	{
+		assert isValid(pCode1) && isValid(pCode2);
+		return rankFirst(pCode1) - rankFirst(pCode2);
+	}
+
+	/**
+	 * @param pCode A code.
+	 * @return The name of the card with code pCode, as returned by Card.toString().
+	 * @pre isValid(pCode)
+	 */
+	public static String toString(int pCode)
+	{
+		assert isValid(pCode);
+		return Card.get(pCode).toString();
+	}
+
+	private static int rankFirst(int pCode)
+	{
+		return pCode % RANKS.length * SUITS.length + pCode / RANKS.length;
+	}
+}
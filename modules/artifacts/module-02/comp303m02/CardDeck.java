@@ -0,0 +1,165 @@
+package comp303m02;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * The operations of a deck of cards. Both the decks on the heap (Deck)
+ * and the decks of the games of a DeckStore (DeckStore.DeckView) provide
+ * them, so that code that deals, shuffles, or writes decks, such as
+ * ShuffleStream and DealLogWriter, works with either kind.
+ *
+ * The cards of a deck are numbered by position, from 0 at the bottom of
+ * the deck to size() - 1 at the top, which is the next card drawn.
+ */
+public interface CardDeck extends Iterable<Card>
+{
+	/**
+	 * @return The number of cards in the deck.
+	 */
+	int size();
+
+	/**
+	 * @return True if there are no cards in the deck.
+	 */
+	boolean isEmpty();
+
+	/**
+	 * @param pPosition A position in the deck, 0 being the bottom.
+	 * @return The index (see Card.index()) of the card at pPosition.
+	 * @pre pPosition >= 0 && pPosition < size()
+	 */
+	int cardCodeAt(int pPosition);
+
+	/**
+	 * @return The card on top of the deck, which is removed from the deck.
+	 * @throws java.util.EmptyStackException If the deck is empty.
+	 */
+	Card draw();
+
+	/**
+	 * @return The card on top of the deck.
+	 * @throws java.util.EmptyStackException If the deck is empty.
+	 */
+	Card peek();
+
+	/**
+	 * Puts all 52 cards back in the deck and shuffles them
+	 * with a Fisher-Yates shuffle.
+	 */
+	void shuffle();
+
+	/**
+	 * Puts all 52 cards back in the deck and shuffles them with a
+	 * generator seeded with pSeed. The order of the cards only depends
+	 * on pSeed, so a deal can be reproduced from its seed alone.
+	 *
+	 * @param pSeed The seed of the shuffle.
+	 * @see ShuffleStream
+	 */
+	void shuffle(long pSeed);
+
+	/**
+	 * Puts the deck back in the state of a new deck: empty, with
+	 * its cards in order for the next shuffle.
+	 */
+	void reset();
+
+	/**
+	 * Sorts the cards in the deck by suit, then by rank.
+	 */
+	void sort();
+
+	/**
+	 * Sorts the cards in the deck in the order of pComparator, from the bottom of
+	 * the deck to the top. Comparators that order cards by an ordinal key, such as
+	 * Card.createByRankComparator() and Card.CompareBySuitFirst, sort the deck in
+	 * linear time. Other comparators fall back to a comparison sort.
+	 *
+	 * @param pComparator The order of the cards.
+	 * @return True if the deck was sorted in linear time, false if pComparator
+	 * does not order cards by an ordinal key.
+	 * @pre pComparator != null
+	 */
+	boolean sort(Comparator<Card> pComparator);
+
+	/**
+	 * Iterates over the cards from the bottom of the deck to the top.
+	 */
+	@Override
+	default Iterator<Card> iterator()
+	{
+		return new Iterator<Card>()
+		{
+			private int aNext = 0;
+
+			@Override
+			public boolean hasNext()
+			{
+				return aNext < size();
+			}
+
+			@Override
+			public Card next()
+			{
+				if( !hasNext() )
+				{
+					throw new NoSuchElementException();
+				}
+				return Card.get(cardCodeAt(aNext++));
+			}
+		};
+	}
+
+	/**
+	 * Performs pAction on the index (see Card.index()) of each card, from the
+	 * bottom of the deck to the top. Unlike iterator(), creates no object.
+	 *
+	 * @param pAction The action to perform on each card index.
+	 * @pre pAction != null
+	 */
+	default void forEachCardCode(IntConsumer pAction)
+	{
+		assert pAction != null;
+		int size = size();
+		for( int i = 0; i < size; i++ )
+		{
+			pAction.accept(cardCodeAt(i));
+		}
+	}
+
+	/**
+	 * Performs pAction on each card, from the bottom of the deck to
+	 * the top. Unlike iterator(), creates no object.
+	 *
+	 * @param pAction The action to perform on each card.
+	 * @pre pAction != null
+	 */
+	default void forEachCard(Consumer<? super Card> pAction)
+	{
+		assert pAction != null;
+		int size = size();
+		for( int i = 0; i < size; i++ )
+		{
+			pAction.accept(Card.get(cardCodeAt(i)));
+		}
+	}
+
+	/**
+	 * @return A new array with the index (see Card.index()) of each card,
+	 * from the bottom of the deck to the top. Later changes to the deck
+	 * do not affect the array.
+	 */
+	default int[] cardCodes()
+	{
+		int[] codes = new int[size()];
+		for( int i = 0; i < codes.length; i++ )
+		{
+			codes[i] = cardCodeAt(i);
+		}
+		return codes;
+	}
+}
@@ -0,0 +1,268 @@
+package comp303m02;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import comp303m02.Card.Rank;
+import comp303m02.Card.Suit;
+
+/**
+ * A set of cards represented as a single 64-bit mask. Each of the
+ * 52 cards is mapped to one bit, at index
+ * Suit.ordinal() * 13 + Rank.ordinal(), so that membership
+ * tests, insertion, and removal are constant-time bit operations
+ * and the size of the set is a population count.
+ */
+public final class CardSet implements Iterable<Card>
+{
+	private static final int NUMBER_OF_RANKS = Rank.values().length;
+	private static final long SUIT_MASK = (1L << NUMBER_OF_RANKS) - 1;
+	private static final long ACES = 1L | 1L << NUMBER_OF_RANKS | 1L << 2 * NUMBER_OF_RANKS | 1L << 3 * NUMBER_OF_RANKS;
+
+	private long aCards;
+
+	/**
+	 * Creates an empty set of cards.
+	 */
+	public CardSet()
+	{}
+
+	/**
+	 * Creates a set that contains the same cards as pCardSet.
+	 * @param pCardSet The set to copy.
+	 * @pre pCardSet != null
+	 */
+	public CardSet(CardSet pCardSet)
+	{
+		assert pCardSet != null;
+		aCards = pCardSet.aCards;
+	}
+
+	/**
+	 * Creates a set with the cards of a bit mask, as returned by toMask().
+	 * @param pCards A bit mask of cards.
+	 * @pre (pCards >>> 52) == 0
+	 */
+	CardSet(long pCards)
+	{
+		assert pCards >>> NUMBER_OF_RANKS * Suit.values().length == 0;
+		aCards = pCards;
+	}
+
+	/**
+	 * Adds pCard to the set. Does nothing if the card is
+	 * already in the set.
+	 * @param pCard The card to add.
+	 * @pre pCard != null
+	 */
+	public void add(Card pCard)
+	{
+		aCards |= 1L << pCard.index();
+	}
+
+	/**
+	 * Removes pCard from the set. Does nothing if the card
+	 * is not in the set.
+	 * @param pCard The card to remove.
+	 * @pre pCard != null
+	 */
+	public void remove(Card pCard)
+	{
+		aCards &= ~(1L << pCard.index());
+	}
+
+	/**
+	 * @param pCard The card to check for containment.
+	 * @return True if pCard is in this set.
+	 * @pre pCard != null
+	 */
+	public boolean contains(Card pCard)
+	{
+		return (aCards & (1L << pCard.index())) != 0;
+	}
+
+	/**
+	 * @return The number of cards in the set.
+	 */
+	public int size()
+	{
+		return Long.bitCount(aCards);
+	}
+
+	/**
+	 * @param pRank A rank.
+	 * @return The number of cards of rank pRank in the set.
+	 * @pre pRank != null
+	 */
+	public int countOf(Rank pRank)
+	{
+		return countOf(aCards, pRank);
+	}
+
+	/**
+	 * @param pSuit A suit.
+	 * @return The number of cards of suit pSuit in the set.
+	 * @pre pSuit != null
+	 */
+	public int countOf(Suit pSuit)
+	{
+		return countOf(aCards, pSuit);
+	}
+
+	/**
+	 * @param pCards A bit mask of cards, as returned by toMask().
+	 * @param pRank A rank.
+	 * @return The number of cards of rank pRank in pCards.
+	 * @pre pRank != null
+	 */
+	static int countOf(long pCards, Rank pRank)
+	{
+		return Long.bitCount(pCards & (ACES << pRank.ordinal()));
+	}
+
+	/**
+	 * @param pCards A bit mask of cards, as returned by toMask().
+	 * @param pSuit A suit.
+	 * @return The number of cards of suit pSuit in pCards.
+	 * @pre pSuit != null
+	 */
+	static int countOf(long pCards, Suit pSuit)
+	{
+		return Long.bitCount(pCards & (SUIT_MASK << pSuit.ordinal() * NUMBER_OF_RANKS));
+	}
+
+	/**
+	 * Removes all the cards from the set.
+	 */
+	public void clear()
+	{
+		aCards = 0;
+	}
+
+	/**
+	 * @return True if there are no cards in this set.
+	 */
+	public boolean isEmpty()
+	{
+		return aCards == 0;
+	}
+
+	/**
+	 * @param pCardSet Another set of cards.
+	 * @return A new set with the cards that are in this set or in pCardSet.
+	 * @pre pCardSet != null
+	 */
+	public CardSet union(CardSet pCardSet)
+	{
+		assert pCardSet != null;
+		return new CardSet(aCards | pCardSet.aCards);
+	}
+
+	/**
+	 * @param pCardSet Another set of cards.
+	 * @return A new set with the cards that are both in this set and in pCardSet.
+	 * @pre pCardSet != null
+	 */
+	public CardSet intersect(CardSet pCardSet)
+	{
+		assert pCardSet != null;
+		return new CardSet(aCards & pCardSet.aCards);
+	}
+
+	/**
+	 * @param pCardSet Another set of cards.
+	 * @return A new set with the cards of this set that are not in pCardSet.
+	 * @pre pCardSet != null
+	 */
+	public CardSet difference(CardSet pCardSet)
+	{
+		assert pCardSet != null;
+		return new CardSet(aCards & ~pCardSet.aCards);
+	}
+
+	/**
+	 * @return The bit mask that represents the cards in this set.
+	 */
+	long toMask()
+	{
+		return aCards;
+	}
+
+	/**
+	 * Iterates over the cards in increasing order of bit index,
+	 * that is, by suit then by rank.
+	 */
+	@Override
+	public Iterator<Card> iterator()
+	{
+		return new Iterator<Card>()
+		{
+			private long aRemaining = aCards;
+			private int aLast = -1;
+
+			@Override
+			public boolean hasNext()
+			{
+				return aRemaining != 0;
+			}
+
+			@Override
+			public Card next()
+			{
+				if( aRemaining == 0 )
+				{
+					throw new NoSuchElementException();
+				}
+				aLast = Long.numberOfTrailingZeros(aRemaining);
+				aRemaining &= aRemaining - 1;
+				return Card.get(aLast);
+			}
+
+			@Override
+			public void remove()
+			{
+				if( aLast < 0 )
+				{
+					throw new IllegalStateException();
+				}
+				aCards &= ~(1L << aLast);
+				aLast = -1;
+			}
+		};
+	}
+
+	@Override
+	public boolean equals(Object pObject)
+	{
+		if( pObject == this )
+		{
+			return true;
+		}
+		if( pObject == null || pObject.getClass() != getClass() )
+		{
+			return false;
+		}
+		return aCards == ((CardSet) pObject).aCards;
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return Long.hashCode(aCards);
+	}
+
+	@Override
+	public String toString()
+	{
+		StringBuilder result = new StringBuilder("[");
+		for( Card card : this )
+		{
+			if( result.length() > 1 )
+			{
+				result.append(", ");
+			}
+			result.append(card);
+		}
+		return result.append("]").toString();
+	}
+}
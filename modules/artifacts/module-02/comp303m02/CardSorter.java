@@ -0,0 +1,87 @@
+package comp303m02;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+import comp303m02.Card.OrdinalComparator;
+
+/**
+ * Sorts arrays of card indices (see Card.index()). When the comparator
+ * orders cards by an ordinal key, the cards are sorted in linear time by
+ * counting how many cards have each key. Otherwise, the cards are sorted
+ * with the comparator.
+ */
+final class CardSorter
+{
+	private static final int NUMBER_OF_CARDS = 52;
+
+	private CardSorter()
+	{}
+
+	/**
+	 * Sorts the card indices of pCards between pFrom (inclusive) and
+	 * pTo (exclusive) in the order of pComparator. The array can contain
+	 * the same card more than once.
+	 *
+	 * @param pCards The card indices to sort.
+	 * @param pFrom The index of the first element to sort.
+	 * @param pTo The index after the last element to sort.
+	 * @param pComparator The order of the cards.
+	 * @return True if the cards were sorted in linear time, false if pComparator
+	 * does not order cards by an ordinal key and a comparison sort was used.
+	 * @pre pCards != null && pComparator != null
+	 * @pre 0 <= pFrom && pFrom <= pTo && pTo <= pCards.length
+	 */
+	static boolean sort(byte[] pCards, int pFrom, int pTo, Comparator<Card> pComparator)
+	{
+		assert pCards != null && pComparator != null;
+		assert 0 <= pFrom && pFrom <= pTo && pTo <= pCards.length;
+		if( !Card.hasOrdinalKey(pComparator) )
+		{
+			Card[] cards = new Card[pTo - pFrom];
+			for( int i = 0; i < cards.length; i++ )
+			{
+				cards[i] = Card.get(pCards[pFrom + i]);
+			}
+			Arrays.sort(cards, pComparator);
+			for( int i = 0; i < cards.length; i++ )
+			{
+				pCards[pFrom + i] = (byte) cards[i].index();
+			}
+			return false;
+		}
+
+		byte[] cardsByKey = cardsByKey((OrdinalComparator) pComparator);
+		int[] counts = new int[NUMBER_OF_CARDS];
+		for( int i = pFrom; i < pTo; i++ )
+		{
+			counts[pCards[i]]++;
+		}
+		int position = pFrom;
+		for( int key = 0; key < NUMBER_OF_CARDS; key++ )
+		{
+			byte card = cardsByKey[key];
+			for( int i = 0; i < counts[card]; i++ )
+			{
+				pCards[position++] = card;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @param pComparator A comparator that orders cards by an ordinal key.
+	 * @return An array that maps each key of pComparator to the index of the card with that key.
+	 * @pre pComparator != null
+	 */
+	static byte[] cardsByKey(OrdinalComparator pComparator)
+	{
+		assert pComparator != null;
+		byte[] cards = new byte[NUMBER_OF_CARDS];
+		for( int i = 0; i < NUMBER_OF_CARDS; i++ )
+		{
+			cards[pComparator.keyOf(Card.get(i))] = (byte) i;
+		}
+		return cards;
+	}
+}
@@ -0,0 +1,374 @@
+package comp303m02;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+import comp303m02.Card.Rank;
+import comp303m02.Card.Suit;
+
+/**
+ * Enumerates all the combinations of k cards chosen from a set of available
+ * cards, as card masks (see CardSet). The combinations are visited in increasing
+ * order of their masks with Gosper's hack, which computes the next mask with the
+ * same number of bits in a few arithmetic operations, so no object is created per
+ * combination.
+ *
+ * Gosper's hack works on the positions of the chosen cards among the available
+ * ones. When the available cards are not the lowest bits of the mask, as for
+ * the cards left in a deck, the positions are mapped back to cards with one
+ * table lookup per byte.
+ *
+ * As a Spliterator, the enumeration splits a range of combinations in two
+ * halves of equal size by computing the combination at the middle of the
+ * range directly from its rank, so parallel streams spread the work evenly.
+ */
+public final class Combinations implements Spliterator.OfLong
+{
+	private static final int NUMBER_OF_CARDS = 52;
+	private static final long ALL_CARDS = (1L << NUMBER_OF_CARDS) - 1;
+	private static final int BYTES = (NUMBER_OF_CARDS + Byte.SIZE - 1) / Byte.SIZE;
+	private static final long[][] BINOMIALS = new long[NUMBER_OF_CARDS + 1][NUMBER_OF_CARDS + 1];
+
+	static
+	{
+		for( int n = 0; n <= NUMBER_OF_CARDS; n++ )
+		{
+			BINOMIALS[n][0] = 1;
+			for( int k = 1; k <= n; k++ )
+			{
+				BINOMIALS[n][k] = BINOMIALS[n - 1][k - 1] + BINOMIALS[n - 1][k];
+			}
+		}
+	}
+
+	private final int aAvailable; // The number of cards to choose from
+	private final int aCards; // The number of cards in each combination
+	private final long aBase; // The cards added to every combination
+	private final long[] aExpand; // Maps each byte of positions to cards, or null if positions are cards
+	private long aPositions; // The positions of the cards of the next combination
+	private long aNext; // The rank of the next combination
+	private final long aEnd; // The rank after the last combination
+
+	private Combinations(int pAvailable, int pCards, long pBase, long[] pExpand, long pFirst, long pEnd)
+	{
+		aAvailable = pAvailable;
+		aCards = pCards;
+		aBase = pBase;
+		aExpand = pExpand;
+		aNext = pFirst;
+		aEnd = pEnd;
+		aPositions = unrank(pFirst, pCards);
+	}
+
+	/**
+	 * @param pCards The number of cards in each combination.
+	 * @return The combinations of pCards cards out of the 52 cards.
+	 * @pre pCards >= 0 && pCards <= 52
+	 */
+	public static Combinations of(int pCards)
+	{
+		return of(ALL_CARDS, 0, pCards);
+	}
+
+	/**
+	 * @param pAvailable The cards to choose from.
+	 * @param pCards The number of cards in each combination.
+	 * @return The combinations of pCards cards out of pAvailable.
+	 * @pre pAvailable != null && pCards >= 0 && pCards <= pAvailable.size()
+	 */
+	public static Combinations of(CardSet pAvailable, int pCards)
+	{
+		assert pAvailable != null;
+		return of(pAvailable.toMask(), 0, pCards);
+	}
+
+	/**
+	 * Enumerates the ways of completing pHand with pCards cards from the ones
+	 * left in pDeck. Each combination contains the cards of pHand. Cards of pDeck
+	 * that are already in pHand are not used. Neither pHand nor pDeck is modified.
+	 *
+	 * @param pHand The partial hand.
+	 * @param pDeck The deck that provides the missing cards.
+	 * @param pCards The number of cards to add to pHand.
+	 * @return The combinations of the cards of pHand and pCards cards of pDeck.
+	 * @pre pHand != null && pDeck != null
+	 * @pre pCards >= 0 && pCards <= the number of cards of pDeck not in pHand
+	 */
+	public static Combinations completions(Hand pHand, CardDeck pDeck, int pCards)
+	{
+		assert pHand != null && pDeck != null;
+		long available = 0;
+		for( int i = 0; i < pDeck.size(); i++ )
+		{
+			available |= 1L << pDeck.cardCodeAt(i);
+		}
+		return of(available & ~pHand.toMask(), pHand.toMask(), pCards);
+	}
+
+	private static Combinations of(long pAvailable, long pBase, int pCards)
+	{
+		int available = Long.bitCount(pAvailable);
+		assert pCards >= 0 && pCards <= available;
+		long[] expand = null;
+		if( pAvailable != (1L << available) - 1 )
+		{
+			expand = expansionTable(pAvailable);
+		}
+		return new Combinations(available, pCards, pBase, expand, 0, BINOMIALS[available][pCards]);
+	}
+
+	/*
+	 * Entry [i * 256 + b] is the mask of the cards at the positions
+	 * given by the bits of b, shifted by i bytes.
+	 */
+	private static long[] expansionTable(long pAvailable)
+	{
+		byte[] cards = new byte[Long.bitCount(pAvailable)];
+		long available = pAvailable;
+		for( int i = 0; i < cards.length; i++ )
+		{
+			cards[i] = (byte) Long.numberOfTrailingZeros(available);
+			available &= available - 1;
+		}
+		long[] expand = new long[BYTES << Byte.SIZE];
+		for( int position = 0; position < cards.length; position++ )
+		{
+			int offset = (position / Byte.SIZE) << Byte.SIZE;
+			int bit = 1 << position % Byte.SIZE;
+			for( int b = bit; b < 1 << Byte.SIZE; b = (b + 1) | bit )
+			{
+				expand[offset + b] |= 1L << cards[position];
+			}
+		}
+		return expand;
+	}
+
+	/*
+	 * Returns the pRank-th combination of pCards positions in colexicographic
+	 * order, which is the order of Gosper's hack. Each position is the largest
+	 * c such that C(c, i) does not exceed what is left of the rank.
+	 */
+	private long unrank(long pRank, int pCards)
+	{
+		long positions = 0;
+		long rank = pRank;
+		int c = aAvailable;
+		for( int i = pCards; i > 0; i-- )
+		{
+			do
+			{
+				c--;
+			}
+			while( BINOMIALS[c][i] > rank );
+			positions |= 1L << c;
+			rank -= BINOMIALS[c][i];
+		}
+		return positions;
+	}
+
+	/*
+	 * Gosper's hack: the smallest number larger than pPositions
+	 * with the same number of bits.
+	 */
+	private static long next(long pPositions)
+	{
+		long t = pPositions | (pPositions - 1);
+		return (t + 1) | (((~t & -~t) - 1) >>> (Long.numberOfTrailingZeros(pPositions) + 1));
+	}
+
+	private long toMask(long pPositions)
+	{
+		if( aExpand == null )
+		{
+			return aBase | pPositions;
+		}
+		long mask = aBase;
+		for( int i = 0; pPositions != 0; i++ )
+		{
+			mask |= aExpand[(i << Byte.SIZE) | (int) (pPositions & 0xff)];
+			pPositions >>>= Byte.SIZE;
+		}
+		return mask;
+	}
+
+	@Override
+	public boolean tryAdvance(LongConsumer pAction)
+	{
+		assert pAction != null;
+		if( aNext >= aEnd )
+		{
+			return false;
+		}
+		pAction.accept(toMask(aPositions));
+		aNext++;
+		if( aNext < aEnd )
+		{
+			aPositions = next(aPositions);
+		}
+		return true;
+	}
+
+	@Override
+	public void forEachRemaining(LongConsumer pAction)
+	{
+		assert pAction != null;
+		long positions = aPositions;
+		for( long rank = aNext; rank < aEnd; rank++ )
+		{
+			pAction.accept(toMask(positions));
+			if( rank + 1 < aEnd )
+			{
+				positions = next(positions);
+			}
+		}
+		aPositions = positions;
+		aNext = aEnd;
+	}
+
+	/**
+	 * Visits the remaining combinations as hands. To avoid creating an object per
+	 * combination, the same view is passed to pAction for every combination, so it
+	 * is only valid during the call and its cards must be copied to be kept.
+	 *
+	 * @param pAction The action to perform on each combination.
+	 * @pre pAction != null
+	 */
+	public void forEachHand(Consumer<? super HandView> pAction)
+	{
+		assert pAction != null;
+		MaskView view = new MaskView(Long.bitCount(aBase) + aCards);
+		forEachRemaining((long pMask) ->
+		{
+			view.aCards = pMask;
+			pAction.accept(view);
+		});
+	}
+
+	/**
+	 * @return A sequential stream of the remaining combinations, which
+	 * can be made parallel with parallel().
+	 */
+	public LongStream stream()
+	{
+		return StreamSupport.longStream(this, false);
+	}
+
+	@Override
+	public Combinations trySplit()
+	{
+		long middle = aNext + (aEnd - aNext) / 2;
+		if( middle == aNext )
+		{
+			return null;
+		}
+		Combinations first = new Combinations(aAvailable, aCards, aBase, aExpand, aNext, middle);
+		aNext = middle;
+		aPositions = unrank(middle, aCards);
+		return first;
+	}
+
+	@Override
+	public long estimateSize()
+	{
+		return aEnd - aNext;
+	}
+
+	@Override
+	public int characteristics()
+	{
+		return ORDERED | SORTED | DISTINCT | NONNULL | IMMUTABLE | SIZED | SUBSIZED;
+	}
+
+	@Override
+	public Comparator<? super Long> getComparator()
+	{
+		return null; // Sorted in the natural order
+	}
+
+	/*
+	 * A hand whose cards are changed for each combination.
+	 */
+	private static final class MaskView implements HandView
+	{
+		private final int aSize;
+		private long aCards;
+
+		MaskView(int pSize)
+		{
+			aSize = pSize;
+		}
+
+		@Override
+		public int size()
+		{
+			return aSize;
+		}
+
+		@Override
+		public boolean isEmpty()
+		{
+			return aSize == 0;
+		}
+
+		@Override
+		public boolean isFull()
+		{
+			return true;
+		}
+
+		@Override
+		public boolean contains(Card pCard)
+		{
+			assert pCard != null;
+			return (aCards & 1L << pCard.index()) != 0;
+		}
+
+		@Override
+		public int countOf(Rank pRank)
+		{
+			assert pRank != null;
+			return CardSet.countOf(aCards, pRank);
+		}
+
+		@Override
+		public int countOf(Suit pSuit)
+		{
+			assert pSuit != null;
+			return CardSet.countOf(aCards, pSuit);
+		}
+
+		@Override
+		public Iterator<Card> iterator()
+		{
+			long cards = aCards;
+			return new Iterator<Card>()
+			{
+				private long aRemaining = cards;
+
+				@Override
+				public boolean hasNext()
+				{
+					return aRemaining != 0;
+				}
+
+				@Override
+				public Card next()
+				{
+					if( aRemaining == 0 )
+					{
+						throw new NoSuchElementException();
+					}
+					int card = Long.numberOfTrailingZeros(aRemaining);
+					aRemaining &= aRemaining - 1;
+					return Card.get(card);
+				}
+			};
+		}
+	}
+}
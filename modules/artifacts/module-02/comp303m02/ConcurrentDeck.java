@@ -0,0 +1,181 @@
+package comp303m02;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.random.RandomGenerator;
+
+/**
+ * A deck of cards that many threads can draw from at the same time.
+ *
+ * The order of the cards is fixed when the deck is created and never changes
+ * afterwards. Threads draw cards by atomically advancing a cursor over this
+ * order, so no lock is ever taken, no card is dealt twice, and no card is
+ * lost. Because the emptiness of the deck can change between two calls,
+ * the drawing methods report an empty deck through their result instead
+ * of through a precondition.
+ */
+public final class ConcurrentDeck implements Iterable<Card>
+{
+	private static final int NUMBER_OF_CARDS = 52;
+
+	private final byte[] aCards; // The cards in the order they are dealt
+	private final AtomicInteger aNext = new AtomicInteger(); // Can go past aCards.length when threads race at the end
+
+	/**
+	 * Creates a full deck shuffled with a default random number generator.
+	 */
+	public ConcurrentDeck()
+	{
+		this(new SplittableRandom());
+	}
+
+	/**
+	 * Creates a full deck shuffled with pRandom.
+	 *
+	 * @param pRandom The source of randomness for shuffling.
+	 * @pre pRandom != null
+	 */
+	public ConcurrentDeck(RandomGenerator pRandom)
+	{
+		assert pRandom != null;
+		aCards = new byte[NUMBER_OF_CARDS];
+		for( int i = 0; i < NUMBER_OF_CARDS; i++ )
+		{
+			aCards[i] = (byte) i;
+		}
+		for( int i = NUMBER_OF_CARDS - 1; i > 0; i-- )
+		{
+			int j = pRandom.nextInt(i + 1);
+			byte card = aCards[i];
+			aCards[i] = aCards[j];
+			aCards[j] = card;
+		}
+	}
+
+	/**
+	 * Creates a deck with the cards currently in pDeck, which will be
+	 * dealt in the same order as they would be drawn from pDeck.
+	 * pDeck is not modified.
+	 *
+	 * @param pDeck The deck to copy.
+	 * @pre pDeck != null
+	 */
+	public ConcurrentDeck(CardDeck pDeck)
+	{
+		assert pDeck != null;
+		aCards = new byte[pDeck.size()];
+		for( int i = 0; i < aCards.length; i++ )
+		{
+			aCards[i] = (byte) pDeck.cardCodeAt(aCards.length - 1 - i);
+		}
+	}
+
+	/**
+	 * @return The next card, which is removed from the deck.
+	 * @throws NoSuchElementException If there are no cards left.
+	 */
+	public Card draw()
+	{
+		Card card = tryDraw();
+		if( card == null )
+		{
+			throw new NoSuchElementException();
+		}
+		return card;
+	}
+
+	/**
+	 * @return The next card, which is removed from the deck, or null
+	 * if there are no cards left.
+	 */
+	public Card tryDraw()
+	{
+		if( aNext.get() >= aCards.length )
+		{
+			return null; // Avoids moving the cursor further once the deck is empty.
+		}
+		int next = aNext.getAndIncrement();
+		if( next >= aCards.length )
+		{
+			return null;
+		}
+		return Card.get(aCards[next]);
+	}
+
+	/**
+	 * Draws up to pNumberOfCards consecutive cards in a single atomic step.
+	 *
+	 * @param pNumberOfCards The number of cards to draw.
+	 * @return The cards drawn, in the order they were dealt. The array is shorter
+	 * than pNumberOfCards if there were not enough cards left, and empty if the deck
+	 * was empty.
+	 * @pre pNumberOfCards >= 0
+	 */
+	public Card[] drawBatch(int pNumberOfCards)
+	{
+		assert pNumberOfCards >= 0;
+		if( pNumberOfCards == 0 || aNext.get() >= aCards.length )
+		{
+			return new Card[0];
+		}
+		int count = Math.min(pNumberOfCards, aCards.length); // Bounds how far the cursor can overshoot
+		int first = aNext.getAndAdd(count);
+		int end = Math.min(first + count, aCards.length);
+		Card[] cards = new Card[Math.max(end - first, 0)];
+		for( int i = 0; i < cards.length; i++ )
+		{
+			cards[i] = Card.get(aCards[first + i]);
+		}
+		return cards;
+	}
+
+	/**
+	 * @return The number of cards left. When other threads are drawing,
+	 * the value can be out of date as soon as it is returned.
+	 */
+	public int size()
+	{
+		return Math.max(aCards.length - aNext.get(), 0);
+	}
+
+	/**
+	 * @return True if there are no cards left. Once a deck is empty,
+	 * it remains empty.
+	 */
+	public boolean isEmpty()
+	{
+		return aNext.get() >= aCards.length;
+	}
+
+	/**
+	 * Iterates over the cards that are left when this method is called, in the
+	 * order they will be dealt. The iteration is not affected by later draws.
+	 */
+	@Override
+	public Iterator<Card> iterator()
+	{
+		int first = Math.min(aNext.get(), aCards.length);
+		return new Iterator<Card>()
+		{
+			private int aPosition = first;
+
+			@Override
+			public boolean hasNext()
+			{
+				return aPosition < aCards.length;
+			}
+
+			@Override
+			public Card next()
+			{
+				if( !hasNext() )
+				{
+					throw new NoSuchElementException();
+				}
+				return Card.get(aCards[aPosition++]);
+			}
+		};
+	}
+}
@@ -0,0 +1,403 @@
+package comp303m02;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * An append-only journal of deals, stored in a directory as a sequence of
+ * segment files that are mapped in memory. Each deal is a record of RECORD_SIZE
+ * bytes with the time of the deal, the identifier of the table, the order of the
+ * 52 cards of the deck when it was shuffled (see DeckCodec), and the number of
+ * cards drawn from it. Since cards are always drawn from the top of the deck,
+ * this is enough to know which cards were drawn and in which order.
+ *
+ * The size of a record divides the size of a page, and segments hold a whole
+ * number of pages, so no record spans two pages. Each record ends with a
+ * CRC32C checksum of its content, and records whose checksum does not match,
+ * for example because they were damaged on the storage device, are skipped
+ * when the journal is replayed.
+ *
+ * Appending a record only copies it into the mapped segment. The segment is
+ * forced to the storage device once for every group of records (group commit),
+ * when commit() is called, and when the journal is closed. When a segment is
+ * full, the next one is created.
+ *
+ * The deals are read back in order with a Replay, which scans the mapped
+ * segments sequentially.
+ */
+public final class DealJournal implements Closeable
+{
+	/**
+	 * The number of bytes of each record.
+	 */
+	public static final int RECORD_SIZE = 64;
+
+	private static final int DEFAULT_RECORDS_PER_SEGMENT = 1 << 20;
+	private static final int DEFAULT_RECORDS_PER_COMMIT = 1024;
+	private static final int NUMBER_OF_CARDS = 52;
+	private static final int PAGE_SIZE = 4096;
+	private static final int RECORDS_PER_PAGE = PAGE_SIZE / RECORD_SIZE;
+	private static final String SEGMENT_FORMAT = "deals-%06d.journal";
+	private static final String SEGMENT_PATTERN = "deals-\\d{6}\\.journal";
+
+	// The layout of a record. The magic number is written last, so that a
+	// record that was not completely written is not replayed. The checksum
+	// covers the bytes from DRAWN_OFFSET to CHECKSUM_OFFSET.
+	private static final short MAGIC = 0x444a;
+	private static final int MAGIC_OFFSET = 0;
+	private static final int DRAWN_OFFSET = 2;
+	private static final int TABLE_OFFSET = 4;
+	private static final int TIMESTAMP_OFFSET = 8;
+	private static final int DECK_OFFSET = 16;
+	private static final int CHECKSUM_OFFSET = RECORD_SIZE - 4;
+
+	private final Path aDirectory;
+	private final int aRecordsPerSegment;
+	private final int aRecordsPerCommit;
+	private final byte[] aDeck = new byte[DeckCodec.FULL_DECK_BYTES];
+	private final byte[] aRecord = new byte[RECORD_SIZE]; // The record being appended
+	private final ByteBuffer aRecordBuffer = ByteBuffer.wrap(aRecord);
+	private final CRC32C aChecksum = new CRC32C();
+	private MappedByteBuffer aSegment;
+	private int aSegmentNumber;
+	private int aPosition; // The offset of the next record in aSegment
+	private int aUncommitted = 0;
+
+	/**
+	 * Opens the journal in pDirectory with default segment and
+	 * commit sizes. The directory is created if it does not exist.
+	 *
+	 * @param pDirectory The directory of the journal.
+	 * @throws IOException If the journal cannot be opened.
+	 * @pre pDirectory != null
+	 */
+	public DealJournal(Path pDirectory) throws IOException
+	{
+		this(pDirectory, DEFAULT_RECORDS_PER_SEGMENT, DEFAULT_RECORDS_PER_COMMIT);
+	}
+
+	/**
+	 * Opens the journal in pDirectory. The directory is created if it does not
+	 * exist. If it already contains a journal, new deals are appended after the
+	 * last one.
+	 *
+	 * @param pDirectory The directory of the journal.
+	 * @param pRecordsPerSegment The number of records in each new segment file, which
+	 * is rounded up to fill whole pages.
+	 * @param pRecordsPerCommit The number of records appended between two commits.
+	 * @throws IOException If the journal cannot be opened.
+	 * @pre pDirectory != null && pRecordsPerSegment > 0 && pRecordsPerCommit > 0
+	 */
+	public DealJournal(Path pDirectory, int pRecordsPerSegment, int pRecordsPerCommit) throws IOException
+	{
+		assert pDirectory != null && pRecordsPerSegment > 0 && pRecordsPerCommit > 0;
+		assert (long) pRecordsPerSegment * RECORD_SIZE <= Integer.MAX_VALUE - PAGE_SIZE;
+		aDirectory = pDirectory;
+		aRecordsPerSegment = (pRecordsPerSegment + RECORDS_PER_PAGE - 1) / RECORDS_PER_PAGE * RECORDS_PER_PAGE;
+		aRecordsPerCommit = pRecordsPerCommit;
+		Files.createDirectories(pDirectory);
+		List<Path> segments = segments(pDirectory);
+		if( segments.isEmpty() )
+		{
+			openSegment(0);
+		}
+		else
+		{
+			aSegmentNumber = segments.size() - 1;
+			aSegment = map(segments.get(aSegmentNumber), MapMode.READ_WRITE, 0);
+			aPosition = 0;
+			while( aPosition < aSegment.capacity() && aSegment.getShort(aPosition + MAGIC_OFFSET) == MAGIC )
+			{
+				aPosition += RECORD_SIZE;
+			}
+		}
+	}
+
+	/**
+	 * Appends a record of pDeck, dealt now at table pTableId.
+	 *
+	 * @param pTableId The identifier of the table.
+	 * @param pDeck The deck of the deal, after the cards were drawn.
+	 * @throws IOException If a commit or a new segment fails.
+	 * @pre pDeck != null
+	 */
+	public void append(int pTableId, Deck pDeck) throws IOException
+	{
+		append(System.currentTimeMillis(), pTableId, pDeck);
+	}
+
+	/**
+	 * Appends a record of pDeck, dealt at time pTimestamp at table pTableId.
+	 * The record holds the order of the cards since pDeck was last shuffled,
+	 * so pDeck must not have been sorted since then.
+	 *
+	 * @param pTimestamp The time of the deal, in milliseconds since the epoch.
+	 * @param pTableId The identifier of the table.
+	 * @param pDeck The deck of the deal, after the cards were drawn.
+	 * @throws IOException If a commit or a new segment fails.
+	 * @pre pDeck != null
+	 */
+	public void append(long pTimestamp, int pTableId, Deck pDeck) throws IOException
+	{
+		assert pDeck != null;
+		if( aPosition + RECORD_SIZE > aSegment.capacity() )
+		{
+			aSegment.force();
+			openSegment(aSegmentNumber + 1);
+		}
+		DeckCodec.encodeOrder(pDeck, aDeck, 0);
+		aRecordBuffer.put(DRAWN_OFFSET, (byte) (NUMBER_OF_CARDS - pDeck.size()));
+		aRecordBuffer.putInt(TABLE_OFFSET, pTableId);
+		aRecordBuffer.putLong(TIMESTAMP_OFFSET, pTimestamp);
+		aRecordBuffer.put(DECK_OFFSET, aDeck);
+		aRecordBuffer.putInt(CHECKSUM_OFFSET, checksum(aChecksum, aRecord));
+		aSegment.put(aPosition + DRAWN_OFFSET, aRecord, DRAWN_OFFSET, RECORD_SIZE - DRAWN_OFFSET);
+		aSegment.putShort(aPosition + MAGIC_OFFSET, MAGIC);
+		aPosition += RECORD_SIZE;
+		aUncommitted++;
+		if( aUncommitted == aRecordsPerCommit )
+		{
+			commit();
+		}
+	}
+
+	/**
+	 * Forces the records appended since the last commit to the storage device.
+	 *
+	 * @throws IOException If the records cannot be written.
+	 */
+	public void commit() throws IOException
+	{
+		aSegment.force();
+		aUncommitted = 0;
+	}
+
+	/**
+	 * Commits the records appended since the last commit. The
+	 * journal must not be used after it is closed.
+	 *
+	 * @throws IOException If the records cannot be written.
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		commit();
+	}
+
+	/**
+	 * @param pDirectory The directory of a journal.
+	 * @return A replay of the deals in the journal, from the first to the last.
+	 * @throws IOException If the journal cannot be read.
+	 * @pre pDirectory != null
+	 */
+	public static Replay replay(Path pDirectory) throws IOException
+	{
+		assert pDirectory != null;
+		List<MappedByteBuffer> segments = new ArrayList<>();
+		for( Path segment : segments(pDirectory) )
+		{
+			segments.add(map(segment, MapMode.READ_ONLY, -1));
+		}
+		return new Replay(segments);
+	}
+
+	/*
+	 * The checksum of the content of pRecord, computed with pChecksum.
+	 */
+	private static int checksum(CRC32C pChecksum, byte[] pRecord)
+	{
+		pChecksum.reset();
+		pChecksum.update(pRecord, DRAWN_OFFSET, CHECKSUM_OFFSET - DRAWN_OFFSET);
+		return (int) pChecksum.getValue();
+	}
+
+	private void openSegment(int pNumber) throws IOException
+	{
+		aSegmentNumber = pNumber;
+		Path segment = aDirectory.resolve(String.format(SEGMENT_FORMAT, pNumber));
+		aSegment = map(segment, MapMode.READ_WRITE, aRecordsPerSegment * RECORD_SIZE);
+		aPosition = 0;
+	}
+
+	/*
+	 * Maps pFile, with pSize bytes if it is created, or with its
+	 * current size if pSize is 0 or less. The mapping remains valid
+	 * after the channel is closed.
+	 */
+	private static MappedByteBuffer map(Path pFile, MapMode pMode, int pSize) throws IOException
+	{
+		StandardOpenOption[] options = pMode == MapMode.READ_ONLY ?
+				new StandardOpenOption[] { StandardOpenOption.READ } :
+				new StandardOpenOption[] { StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE };
+		try( FileChannel channel = FileChannel.open(pFile, options) )
+		{
+			long size = pSize > 0 ? Math.max(pSize, channel.size()) : channel.size();
+			return channel.map(pMode, 0, size - size % RECORD_SIZE);
+		}
+	}
+
+	private static List<Path> segments(Path pDirectory) throws IOException
+	{
+		try( Stream<Path> files = Files.list(pDirectory) )
+		{
+			List<Path> segments = new ArrayList<>();
+			files.filter(pFile -> pFile.getFileName().toString().matches(SEGMENT_PATTERN))
+				.sorted()
+				.forEach(segments::add);
+			return segments;
+		}
+	}
+
+	/**
+	 * A cursor over the deals of a journal. Initially, the cursor is before
+	 * the first deal, and next() moves it to the following deal, skipping the
+	 * records whose checksum does not match. The other methods return
+	 * information on the deal at the cursor.
+	 */
+	public static final class Replay
+	{
+		private final List<MappedByteBuffer> aSegments;
+		private int aSegment = 0;
+		private int aPosition = -RECORD_SIZE; // The offset of the current record
+		private final byte[] aRecord = new byte[RECORD_SIZE]; // A copy of the current record
+		private final ByteBuffer aRecordBuffer = ByteBuffer.wrap(aRecord);
+		private final CRC32C aChecksum = new CRC32C();
+		private final byte[] aDeck = new byte[DeckCodec.FULL_DECK_BYTES];
+		private final Deck aDecoded = new Deck(); // All the cards of the current deal, once decoded
+		private boolean aDecodedValid = false;
+		private int aSkipped = 0;
+
+		private Replay(List<MappedByteBuffer> pSegments)
+		{
+			aSegments = pSegments;
+		}
+
+		/**
+		 * Moves the cursor to the next deal.
+		 *
+		 * @return False if there are no more deals.
+		 */
+		public boolean next()
+		{
+			while( aSegment < aSegments.size() )
+			{
+				MappedByteBuffer segment = aSegments.get(aSegment);
+				aPosition += RECORD_SIZE;
+				if( aPosition + RECORD_SIZE > segment.capacity() || segment.getShort(aPosition + MAGIC_OFFSET) != MAGIC )
+				{
+					aSegment++;
+					aPosition = -RECORD_SIZE;
+				}
+				else
+				{
+					segment.get(aPosition, aRecord);
+					if( aRecordBuffer.getInt(CHECKSUM_OFFSET) == checksum(aChecksum, aRecord) )
+					{
+						aRecordBuffer.get(DECK_OFFSET, aDeck);
+						aDecodedValid = false;
+						return true;
+					}
+					aSkipped++;
+				}
+			}
+			return false;
+		}
+
+		/**
+		 * @return The number of records skipped so far because their checksum
+		 * did not match.
+		 */
+		public int getSkipped()
+		{
+			return aSkipped;
+		}
+
+		/**
+		 * @return The time of the deal, in milliseconds since the epoch.
+		 * @pre next() returned true
+		 */
+		public long getTimestamp()
+		{
+			assert isValid();
+			return aRecordBuffer.getLong(TIMESTAMP_OFFSET);
+		}
+
+		/**
+		 * @return The identifier of the table of the deal.
+		 * @pre next() returned true
+		 */
+		public int getTableId()
+		{
+			assert isValid();
+			return aRecordBuffer.getInt(TABLE_OFFSET);
+		}
+
+		/**
+		 * @return The number of cards drawn from the deck in the deal.
+		 * @pre next() returned true
+		 */
+		public int getDrawCount()
+		{
+			assert isValid();
+			return aRecordBuffer.get(DRAWN_OFFSET);
+		}
+
+		/**
+		 * Restores pDeck to its state when the deal was appended: the cards
+		 * in the same order, without the cards that had been drawn.
+		 *
+		 * @param pDeck The deck to restore.
+		 * @pre next() returned true && pDeck != null
+		 */
+		public void restore(Deck pDeck)
+		{
+			assert pDeck != null;
+			DeckCodec.decodeOrder(aDeck, 0, pDeck, NUMBER_OF_CARDS - getDrawCount());
+		}
+
+		/**
+		 * Adds to pHand the cards drawn in the deal whose draw numbers are pFirst,
+		 * pFirst + pStep, pFirst + 2 * pStep, and so on, below pLast. The first card
+		 * drawn has number 0. For example, if two players were dealt two cards each
+		 * in turn, deal(hand, 0, 4, 2) rebuilds the hand of the first player.
+		 *
+		 * @param pHand The hand to add the cards to.
+		 * @param pFirst The draw number of the first card to add.
+		 * @param pLast The draw number after the last card to add.
+		 * @param pStep The difference between the draw numbers of two consecutive cards to add.
+		 * @pre next() returned true && pHand != null
+		 * @pre 0 <= pFirst && pFirst <= pLast && pLast <= getDrawCount() && pStep > 0
+		 * @pre pHand has room for the cards && none of the cards is in pHand
+		 */
+		public void deal(Hand pHand, int pFirst, int pLast, int pStep)
+		{
+			assert pHand != null && pStep > 0;
+			assert 0 <= pFirst && pFirst <= pLast && pLast <= getDrawCount();
+			if( !aDecodedValid )
+			{
+				DeckCodec.decodeOrder(aDeck, 0, aDecoded, NUMBER_OF_CARDS);
+				aDecodedValid = true;
+			}
+			for( int i = pFirst; i < pLast; i += pStep )
+			{
+				pHand.add(Card.get(aDecoded.permutationAt(NUMBER_OF_CARDS - 1 - i)));
+			}
+		}
+
+		private boolean isValid()
+		{
+			return aPosition >= 0 && aSegment < aSegments.size();
+		}
+	}
+}
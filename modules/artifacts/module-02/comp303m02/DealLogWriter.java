@@ -0,0 +1,148 @@
+package comp303m02;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes the cards of decks and hands to a channel, one deal per line, with
+ * the cards separated by commas. The text of each card (as in Card.toString())
+ * is encoded once in UTF-8 and copied into a reusable buffer, so logging a deal
+ * does not create any String.
+ */
+public final class DealLogWriter
+{
+	private static final int NUMBER_OF_CARDS = 52;
+	private static final byte[][] CARD_BYTES = new byte[NUMBER_OF_CARDS][];
+	private static final byte[] SEPARATOR = ", ".getBytes(StandardCharsets.UTF_8);
+	private static final byte END_OF_LINE = '\n';
+	private static final int MAX_LINE_LENGTH;
+
+	static
+	{
+		int longest = 0;
+		for( int i = 0; i < NUMBER_OF_CARDS; i++ )
+		{
+			CARD_BYTES[i] = Card.get(i).toString().getBytes(StandardCharsets.UTF_8);
+			longest = Math.max(longest, CARD_BYTES[i].length);
+		}
+		MAX_LINE_LENGTH = NUMBER_OF_CARDS * (longest + SEPARATOR.length) + 1;
+	}
+
+	private final WritableByteChannel aChannel;
+	private final ByteBuffer aBuffer;
+
+	/**
+	 * Creates a writer that buffers at least pBufferSize bytes
+	 * before writing them to pChannel.
+	 *
+	 * @param pChannel The channel to write to.
+	 * @param pBufferSize The size of the buffer, in bytes.
+	 * @pre pChannel != null && pBufferSize > 0
+	 */
+	public DealLogWriter(WritableByteChannel pChannel, int pBufferSize)
+	{
+		assert pChannel != null && pBufferSize > 0;
+		aChannel = pChannel;
+		aBuffer = ByteBuffer.allocateDirect(Math.max(pBufferSize, MAX_LINE_LENGTH));
+	}
+
+	/**
+	 * Writes the cards of pDeck as one line, from the bottom of the deck to the top.
+	 *
+	 * @param pDeck The deck to log.
+	 * @throws IOException If the buffer cannot be written to the channel.
+	 * @pre pDeck != null
+	 */
+	public void log(CardDeck pDeck) throws IOException
+	{
+		ensureCapacity();
+		write(pDeck, aBuffer);
+	}
+
+	/**
+	 * Writes the cards of pHand as one line.
+	 *
+	 * @param pHand The hand to log.
+	 * @throws IOException If the buffer cannot be written to the channel.
+	 * @pre pHand != null
+	 */
+	public void log(Hand pHand) throws IOException
+	{
+		ensureCapacity();
+		write(pHand, aBuffer);
+	}
+
+	/**
+	 * Writes all the buffered lines to the channel.
+	 *
+	 * @throws IOException If the buffer cannot be written to the channel.
+	 */
+	public void flush() throws IOException
+	{
+		aBuffer.flip();
+		while( aBuffer.hasRemaining() )
+		{
+			aChannel.write(aBuffer);
+		}
+		aBuffer.clear();
+	}
+
+	private void ensureCapacity() throws IOException
+	{
+		if( aBuffer.remaining() < MAX_LINE_LENGTH )
+		{
+			flush();
+		}
+	}
+
+	/**
+	 * Writes the cards of pDeck into pBuffer as one line, from the bottom
+	 * of the deck to the top.
+	 *
+	 * @param pDeck The deck to write.
+	 * @param pBuffer The buffer to write to.
+	 * @throws java.nio.BufferOverflowException If pBuffer is too small.
+	 * @pre pDeck != null && pBuffer != null
+	 */
+	public static void write(CardDeck pDeck, ByteBuffer pBuffer)
+	{
+		assert pDeck != null && pBuffer != null;
+		for( int i = 0; i < pDeck.size(); i++ )
+		{
+			if( i > 0 )
+			{
+				pBuffer.put(SEPARATOR);
+			}
+			pBuffer.put(CARD_BYTES[pDeck.cardCodeAt(i)]);
+		}
+		pBuffer.put(END_OF_LINE);
+	}
+
+	/**
+	 * Writes the cards of pHand into pBuffer as one line.
+	 *
+	 * @param pHand The hand to write.
+	 * @param pBuffer The buffer to write to.
+	 * @throws java.nio.BufferOverflowException If pBuffer is too small.
+	 * @pre pHand != null && pBuffer != null
+	 */
+	public static void write(Hand pHand, ByteBuffer pBuffer)
+	{
+		assert pHand != null && pBuffer != null;
+		long cards = pHand.toMask();
+		boolean first = true;
+		while( cards != 0 )
+		{
+			if( !first )
+			{
+				pBuffer.put(SEPARATOR);
+			}
+			pBuffer.put(CARD_BYTES[Long.numberOfTrailingZeros(cards)]);
+			cards &= cards - 1;
+			first = false;
+		}
+		pBuffer.put(END_OF_LINE);
+	}
+}
@@ -1,85 +1,212 @@
 package comp303m02;
 
-import java.util.Collections;
 import java.util.Comparator;
-import java.util.Iterator;
-import java.util.Stack;
-
-import comp303m02.Card.Rank;
-import comp303m02.Card.Suit;
+import java.util.EmptyStackException;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
 
 /**
  * A Deck of playing cards.
  *
+ * The cards are stored as an array of card indices (see Card.index())
+ * with a cursor marking the top of the deck. The array always holds a
+ * permutation of the 52 cards: drawing a card only moves the cursor,
+ * and shuffling permutes the array in place.
+ *
+ * The iteration over the cards and their indices is provided by CardDeck.
  */
-public final class Deck implements Iterable<Card>
+public final class Deck implements CardDeck
 {
-	private  Stack<Card> aCards = new Stack<>();
-	
+	private static final int NUMBER_OF_CARDS = 52;
+	private static final Comparator<Card> SUIT_FIRST = new Card.CompareBySuitFirst();
+
+	private final byte[] aCards = new byte[NUMBER_OF_CARDS];
+	private int aSize = 0; // Cards at indices [0, aSize) are in the deck, the top one last.
+	private final RandomGenerator aRandom;
+
 	public static void main(String[] args)
 	{
 		Deck deck = new Deck();
 		deck.shuffle();
 	}
-	
-	@Override
-	public Iterator<Card> iterator()
+
+	/**
+	 * Creates an empty deck that shuffles its cards
+	 * with a default random number generator.
+	 */
+	public Deck()
 	{
-		return aCards.iterator();
+		this(new SplittableRandom());
 	}
-	
+
+	/**
+	 * Creates an empty deck that shuffles its cards
+	 * using pRandom. The generator is not shared with
+	 * other decks unless the client does so.
+	 *
+	 * @param pRandom The source of randomness for shuffling.
+	 * @pre pRandom != null
+	 */
+	public Deck(RandomGenerator pRandom)
+	{
+		assert pRandom != null;
+		aRandom = pRandom;
+		for( int i = 0; i < NUMBER_OF_CARDS; i++ )
+		{
+			aCards[i] = (byte) i;
+		}
+	}
+
+	@Override
 	public void shuffle()
 	{
-		aCards.clear();
-		for(Suit suit : Suit.values())
+		shuffle(aRandom);
+	}
+
+	@Override
+	public void shuffle(long pSeed)
+	{
+		reset();
+		shuffle(new SplittableRandom(pSeed));
+	}
+
+	private void shuffle(RandomGenerator pRandom)
+	{
+		for( int i = NUMBER_OF_CARDS - 1; i > 0; i-- )
 		{
-			for(Rank rank : Rank.values())
-			{
-				aCards.push(new Card(rank,suit));
-			}
+			int j = pRandom.nextInt(i + 1);
+			byte card = aCards[i];
+			aCards[i] = aCards[j];
+			aCards[j] = card;
 		}
-		Collections.shuffle(aCards);
-		
+		aSize = NUMBER_OF_CARDS;
 	}
-	
-	/* Three different options are shown in parallel here. Clearly in a real program
-	 * you would select only one.
-	 */
-	public void sort()
-	{				
-		Collections.sort(aCards, new Comparator<Card>() {
 
-		@Override
-		public int compare(Card pCard1, Card pCard2)
+	@Override
+	public void reset()
+	{
+		for( int i = 0; i < NUMBER_OF_CARDS; i++ )
 		{
-			if( pCard1.getRank() == pCard2.getRank() )
-			{
-				return pCard1.getSuit().compareTo(pCard2.getSuit());
-			}
-			else
-			{
-				return pCard1.getRank().ordinal() - pCard2.getRank().ordinal();
-			}
-		}});
-		
-		Collections.sort(aCards, (pCard1, pCard2) -> pCard1.getRank().compareTo(pCard2.getRank()));
-		
-		Collections.sort(aCards, new Card.CompareBySuitFirst());
+			aCards[i] = (byte) i;
+		}
+		aSize = 0;
+	}
+
+	@Override
+	public void sort()
+	{
+		sort(SUIT_FIRST);
+	}
+
+	@Override
+	public boolean sort(Comparator<Card> pComparator)
+	{
+		assert pComparator != null;
+		return CardSorter.sort(aCards, 0, aSize, pComparator);
 	}
-	
+
+	@Override
 	public Card draw()
 	{
-		return aCards.pop();
+		return Card.get(drawCardCode());
 	}
-	
+
+	/**
+	 * Removes the card on top of the deck, without creating a reference to it.
+	 *
+	 * @return The index (see Card.index()) of the card on top of the deck.
+	 * @throws EmptyStackException If the deck is empty.
+	 */
+	int drawCardCode()
+	{
+		if( aSize == 0 )
+		{
+			throw new EmptyStackException();
+		}
+		aSize--;
+		return aCards[aSize];
+	}
+
+	@Override
+	public int size()
+	{
+		return aSize;
+	}
+
+	@Override
+	public int cardCodeAt(int pPosition)
+	{
+		assert pPosition >= 0 && pPosition < aSize;
+		return aCards[pPosition];
+	}
+
+	/**
+	 * @param pPosition A position among all 52 cards, 0 being the bottom of the deck.
+	 * @return The index (see Card.index()) of the card at pPosition. Positions from
+	 * size() up hold the cards drawn since the last shuffle, the last one drawn first.
+	 * @pre pPosition >= 0 && pPosition < 52
+	 */
+	int permutationAt(int pPosition)
+	{
+		assert pPosition >= 0 && pPosition < NUMBER_OF_CARDS;
+		return aCards[pPosition];
+	}
+
+	/**
+	 * Replaces the cards of the deck with the first pSize cards of pCards,
+	 * from the bottom of the deck to the top. The rest of pCards are the
+	 * cards that are not in the deck, so that the deck always holds all
+	 * 52 cards, as expected by shuffle().
+	 *
+	 * @param pCards A permutation of the 52 card indices (see Card.index()).
+	 * @param pSize The number of cards in the deck.
+	 * @pre pCards != null && isPermutation(pCards)
+	 * @pre pSize >= 0 && pSize <= 52
+	 */
+	void restore(byte[] pCards, int pSize)
+	{
+		assert pCards != null && isPermutation(pCards);
+		assert pSize >= 0 && pSize <= NUMBER_OF_CARDS;
+		System.arraycopy(pCards, 0, aCards, 0, NUMBER_OF_CARDS);
+		aSize = pSize;
+	}
+
+	private static boolean isPermutation(byte[] pCards)
+	{
+		long cards = 0;
+		for( byte card : pCards )
+		{
+			if( card < 0 || card >= NUMBER_OF_CARDS )
+			{
+				return false;
+			}
+			cards |= 1L << card;
+		}
+		return pCards.length == NUMBER_OF_CARDS && Long.bitCount(cards) == NUMBER_OF_CARDS;
+	}
+
+	@Override
 	public boolean isEmpty()
 	{
-		return aCards.isEmpty();
+		return aSize == 0;
 	}
-	
+
+	@Override
 	public Card peek()
 	{
-		assert !isEmpty();
-		return aCards.peek();
+		return Card.get(peekCardCode());
+	}
+
+	/**
+	 * @return The index (see Card.index()) of the card on top of the deck.
+	 * @throws EmptyStackException If the deck is empty.
+	 */
+	int peekCardCode()
+	{
+		if( aSize == 0 )
+		{
+			throw new EmptyStackException();
+		}
+		return aCards[aSize - 1];
 	}
 }
@@ -0,0 +1,408 @@
+package comp303m02;
+
+import java.util.Arrays;
+
+/**
+ * Encodes the order of the cards of a deck in a compact binary form, to
+ * archive large numbers of deals.
+ *
+ * A full deck is encoded as the rank of its permutation among the 52! possible
+ * orders, in FULL_DECK_BYTES = 29 bytes. The rank is computed from the Lehmer
+ * code of the permutation: the digit of each position is the number of cards
+ * that are not placed yet and are smaller than the card at that position. The
+ * digits form a number in a mixed radix (52, 51, ..., 1), which is converted to
+ * binary with Horner's method on 32-bit limbs. To limit the number of operations
+ * on limbs, consecutive digits are grouped so that the product of their radices
+ * fits in an int, and each group is handled as a single digit.
+ *
+ * A deck from which cards were drawn is encoded as the number of cards
+ * followed by the 6-bit index of each card (see Card.index()).
+ *
+ * All orders go from the bottom of the deck to the top.
+ */
+public final class DeckCodec
+{
+	/**
+	 * The number of bytes of an encoded full deck.
+	 */
+	public static final int FULL_DECK_BYTES = 29; // 52! < 2^226
+
+	private static final int NUMBER_OF_CARDS = 52;
+	private static final long ALL_CARDS = (1L << NUMBER_OF_CARDS) - 1;
+	private static final int LIMBS = 8; // 256 bits, enough for 52! - 1
+	private static final long LIMB_MASK = 0xffffffffL;
+	private static final int BITS_PER_CARD = 6;
+	private static final int CARD_MASK = (1 << BITS_PER_CARD) - 1;
+	private static final int[] GROUP_ENDS; // The position after the last position of each group
+	private static final int[] GROUP_RADICES; // The product of the radices of the positions of each group
+
+	static
+	{
+		int[] ends = new int[NUMBER_OF_CARDS];
+		int[] radices = new int[NUMBER_OF_CARDS];
+		int groups = 0;
+		long radix = 1;
+		for( int i = 0; i < NUMBER_OF_CARDS; i++ )
+		{
+			if( radix * radixOf(i) > Integer.MAX_VALUE )
+			{
+				groups++;
+				radix = 1;
+			}
+			radix *= radixOf(i);
+			ends[groups] = i + 1;
+			radices[groups] = (int) radix;
+		}
+		GROUP_ENDS = Arrays.copyOf(ends, groups + 1);
+		GROUP_RADICES = Arrays.copyOf(radices, groups + 1);
+	}
+
+	private DeckCodec()
+	{}
+
+	/**
+	 * @param pDeck A full deck.
+	 * @return A new array of FULL_DECK_BYTES bytes that encodes the order of pDeck.
+	 * @pre pDeck != null && pDeck.size() == 52
+	 */
+	public static byte[] encode(Deck pDeck)
+	{
+		byte[] bytes = new byte[FULL_DECK_BYTES];
+		encode(pDeck, bytes, 0);
+		return bytes;
+	}
+
+	/**
+	 * Writes the FULL_DECK_BYTES bytes that encode the order of pDeck
+	 * into pBytes, starting at pOffset.
+	 *
+	 * @param pDeck A full deck.
+	 * @param pBytes The array to write to.
+	 * @param pOffset The index of the first byte to write.
+	 * @pre pDeck != null && pDeck.size() == 52
+	 * @pre pBytes != null && pOffset >= 0 && pOffset + FULL_DECK_BYTES <= pBytes.length
+	 */
+	public static void encode(Deck pDeck, byte[] pBytes, int pOffset)
+	{
+		assert pDeck != null && pDeck.size() == NUMBER_OF_CARDS;
+		encodeOrder(pDeck, pBytes, pOffset);
+	}
+
+	/**
+	 * Writes the FULL_DECK_BYTES bytes that encode the order of all 52 cards
+	 * of pDeck, including the cards drawn since it was last shuffled (see
+	 * Deck.permutationAt), into pBytes, starting at pOffset.
+	 *
+	 * @param pDeck A deck with any number of cards.
+	 * @param pBytes The array to write to.
+	 * @param pOffset The index of the first byte to write.
+	 * @pre pDeck != null
+	 * @pre pBytes != null && pOffset >= 0 && pOffset + FULL_DECK_BYTES <= pBytes.length
+	 */
+	static void encodeOrder(Deck pDeck, byte[] pBytes, int pOffset)
+	{
+		assert pDeck != null;
+		assert pBytes != null && pOffset >= 0 && pOffset + FULL_DECK_BYTES <= pBytes.length;
+		int[] rank = new int[LIMBS];
+		long placed = 0;
+		int position = 0;
+		for( int group = 0; group < GROUP_ENDS.length; group++ )
+		{
+			int digits = 0;
+			for( ; position < GROUP_ENDS[group]; position++ )
+			{
+				int card = pDeck.permutationAt(position);
+				digits = digits * radixOf(position) + card - Long.bitCount(placed & ((1L << card) - 1));
+				placed |= 1L << card;
+			}
+			multiplyAdd(rank, GROUP_RADICES[group], digits);
+		}
+		for( int i = 0; i < FULL_DECK_BYTES; i++ )
+		{
+			int bit = (FULL_DECK_BYTES - 1 - i) * Byte.SIZE;
+			pBytes[pOffset + i] = (byte) (rank[bit / Integer.SIZE] >>> bit % Integer.SIZE);
+		}
+	}
+
+	/**
+	 * Replaces the cards of pDeck with the 52 cards in the order encoded
+	 * by the FULL_DECK_BYTES bytes of pBytes starting at pOffset.
+	 *
+	 * @param pBytes The array to read from.
+	 * @param pOffset The index of the first byte to read.
+	 * @param pDeck The deck to restore.
+	 * @pre pBytes != null && pOffset >= 0 && pOffset + FULL_DECK_BYTES <= pBytes.length
+	 * @pre The bytes were written by encode
+	 * @pre pDeck != null
+	 */
+	public static void decode(byte[] pBytes, int pOffset, Deck pDeck)
+	{
+		decodeOrder(pBytes, pOffset, pDeck, NUMBER_OF_CARDS);
+	}
+
+	/**
+	 * Replaces the cards of pDeck with the 52 cards in the order encoded by
+	 * the FULL_DECK_BYTES bytes of pBytes starting at pOffset, and keeps the
+	 * first pSize cards in the deck, as if the others had been drawn.
+	 *
+	 * @param pBytes The array to read from.
+	 * @param pOffset The index of the first byte to read.
+	 * @param pDeck The deck to restore.
+	 * @param pSize The number of cards left in the deck.
+	 * @pre pBytes != null && pOffset >= 0 && pOffset + FULL_DECK_BYTES <= pBytes.length
+	 * @pre The bytes were written by encode or encodeOrder
+	 * @pre pDeck != null && pSize >= 0 && pSize <= 52
+	 */
+	static void decodeOrder(byte[] pBytes, int pOffset, Deck pDeck, int pSize)
+	{
+		assert pBytes != null && pOffset >= 0 && pOffset + FULL_DECK_BYTES <= pBytes.length;
+		assert pDeck != null;
+		int[] rank = new int[LIMBS];
+		for( int i = 0; i < FULL_DECK_BYTES; i++ )
+		{
+			int bit = (FULL_DECK_BYTES - 1 - i) * Byte.SIZE;
+			rank[bit / Integer.SIZE] |= (pBytes[pOffset + i] & 0xff) << bit % Integer.SIZE;
+		}
+		byte[] digits = new byte[NUMBER_OF_CARDS];
+		int position = NUMBER_OF_CARDS - 1;
+		for( int group = GROUP_ENDS.length - 1; group >= 0; group-- )
+		{
+			int groupDigits = divide(rank, GROUP_RADICES[group]);
+			int first = group == 0 ? 0 : GROUP_ENDS[group - 1];
+			for( ; position >= first; position-- )
+			{
+				digits[position] = (byte) (groupDigits % radixOf(position));
+				groupDigits /= radixOf(position);
+			}
+		}
+		assert isZero(rank);
+		long remaining = ALL_CARDS;
+		for( int i = 0; i < NUMBER_OF_CARDS; i++ )
+		{
+			int card = select(remaining, digits[i]);
+			remaining &= ~(1L << card);
+			digits[i] = (byte) card;
+		}
+		pDeck.restore(digits, pSize);
+	}
+
+	/**
+	 * @param pDecks Full decks.
+	 * @return A new array with the encoding of each deck of pDecks,
+	 * each FULL_DECK_BYTES long, in the order of pDecks.
+	 * @pre pDecks != null && every deck is full
+	 */
+	public static byte[] encodeAll(Deck[] pDecks)
+	{
+		assert pDecks != null;
+		byte[] bytes = new byte[pDecks.length * FULL_DECK_BYTES];
+		for( int i = 0; i < pDecks.length; i++ )
+		{
+			encode(pDecks[i], bytes, i * FULL_DECK_BYTES);
+		}
+		return bytes;
+	}
+
+	/**
+	 * Restores each deck of pDecks from the encodings in pBytes,
+	 * as written by encodeAll.
+	 *
+	 * @param pBytes The encoded decks.
+	 * @param pDecks The decks to restore.
+	 * @pre pBytes != null && pDecks != null && all the elements of pDecks are not null
+	 * @pre pBytes.length == pDecks.length * FULL_DECK_BYTES
+	 */
+	public static void decodeAll(byte[] pBytes, Deck[] pDecks)
+	{
+		assert pBytes != null && pDecks != null;
+		assert pBytes.length == pDecks.length * FULL_DECK_BYTES;
+		for( int i = 0; i < pDecks.length; i++ )
+		{
+			decode(pBytes, i * FULL_DECK_BYTES, pDecks[i]);
+		}
+	}
+
+	/**
+	 * @param pCards A number of cards.
+	 * @return The number of bytes of a deck of pCards cards encoded by encodePartial.
+	 * @pre pCards >= 0 && pCards <= 52
+	 */
+	public static int partialDeckBytes(int pCards)
+	{
+		assert pCards >= 0 && pCards <= NUMBER_OF_CARDS;
+		return 1 + (pCards * BITS_PER_CARD + Byte.SIZE - 1) / Byte.SIZE;
+	}
+
+	/**
+	 * @param pDeck A deck with any number of cards.
+	 * @return A new array of partialDeckBytes(pDeck.size()) bytes that
+	 * encodes the cards of pDeck.
+	 * @pre pDeck != null
+	 */
+	public static byte[] encodePartial(CardDeck pDeck)
+	{
+		assert pDeck != null;
+		byte[] bytes = new byte[partialDeckBytes(pDeck.size())];
+		encodePartial(pDeck, bytes, 0);
+		return bytes;
+	}
+
+	/**
+	 * Writes the number of cards of pDeck and the index of each of its
+	 * cards, on 6 bits, into pBytes, starting at pOffset.
+	 *
+	 * @param pDeck A deck with any number of cards.
+	 * @param pBytes The array to write to.
+	 * @param pOffset The index of the first byte to write.
+	 * @return The number of bytes written, partialDeckBytes(pDeck.size()).
+	 * @pre pDeck != null && pBytes != null
+	 * @pre pOffset >= 0 && pOffset + partialDeckBytes(pDeck.size()) <= pBytes.length
+	 */
+	public static int encodePartial(CardDeck pDeck, byte[] pBytes, int pOffset)
+	{
+		assert pDeck != null && pBytes != null;
+		int length = partialDeckBytes(pDeck.size());
+		assert pOffset >= 0 && pOffset + length <= pBytes.length;
+		int position = pOffset;
+		pBytes[position++] = (byte) pDeck.size();
+		int buffer = 0; // Bits not written yet, in the lowest bits
+		int bits = 0;
+		for( int i = 0; i < pDeck.size(); i++ )
+		{
+			buffer = buffer << BITS_PER_CARD | pDeck.cardCodeAt(i);
+			bits += BITS_PER_CARD;
+			if( bits >= Byte.SIZE )
+			{
+				bits -= Byte.SIZE;
+				pBytes[position++] = (byte) (buffer >>> bits);
+			}
+		}
+		if( bits > 0 )
+		{
+			pBytes[position++] = (byte) (buffer << Byte.SIZE - bits);
+		}
+		return length;
+	}
+
+	/**
+	 * Replaces the cards of pDeck with the cards encoded in pBytes, starting at
+	 * pOffset, by encodePartial. The cards that are not in the deck are placed
+	 * after its top card, in increasing order of index, as if they had been drawn.
+	 *
+	 * @param pBytes The array to read from.
+	 * @param pOffset The index of the first byte to read.
+	 * @param pDeck The deck to restore.
+	 * @return The number of bytes read.
+	 * @pre pBytes != null && pOffset >= 0 && pOffset < pBytes.length
+	 * @pre The bytes were written by encodePartial
+	 * @pre pDeck != null
+	 */
+	public static int decodePartial(byte[] pBytes, int pOffset, Deck pDeck)
+	{
+		assert pBytes != null && pOffset >= 0 && pOffset < pBytes.length;
+		assert pDeck != null;
+		int size = pBytes[pOffset];
+		int length = partialDeckBytes(size);
+		assert pOffset + length <= pBytes.length;
+		byte[] cards = new byte[NUMBER_OF_CARDS];
+		long remaining = ALL_CARDS;
+		int position = pOffset + 1;
+		int buffer = 0;
+		int bits = 0;
+		for( int i = 0; i < size; i++ )
+		{
+			if( bits < BITS_PER_CARD )
+			{
+				buffer = buffer << Byte.SIZE | pBytes[position++] & 0xff;
+				bits += Byte.SIZE;
+			}
+			bits -= BITS_PER_CARD;
+			cards[i] = (byte) (buffer >>> bits & CARD_MASK);
+			assert (remaining & 1L << cards[i]) != 0;
+			remaining &= ~(1L << cards[i]);
+		}
+		for( int i = size; i < NUMBER_OF_CARDS; i++ )
+		{
+			cards[i] = (byte) Long.numberOfTrailingZeros(remaining);
+			remaining &= remaining - 1;
+		}
+		pDeck.restore(cards, size);
+		return length;
+	}
+
+	/*
+	 * The radix of the digit of the Lehmer code at pPosition, which
+	 * is the number of cards not placed before that position.
+	 */
+	private static int radixOf(int pPosition)
+	{
+		return NUMBER_OF_CARDS - pPosition;
+	}
+
+	/*
+	 * pNumber = pNumber * pFactor + pAddend, on little-endian 32-bit limbs.
+	 */
+	private static void multiplyAdd(int[] pNumber, int pFactor, int pAddend)
+	{
+		long carry = pAddend;
+		for( int i = 0; i < pNumber.length; i++ )
+		{
+			long product = (pNumber[i] & LIMB_MASK) * pFactor + carry;
+			pNumber[i] = (int) product;
+			carry = product >>> Integer.SIZE;
+		}
+		assert carry == 0;
+	}
+
+	/*
+	 * pNumber = pNumber / pDivisor, on little-endian 32-bit limbs.
+	 * Returns the remainder.
+	 */
+	private static int divide(int[] pNumber, int pDivisor)
+	{
+		long remainder = 0;
+		for( int i = pNumber.length - 1; i >= 0; i-- )
+		{
+			long dividend = remainder << Integer.SIZE | pNumber[i] & LIMB_MASK;
+			pNumber[i] = (int) (dividend / pDivisor);
+			remainder = dividend % pDivisor;
+		}
+		return (int) remainder;
+	}
+
+	private static boolean isZero(int[] pNumber)
+	{
+		for( int limb : pNumber )
+		{
+			if( limb != 0 )
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/*
+	 * Returns the index of the bit of pMask that has pRank set bits
+	 * below it, skipping 16 bits at a time with a population count.
+	 */
+	private static int select(long pMask, int pRank)
+	{
+		long mask = pMask;
+		int rank = pRank;
+		int base = 0;
+		int count = Long.bitCount(mask & 0xffff);
+		while( count <= rank )
+		{
+			rank -= count;
+			mask >>>= 16;
+			base += 16;
+			count = Long.bitCount(mask & 0xffff);
+		}
+		for( ; rank > 0; rank-- )
+		{
+			mask &= mask - 1;
+		}
+		return base + Long.numberOfTrailingZeros(mask);
+	}
+}
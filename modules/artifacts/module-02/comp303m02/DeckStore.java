@@ -0,0 +1,350 @@
+package comp303m02;
+
+import java.nio.ByteBuffer;
+import java.util.Comparator;
+import java.util.EmptyStackException;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * The decks of many games, stored outside of the heap. Each deck takes a
+ * record of 64 bytes in one direct buffer: the indices (see Card.index())
+ * of its 52 cards, stored like the array of a Deck, followed by the number
+ * of cards left in the deck. Records are aligned on 64 bytes, so that each
+ * deck fits in a single cache line.
+ *
+ * A store of a million decks takes 64 MB of native memory and only a few
+ * objects on the heap, where a million Deck objects would take about 150 MB
+ * of heap that the garbage collector must mark at each full collection.
+ * Decks are addressed by the id of their game, from 0 to the number of
+ * games, and are shuffled, drawn, and peeked in place, without creating any
+ * object. A DeckView is the CardDeck of one game, for code written against
+ * CardDeck.
+ *
+ * A DeckStore is not synchronized, but the decks of different games are
+ * independent: threads can use different games at the same time as long as
+ * each game is used by one thread at a time. The native memory is released
+ * when the store is garbage-collected.
+ */
+public final class DeckStore
+{
+	private static final int NUMBER_OF_CARDS = 52;
+	private static final int RECORD_SIZE = 64;
+	private static final int SIZE_OFFSET = NUMBER_OF_CARDS; // The offset of the number of cards in a record
+	private static final Comparator<Card> SUIT_FIRST = new Card.CompareBySuitFirst();
+
+	/**
+	 * The maximum number of games of a store, limited by the size of a direct buffer.
+	 */
+	public static final int MAX_GAMES = (Integer.MAX_VALUE - RECORD_SIZE) / RECORD_SIZE;
+
+	private final ByteBuffer aRecords;
+	private final int aGames;
+
+	/**
+	 * Creates a store for pGames games, each with a new deck: empty, with
+	 * its cards in order for the first shuffle.
+	 *
+	 * @param pGames The number of games.
+	 * @pre pGames > 0 && pGames <= MAX_GAMES
+	 */
+	public DeckStore(int pGames)
+	{
+		assert pGames > 0 && pGames <= MAX_GAMES;
+		aGames = pGames;
+		aRecords = ByteBuffer.allocateDirect(pGames * RECORD_SIZE + RECORD_SIZE - 1).alignedSlice(RECORD_SIZE);
+		for( int game = 0; game < pGames; game++ )
+		{
+			reset(game);
+		}
+	}
+
+	/**
+	 * @return The number of games of this store.
+	 */
+	public int games()
+	{
+		return aGames;
+	}
+
+	/**
+	 * @return The number of bytes of native memory used by the decks.
+	 */
+	public long byteSize()
+	{
+		return (long) aGames * RECORD_SIZE;
+	}
+
+	private int offsetOf(int pGame)
+	{
+		assert pGame >= 0 && pGame < aGames;
+		return pGame * RECORD_SIZE;
+	}
+
+	/**
+	 * Puts the deck of pGame back in the state of a new deck: empty,
+	 * with its cards in order for the next shuffle.
+	 *
+	 * @param pGame The id of a game.
+	 * @pre pGame >= 0 && pGame < games()
+	 */
+	public void reset(int pGame)
+	{
+		int offset = offsetOf(pGame);
+		for( int i = 0; i < NUMBER_OF_CARDS; i++ )
+		{
+			aRecords.put(offset + i, (byte) i);
+		}
+		aRecords.put(offset + SIZE_OFFSET, (byte) 0);
+	}
+
+	/**
+	 * Puts all 52 cards back in the deck of pGame and shuffles
+	 * them with a Fisher-Yates shuffle, like Deck.shuffle().
+	 *
+	 * @param pGame The id of a game.
+	 * @param pRandom The source of randomness for shuffling.
+	 * @pre pGame >= 0 && pGame < games() && pRandom != null
+	 */
+	public void shuffle(int pGame, RandomGenerator pRandom)
+	{
+		assert pRandom != null;
+		int offset = offsetOf(pGame);
+		for( int i = NUMBER_OF_CARDS - 1; i > 0; i-- )
+		{
+			int j = pRandom.nextInt(i + 1);
+			byte card = aRecords.get(offset + i);
+			aRecords.put(offset + i, aRecords.get(offset + j));
+			aRecords.put(offset + j, card);
+		}
+		aRecords.put(offset + SIZE_OFFSET, (byte) NUMBER_OF_CARDS);
+	}
+
+	/**
+	 * Puts all 52 cards back in the deck of pGame and shuffles them with
+	 * a generator seeded with pSeed, in the same order as Deck.shuffle(long).
+	 *
+	 * @param pGame The id of a game.
+	 * @param pSeed The seed of the shuffle.
+	 * @pre pGame >= 0 && pGame < games()
+	 */
+	public void shuffle(int pGame, long pSeed)
+	{
+		reset(pGame);
+		shuffle(pGame, new SplittableRandom(pSeed));
+	}
+
+	/**
+	 * @param pGame The id of a game.
+	 * @return The index (see Card.index()) of the card on top of the
+	 * deck of pGame, which is removed from the deck.
+	 * @throws EmptyStackException If the deck of pGame is empty.
+	 * @pre pGame >= 0 && pGame < games()
+	 */
+	public int draw(int pGame)
+	{
+		int offset = offsetOf(pGame);
+		int size = aRecords.get(offset + SIZE_OFFSET);
+		if( size == 0 )
+		{
+			throw new EmptyStackException();
+		}
+		size--;
+		aRecords.put(offset + SIZE_OFFSET, (byte) size);
+		return aRecords.get(offset + size);
+	}
+
+	/**
+	 * @param pGame The id of a game.
+	 * @return The index (see Card.index()) of the card on top of the deck of pGame.
+	 * @throws EmptyStackException If the deck of pGame is empty.
+	 * @pre pGame >= 0 && pGame < games()
+	 */
+	public int peek(int pGame)
+	{
+		int offset = offsetOf(pGame);
+		int size = aRecords.get(offset + SIZE_OFFSET);
+		if( size == 0 )
+		{
+			throw new EmptyStackException();
+		}
+		return aRecords.get(offset + size - 1);
+	}
+
+	/**
+	 * @param pGame The id of a game.
+	 * @return The number of cards in the deck of pGame.
+	 * @pre pGame >= 0 && pGame < games()
+	 */
+	public int size(int pGame)
+	{
+		return aRecords.get(offsetOf(pGame) + SIZE_OFFSET);
+	}
+
+	/**
+	 * @param pGame The id of a game.
+	 * @return True if there are no cards in the deck of pGame.
+	 * @pre pGame >= 0 && pGame < games()
+	 */
+	public boolean isEmpty(int pGame)
+	{
+		return size(pGame) == 0;
+	}
+
+	/**
+	 * @param pGame The id of a game.
+	 * @return A new Deck with the cards of the deck of pGame, in the same order,
+	 * which shuffles its cards with a default random number generator.
+	 * @pre pGame >= 0 && pGame < games()
+	 */
+	public Deck toDeck(int pGame)
+	{
+		byte[] cards = new byte[NUMBER_OF_CARDS];
+		aRecords.get(offsetOf(pGame), cards);
+		Deck deck = new Deck();
+		deck.restore(cards, size(pGame));
+		return deck;
+	}
+
+	/**
+	 * Replaces the deck of pGame with the cards of pDeck, in the same order.
+	 * pDeck is not modified.
+	 *
+	 * @param pGame The id of a game.
+	 * @param pDeck The deck to copy.
+	 * @pre pGame >= 0 && pGame < games() && pDeck != null
+	 */
+	public void put(int pGame, Deck pDeck)
+	{
+		assert pDeck != null;
+		int offset = offsetOf(pGame);
+		for( int i = 0; i < NUMBER_OF_CARDS; i++ )
+		{
+			aRecords.put(offset + i, (byte) pDeck.permutationAt(i));
+		}
+		aRecords.put(offset + SIZE_OFFSET, (byte) pDeck.size());
+	}
+
+	/**
+	 * @param pGame The id of a game.
+	 * @return A view of the deck of pGame that shuffles its
+	 * cards with a default random number generator.
+	 * @pre pGame >= 0 && pGame < games()
+	 */
+	public DeckView view(int pGame)
+	{
+		return view(pGame, new SplittableRandom());
+	}
+
+	/**
+	 * @param pGame The id of a game.
+	 * @param pRandom The source of randomness for shuffling.
+	 * @return A view of the deck of pGame that shuffles its cards using pRandom.
+	 * @pre pGame >= 0 && pGame < games() && pRandom != null
+	 */
+	public DeckView view(int pGame, RandomGenerator pRandom)
+	{
+		assert pGame >= 0 && pGame < aGames && pRandom != null;
+		return new DeckView(pGame, pRandom);
+	}
+
+	/**
+	 * The deck of one game of the store, as a CardDeck. The view holds no
+	 * cards: all its operations read and change the deck in the store, and
+	 * several views of the same game see the same deck.
+	 */
+	public final class DeckView implements CardDeck
+	{
+		private final int aGame;
+		private final RandomGenerator aRandom;
+
+		private DeckView(int pGame, RandomGenerator pRandom)
+		{
+			aGame = pGame;
+			aRandom = pRandom;
+		}
+
+		/**
+		 * @return The id of the game of this deck.
+		 */
+		public int getGame()
+		{
+			return aGame;
+		}
+
+		@Override
+		public int cardCodeAt(int pPosition)
+		{
+			assert pPosition >= 0 && pPosition < size();
+			return aRecords.get(offsetOf(aGame) + pPosition);
+		}
+
+		@Override
+		public void shuffle()
+		{
+			DeckStore.this.shuffle(aGame, aRandom);
+		}
+
+		@Override
+		public void shuffle(long pSeed)
+		{
+			DeckStore.this.shuffle(aGame, pSeed);
+		}
+
+		@Override
+		public void reset()
+		{
+			DeckStore.this.reset(aGame);
+		}
+
+		@Override
+		public void sort()
+		{
+			sort(SUIT_FIRST);
+		}
+
+		@Override
+		public boolean sort(Comparator<Card> pComparator)
+		{
+			assert pComparator != null;
+			int offset = offsetOf(aGame);
+			byte[] cards = new byte[NUMBER_OF_CARDS];
+			aRecords.get(offset, cards);
+			boolean linear = CardSorter.sort(cards, 0, size(), pComparator);
+			aRecords.put(offset, cards);
+			return linear;
+		}
+
+		@Override
+		public Card draw()
+		{
+			return Card.get(DeckStore.this.draw(aGame));
+		}
+
+		@Override
+		public Card peek()
+		{
+			return Card.get(DeckStore.this.peek(aGame));
+		}
+
+		@Override
+		public int size()
+		{
+			return DeckStore.this.size(aGame);
+		}
+
+		@Override
+		public boolean isEmpty()
+		{
+			return DeckStore.this.isEmpty(aGame);
+		}
+
+		/**
+		 * @return A new Deck with the cards of this deck, in the same order.
+		 */
+		public Deck toDeck()
+		{
+			return DeckStore.this.toDeck(aGame);
+		}
+	}
+}
@@ -0,0 +1,400 @@
+package comp303m02;
+
+import java.util.SplittableRandom;
+
+import comp303m02.Card.Rank;
+import comp303m02.Card.Suit;
+
+/**
+ * Solves the last tricks of a trick-taking game exactly, with all the hands
+ * known. Two or four players each hold the same number of cards. The leader
+ * of a trick plays any card, and the other players follow in turn, with a
+ * card of the suit led if they have one. The highest trump wins the trick,
+ * or if no trump was played, the highest card of the suit led, aces being
+ * high. The winner leads the next trick. Players 0 and 2 play against
+ * players 1 and 3.
+ *
+ * The solver searches the game tree with alpha-beta pruning, deepening the
+ * search one trick at a time, so that the best cards found by each search
+ * are tried first by the next one. Between two tricks, the positions are
+ * identified by a Zobrist hash of the cards left in each hand and of the
+ * leader, which is updated with one XOR per card played, and their results
+ * are kept in a TranspositionTable. Of several cards of a hand that are
+ * equivalent because no card left in play ranks between them, only the
+ * highest one is tried.
+ *
+ * A solver is not thread-safe, but solvers in different threads can share a
+ * table. The solver does not start a new search in its table: the owner of
+ * the table calls TranspositionTable.newSearch() before each search. The
+ * solver counts the nodes it visits and its table accesses over all its
+ * searches, to measure its speed and to choose the size of the table.
+ */
+public final class EndgameSolver
+{
+	private static final int NUMBER_OF_RANKS = Rank.values().length;
+	private static final int NUMBER_OF_SUITS = Suit.values().length;
+	private static final int NUMBER_OF_CARDS = NUMBER_OF_RANKS * NUMBER_OF_SUITS;
+	private static final int MAX_PLAYERS = 4;
+	private static final long SUIT_MASK = (1L << NUMBER_OF_RANKS) - 1;
+	private static final int NO_CARD = TranspositionTable.NO_CARD;
+
+	private static final long[] CARD_KEYS = new long[MAX_PLAYERS * NUMBER_OF_CARDS];
+	private static final long[] LEADER_KEYS = new long[MAX_PLAYERS];
+	private static final long[] TRUMP_KEYS = new long[NUMBER_OF_SUITS + 1];
+	private static final int[] POWER = new int[NUMBER_OF_CARDS]; // The rank of each card with aces high
+	private static final int[] BY_POWER = new int[NUMBER_OF_CARDS]; // The cards from the highest to the lowest in each suit
+	private static final int[] HIGHER = new int[NUMBER_OF_CARDS]; // The next higher card of the same suit, or NO_CARD
+
+	static
+	{
+		SplittableRandom random = new SplittableRandom(0x5eed);
+		fill(CARD_KEYS, random);
+		fill(LEADER_KEYS, random);
+		fill(TRUMP_KEYS, random);
+		for( int card = 0; card < NUMBER_OF_CARDS; card++ )
+		{
+			POWER[card] = (card % NUMBER_OF_RANKS + NUMBER_OF_RANKS - 1) % NUMBER_OF_RANKS;
+		}
+		for( int suit = 0; suit < NUMBER_OF_SUITS; suit++ )
+		{
+			int previous = NO_CARD;
+			for( int power = NUMBER_OF_RANKS - 1; power >= 0; power-- )
+			{
+				int card = suit * NUMBER_OF_RANKS + (power + 1) % NUMBER_OF_RANKS;
+				BY_POWER[suit * NUMBER_OF_RANKS + NUMBER_OF_RANKS - 1 - power] = card;
+				HIGHER[card] = previous;
+				previous = card;
+			}
+		}
+	}
+
+	private final TranspositionTable aTable;
+	private final long[] aHands = new long[MAX_PLAYERS];
+	private final int[] aTrick = new int[MAX_PLAYERS]; // The cards played in the current trick
+	private int aPlayers;
+	private int aTrump; // The ordinal of the trump suit, or -1
+	private long aHash; // The hash of the hands
+	private long aTrickCards; // The mask of the cards played in the current trick
+	private int aTricks; // The number of tricks of the position solved
+	private int aBestCard;
+
+	private long aNodes = 0;
+	private long aProbes = 0;
+	private long aHits = 0;
+	private long aReplacements = 0;
+	private long aNanos = 0;
+
+	/**
+	 * Creates a solver that keeps its results in pTable.
+	 *
+	 * @param pTable The transposition table, which can be shared with other solvers.
+	 * @pre pTable != null
+	 */
+	public EndgameSolver(TranspositionTable pTable)
+	{
+		assert pTable != null;
+		aTable = pTable;
+	}
+
+	private static void fill(long[] pKeys, SplittableRandom pRandom)
+	{
+		for( int i = 0; i < pKeys.length; i++ )
+		{
+			pKeys[i] = pRandom.nextLong();
+		}
+	}
+
+	/**
+	 * Finds the number of tricks that players 0 and 2 win if everyone plays
+	 * the best possible card, when pLeader leads the next trick.
+	 *
+	 * @param pHands The hands of the players, in playing order.
+	 * @param pTrump The trump suit, or null to play without trumps.
+	 * @param pLeader The index of the player who leads.
+	 * @return The number of tricks won by players 0 and 2.
+	 * @pre pHands != null && (pHands.length == 2 || pHands.length == 4)
+	 * @pre the hands have the same number of cards, between 1 and 13, and no card in common
+	 * @pre pLeader >= 0 && pLeader < pHands.length
+	 */
+	public int solve(ImmutableHand[] pHands, Suit pTrump, int pLeader)
+	{
+		assert pHands != null && (pHands.length == 2 || pHands.length == MAX_PLAYERS);
+		assert pLeader >= 0 && pLeader < pHands.length;
+		long start = System.nanoTime();
+		aPlayers = pHands.length;
+		aTrump = pTrump == null ? -1 : pTrump.ordinal();
+		aHash = TRUMP_KEYS[aTrump + 1];
+		aTrickCards = 0;
+		aTricks = pHands[0].size();
+		long cards = 0;
+		for( int player = 0; player < aPlayers; player++ )
+		{
+			long hand = pHands[player].toMask();
+			assert Long.bitCount(hand) == aTricks && (cards & hand) == 0;
+			cards |= hand;
+			aHands[player] = hand;
+			for( long remaining = hand; remaining != 0; remaining &= remaining - 1 )
+			{
+				aHash ^= CARD_KEYS[player * NUMBER_OF_CARDS + Long.numberOfTrailingZeros(remaining)];
+			}
+		}
+		assert aTricks > 0 && aTricks <= NUMBER_OF_RANKS;
+
+		int tricks = 0;
+		for( int depth = 1; depth <= aTricks; depth++ )
+		{
+			tricks = search(pLeader, 0, depth, -1, aTricks + 1);
+		}
+		aNanos += System.nanoTime() - start;
+		return tricks;
+	}
+
+	/**
+	 * @return The card that the leader should play, according to the last
+	 * call to solve.
+	 * @pre solve was called
+	 */
+	public Card getBestCard()
+	{
+		assert aTricks > 0;
+		return Card.get(aBestCard);
+	}
+
+	/**
+	 * @return The number of positions visited since the solver was created
+	 * or its statistics were reset.
+	 */
+	public long getNodes()
+	{
+		return aNodes;
+	}
+
+	/**
+	 * @return The number of positions visited per second while solving.
+	 */
+	public double getNodesPerSecond()
+	{
+		return aNanos == 0 ? 0 : aNodes * 1e9 / aNanos;
+	}
+
+	/**
+	 * @return The proportion of the positions looked up in the table that
+	 * were found there.
+	 */
+	public double getHitRate()
+	{
+		return aProbes == 0 ? 0 : (double) aHits / aProbes;
+	}
+
+	/**
+	 * @return The number of results of a search that were replaced in the
+	 * table by results of the same search. Many replacements mean that a
+	 * larger table would save work.
+	 */
+	public long getReplacements()
+	{
+		return aReplacements;
+	}
+
+	/**
+	 * Sets all the statistics of this solver to zero.
+	 */
+	public void resetStatistics()
+	{
+		aNodes = 0;
+		aProbes = 0;
+		aHits = 0;
+		aReplacements = 0;
+		aNanos = 0;
+	}
+
+	/*
+	 * Returns the number of tricks that players 0 and 2 win in the current trick
+	 * and the next pDepth - 1 tricks, when pPlayer plays the pPlayed-th card of
+	 * the trick. The result is exact if it is between pAlpha and pBeta, an upper
+	 * bound if it is at most pAlpha, and a lower bound if it is at least pBeta.
+	 */
+	private int search(int pPlayer, int pPlayed, int pDepth, int pAlpha, int pBeta)
+	{
+		aNodes++;
+		long hand = aHands[pPlayer];
+		int alpha = pAlpha;
+		int beta = pBeta;
+		int depth = 0;
+		long key = 0;
+		int tableCard = NO_CARD;
+		if( pPlayed == 0 )
+		{
+			int tricks = Long.bitCount(hand);
+			if( tricks == 0 || pDepth == 0 || pBeta <= 0 )
+			{
+				return 0;
+			}
+			if( pAlpha >= Math.min(pDepth, tricks) )
+			{
+				return Math.min(pDepth, tricks); // No more tricks can be won than are played
+			}
+			depth = Math.min(pDepth, tricks);
+			key = aHash ^ LEADER_KEYS[pPlayer];
+			aProbes++;
+			long data = aTable.probe(key);
+			if( data != TranspositionTable.MISS )
+			{
+				aHits++;
+				tableCard = TranspositionTable.cardOf(data);
+				if( TranspositionTable.depthOf(data) >= depth )
+				{
+					int value = TranspositionTable.valueOf(data);
+					int bound = TranspositionTable.boundOf(data);
+					if( bound == TranspositionTable.EXACT || bound == TranspositionTable.LOWER_BOUND && value >= pBeta ||
+							bound == TranspositionTable.UPPER_BOUND && value <= pAlpha )
+					{
+						if( tricks == aTricks )
+						{
+							aBestCard = tableCard;
+						}
+						return value;
+					}
+				}
+			}
+		}
+
+		long moves = hand;
+		if( pPlayed > 0 && (hand & suitOf(aTrick[0])) != 0 )
+		{
+			moves = hand & suitOf(aTrick[0]);
+		}
+		long inPlay = aTrickCards;
+		for( int player = 0; player < aPlayers; player++ )
+		{
+			inPlay |= aHands[player];
+		}
+
+		boolean maximizing = pPlayer % 2 == 0;
+		int best = maximizing ? -1 : Integer.MAX_VALUE;
+		int bestCard = NO_CARD;
+		for( int i = -1; i < NUMBER_OF_CARDS && alpha < beta; i++ )
+		{
+			int card = i < 0 ? tableCard : BY_POWER[i];
+			if( card == NO_CARD || (moves & 1L << card) == 0 || i >= 0 && card == tableCard ||
+					i >= 0 && hasHigherEquivalent(card, hand, inPlay) )
+			{
+				continue;
+			}
+			int value = play(pPlayer, pPlayed, card, pDepth, alpha, beta);
+			if( maximizing ? value > best : value < best )
+			{
+				best = value;
+				bestCard = card;
+			}
+			if( maximizing )
+			{
+				alpha = Math.max(alpha, value);
+			}
+			else
+			{
+				beta = Math.min(beta, value);
+			}
+		}
+
+		if( pPlayed == 0 )
+		{
+			int bound = TranspositionTable.EXACT;
+			if( best <= pAlpha )
+			{
+				bound = TranspositionTable.UPPER_BOUND;
+			}
+			else if( best >= pBeta )
+			{
+				bound = TranspositionTable.LOWER_BOUND;
+			}
+			if( aTable.store(key, depth, bound, best, bestCard) )
+			{
+				aReplacements++;
+			}
+			if( Long.bitCount(hand) == aTricks )
+			{
+				aBestCard = bestCard;
+			}
+		}
+		return best;
+	}
+
+	/*
+	 * Plays pCard for pPlayer, searches the position that follows, and takes the card back.
+	 */
+	private int play(int pPlayer, int pPlayed, int pCard, int pDepth, int pAlpha, int pBeta)
+	{
+		long bit = 1L << pCard;
+		aHands[pPlayer] &= ~bit;
+		aHash ^= CARD_KEYS[pPlayer * NUMBER_OF_CARDS + pCard];
+		int previous = aTrick[pPlayed]; // A card of an earlier trick still being searched
+		aTrick[pPlayed] = pCard;
+		aTrickCards |= bit;
+		int value;
+		if( pPlayed + 1 < aPlayers )
+		{
+			value = search((pPlayer + 1) % aPlayers, pPlayed + 1, pDepth, pAlpha, pBeta);
+		}
+		else
+		{
+			int winner = (pPlayer + 1 + winningPosition()) % aPlayers; // The leader plays after the last player
+			int won = winner % 2 == 0 ? 1 : 0;
+			long trick = aTrickCards;
+			aTrickCards = 0;
+			value = won + search(winner, 0, pDepth - 1, pAlpha - won, pBeta - won);
+			aTrickCards = trick;
+		}
+		aTrickCards &= ~bit;
+		aTrick[pPlayed] = previous;
+		aHash ^= CARD_KEYS[pPlayer * NUMBER_OF_CARDS + pCard];
+		aHands[pPlayer] |= bit;
+		return value;
+	}
+
+	/*
+	 * The position in the current trick of the card that wins it.
+	 */
+	private int winningPosition()
+	{
+		int winner = 0;
+		for( int i = 1; i < aPlayers; i++ )
+		{
+			if( beats(aTrick[i], aTrick[winner]) )
+			{
+				winner = i;
+			}
+		}
+		return winner;
+	}
+
+	private boolean beats(int pCard, int pWinner)
+	{
+		int suit = pCard / NUMBER_OF_RANKS;
+		int winnerSuit = pWinner / NUMBER_OF_RANKS;
+		if( suit == winnerSuit )
+		{
+			return POWER[pCard] > POWER[pWinner];
+		}
+		return suit == aTrump;
+	}
+
+	/*
+	 * True if pHand holds a higher card of the same suit as pCard,
+	 * and no card still in play ranks between the two.
+	 */
+	private static boolean hasHigherEquivalent(int pCard, long pHand, long pInPlay)
+	{
+		int higher = HIGHER[pCard];
+		while( higher != NO_CARD && (pInPlay & 1L << higher) == 0 )
+		{
+			higher = HIGHER[higher];
+		}
+		return higher != NO_CARD && (pHand & 1L << higher) != 0;
+	}
+
+	private static long suitOf(int pCard)
+	{
+		return SUIT_MASK << pCard / NUMBER_OF_RANKS * NUMBER_OF_RANKS;
+	}
+}
@@ -0,0 +1,296 @@
+package comp303m02;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Estimates the equity of a Texas hold'em hand with a Monte Carlo simulation.
+ * Given the hole cards of a player and the known cards of the board, each trial
+ * deals the rest of the board and the hole cards of the opponents from the cards
+ * that remain in the deck, and compares the hands with HandEvaluator.
+ *
+ * Trials are split recursively into fork/join tasks, each of which deals all
+ * its trials from its own generator, split from the generator of its parent
+ * task. The tasks are split in the same way whatever the pool, and the result
+ * only holds counts, so workers never share random state and the same seed
+ * produces exactly the same result whatever the number of threads.
+ */
+public final class EquitySimulator
+{
+	private static final int NUMBER_OF_CARDS = 52;
+	private static final int HOLE_CARDS = 2;
+	private static final int BOARD_CARDS = 5;
+	private static final long TRIALS_PER_TASK = 1 << 14;
+	private static final double Z_95 = 1.96;
+
+	private final long aHoleCards;
+	private final long aBoard;
+	private final int aOpponents;
+	private final byte[] aRemaining; // The cards that can still be dealt
+
+	/**
+	 * Creates a simulator for a player with pHoleCards against pOpponents
+	 * opponents, with pBoard already on the board.
+	 *
+	 * @param pHoleCards The two hole cards of the player.
+	 * @param pBoard The known cards of the board, which can be empty.
+	 * @param pOpponents The number of opponents.
+	 * @pre pHoleCards != null && pBoard != null
+	 * @pre pHoleCards has 2 cards and pBoard at most 5 cards, none of them in pHoleCards
+	 * @pre pOpponents > 0 && there are enough cards left to deal to the opponents
+	 */
+	public EquitySimulator(Hand pHoleCards, Hand pBoard, int pOpponents)
+	{
+		assert pHoleCards != null && pBoard != null;
+		aHoleCards = pHoleCards.toMask();
+		aBoard = pBoard.toMask();
+		aOpponents = pOpponents;
+		assert Long.bitCount(aHoleCards) == HOLE_CARDS && Long.bitCount(aBoard) <= BOARD_CARDS;
+		assert (aHoleCards & aBoard) == 0;
+		long remaining = ~(aHoleCards | aBoard) & ((1L << NUMBER_OF_CARDS) - 1);
+		aRemaining = new byte[Long.bitCount(remaining)];
+		for( int i = 0; i < aRemaining.length; i++ )
+		{
+			aRemaining[i] = (byte) Long.numberOfTrailingZeros(remaining);
+			remaining &= remaining - 1;
+		}
+		assert pOpponents > 0 && cardsPerTrial() <= aRemaining.length;
+	}
+
+	/**
+	 * Runs pTrials trials in the common fork/join pool.
+	 *
+	 * @param pTrials The number of trials.
+	 * @param pSeed The seed of the random number generator.
+	 * @return The result of the simulation.
+	 * @pre pTrials > 0
+	 */
+	public Result simulate(long pTrials, long pSeed)
+	{
+		return simulate(pTrials, pSeed, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Runs pTrials trials in pPool.
+	 *
+	 * @param pTrials The number of trials.
+	 * @param pSeed The seed of the random number generator.
+	 * @param pPool The pool that executes the trials.
+	 * @return The result of the simulation.
+	 * @pre pTrials > 0 && pPool != null
+	 */
+	public Result simulate(long pTrials, long pSeed, ForkJoinPool pPool)
+	{
+		assert pTrials > 0 && pPool != null;
+		return pPool.invoke(new Simulation(pTrials, new SplittableRandom(pSeed)));
+	}
+
+	private int cardsPerTrial()
+	{
+		return BOARD_CARDS - Long.bitCount(aBoard) + HOLE_CARDS * aOpponents;
+	}
+
+	/*
+	 * Runs pTrials trials sequentially with pRandom. Each trial deals the
+	 * cards with a partial Fisher-Yates shuffle of a private copy of the
+	 * remaining cards, restored before the trial.
+	 */
+	private Result run(long pTrials, SplittableRandom pRandom)
+	{
+		byte[] cards = new byte[aRemaining.length];
+		int dealt = cardsPerTrial();
+		int missing = BOARD_CARDS - Long.bitCount(aBoard);
+		Result result = new Result(aOpponents);
+		for( long trial = 0; trial < pTrials; trial++ )
+		{
+			System.arraycopy(aRemaining, 0, cards, 0, cards.length);
+			for( int i = 0; i < dealt; i++ )
+			{
+				int j = i + pRandom.nextInt(cards.length - i);
+				byte card = cards[i];
+				cards[i] = cards[j];
+				cards[j] = card;
+			}
+			long board = aBoard;
+			int next = 0;
+			while( next < missing )
+			{
+				board |= 1L << cards[next++];
+			}
+			int score = HandEvaluator.evaluate(aHoleCards | board);
+			int best = -1;
+			int tied = 0;
+			for( int i = 0; i < aOpponents; i++ )
+			{
+				long opponent = 1L << cards[next++];
+				opponent |= 1L << cards[next++];
+				int opponentScore = HandEvaluator.evaluate(opponent | board);
+				if( opponentScore > best )
+				{
+					best = opponentScore;
+					tied = 0;
+				}
+				if( opponentScore == best )
+				{
+					tied++;
+				}
+			}
+			result.record(score, best, tied);
+		}
+		return result;
+	}
+
+	private final class Simulation extends RecursiveTask<Result>
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final long aTrials;
+		private final SplittableRandom aRandom;
+
+		Simulation(long pTrials, SplittableRandom pRandom)
+		{
+			aTrials = pTrials;
+			aRandom = pRandom;
+		}
+
+		@Override
+		protected Result compute()
+		{
+			if( aTrials <= TRIALS_PER_TASK )
+			{
+				return run(aTrials, aRandom);
+			}
+			long half = aTrials / 2;
+			Simulation left = new Simulation(half, aRandom.split());
+			left.fork();
+			Result result = new Simulation(aTrials - half, aRandom).compute();
+			result.merge(left.join());
+			return result;
+		}
+	}
+
+	/**
+	 * The outcome of a simulation. Ties count as a fraction of
+	 * a win equal to the share of the pot of the player.
+	 */
+	public static final class Result
+	{
+		private long aWins = 0;
+		private long aLosses = 0;
+		private final long[] aTies; // Indexed by the number of opponents tied with the player
+
+		private Result(int pOpponents)
+		{
+			aTies = new long[pOpponents + 1];
+		}
+
+		private void record(int pScore, int pBestOpponentScore, int pTiedOpponents)
+		{
+			if( pScore > pBestOpponentScore )
+			{
+				aWins++;
+			}
+			else if( pScore < pBestOpponentScore )
+			{
+				aLosses++;
+			}
+			else
+			{
+				aTies[pTiedOpponents]++;
+			}
+		}
+
+		private void merge(Result pResult)
+		{
+			aWins += pResult.aWins;
+			aLosses += pResult.aLosses;
+			for( int i = 0; i < aTies.length; i++ )
+			{
+				aTies[i] += pResult.aTies[i];
+			}
+		}
+
+		private long ties()
+		{
+			long ties = 0;
+			for( long count : aTies )
+			{
+				ties += count;
+			}
+			return ties;
+		}
+
+		/*
+		 * Sum of the shares of the pot won in tied trials,
+		 * each raised to pPower.
+		 */
+		private double tieShares(int pPower)
+		{
+			double shares = 0;
+			for( int i = 1; i < aTies.length; i++ )
+			{
+				shares += aTies[i] * Math.pow(1.0 / (i + 1), pPower);
+			}
+			return shares;
+		}
+
+		/**
+		 * @return The number of trials.
+		 */
+		public long getTrials()
+		{
+			return aWins + ties() + aLosses;
+		}
+
+		/**
+		 * @return The fraction of trials won outright.
+		 */
+		public double getWinRate()
+		{
+			return (double) aWins / getTrials();
+		}
+
+		/**
+		 * @return The fraction of trials tied with at least one opponent.
+		 */
+		public double getTieRate()
+		{
+			return (double) ties() / getTrials();
+		}
+
+		/**
+		 * @return The fraction of trials lost.
+		 */
+		public double getLossRate()
+		{
+			return (double) aLosses / getTrials();
+		}
+
+		/**
+		 * @return The expected share of the pot of the player.
+		 */
+		public double getEquity()
+		{
+			return (aWins + tieShares(1)) / getTrials();
+		}
+
+		/**
+		 * @return The half-width of the 95% confidence interval of the equity.
+		 */
+		public double getConfidenceInterval()
+		{
+			long trials = getTrials();
+			double mean = getEquity();
+			double variance = (aWins + tieShares(2)) / trials - mean * mean;
+			return Z_95 * Math.sqrt(Math.max(variance, 0) / trials);
+		}
+
+		@Override
+		public String toString()
+		{
+			return String.format("win %.4f, tie %.4f, loss %.4f, equity %.4f +- %.4f (%d trials)",
+					getWinRate(), getTieRate(), getLossRate(), getEquity(), getConfidenceInterval(), getTrials());
+		}
+	}
+}
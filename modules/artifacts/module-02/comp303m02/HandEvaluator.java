@@ -0,0 +1,556 @@
+package comp303m02;
+
+import java.util.Arrays;
+
+/**
+ * Computes the strength of poker hands of five to seven cards.
+ *
+ * A hand is evaluated from its CardSet mask, in which the cards of each suit
+ * occupy a 13-bit field. The evaluator combines the four suit fields with bit
+ * operations to find duplicated ranks, and looks up straights and kickers in
+ * tables indexed by 13-bit rank masks, so no sorting is required.
+ *
+ * evaluate(long) does not test the categories in turn. With at most seven
+ * cards, a hand with a flush cannot have a full house or four of a kind, so
+ * its score is the greater of the score of its flush, looked up for each suit,
+ * and the score of its ranks without their suits. The ranks are summed into a
+ * key, the number of cards of each rank as a digit in base 5, and the score of
+ * each key is stored in a table indexed by a perfect hash of the keys, which
+ * is built when the class is loaded. Finding the score of a hand takes a fixed
+ * sequence of operations and table lookups, without any branch.
+ *
+ * The strength of a hand is returned as an int score such that a stronger hand
+ * always has a greater score, and hands of equal strength have equal scores.
+ * The category of the hand is stored in the highest bits of the score and the
+ * ranks that break ties between hands of the same category in the lowest 20 bits,
+ * as up to five 4-bit values in decreasing order of importance. In scores, ranks
+ * go from 0 for a two to 12 for an ace.
+ */
+public final class HandEvaluator
+{
+	/**
+	 * The categories of poker hands, from weakest to strongest.
+	 */
+	public enum Category
+	{
+		HIGH_CARD, PAIR, TWO_PAIR, THREE_OF_A_KIND, STRAIGHT,
+		FLUSH, FULL_HOUSE, FOUR_OF_A_KIND, STRAIGHT_FLUSH;
+	}
+
+	private static final Category[] CATEGORIES = Category.values();
+	private static final int NUMBER_OF_RANKS = 13;
+	private static final int RANK_MASK = (1 << NUMBER_OF_RANKS) - 1;
+	static final int CATEGORY_SHIFT = 20;
+	private static final int NO_STRAIGHT = -1;
+	private static final int WHEEL = 0x100F; // Ace, Two, Three, Four, Five
+	private static final int FIVE = 3;
+
+	// All tables are indexed by a mask of ranks where bit 0 is a two and bit 12 an ace.
+	static final byte[] STRAIGHT = new byte[1 << NUMBER_OF_RANKS]; // Rank of the highest straight's top card
+	static final byte[] TOP_CARD = new byte[1 << NUMBER_OF_RANKS]; // Highest rank
+	static final int[] TOP_FIVE = new int[1 << NUMBER_OF_RANKS];   // Five highest ranks, four bits each
+
+	// Tables indexed by the 13-bit field of a suit in a CardSet mask, where bit 0 is an ace
+	private static final int[] SUIT_FLUSH = new int[1 << NUMBER_OF_RANKS]; // Score of the flush, or 0
+	private static final int[] SUIT_KEY = new int[1 << NUMBER_OF_RANKS];   // Sum of 5 to the power of each rank
+
+	// The perfect hash of the keys of the ranks of five to seven cards: the bucket
+	// of a key selects the seed that gives the key its own slot in RANK_SCORES.
+	private static final int KEY_BASE = 5; // Zero to four cards of each rank
+	private static final int BUCKET_BITS = 15;
+	private static final int SLOT_BITS = 17;
+	private static final int BUCKET_MULTIPLIER = 0x9E3779B1;
+	private static final int SLOT_MULTIPLIER = 0x85EBCA6B;
+	private static final int[] SEEDS = new int[1 << BUCKET_BITS];
+	private static final int[] RANK_SCORES = new int[1 << SLOT_BITS]; // Score of the ranks of each key
+
+	// True if the batch evaluator can use the lanes of VectorHandEvaluator: the module
+	// is present, and its vectors have two long lanes or more, which they do not with
+	// -XX:MaxVectorSize=8. The module is checked first, so that its classes are only
+	// loaded if it is present. VectorHandEvaluator itself is not loaded here, because
+	// it reads the tables of this class.
+	private static final boolean VECTOR_API = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()
+			&& jdk.incubator.vector.LongVector.SPECIES_PREFERRED.length() >= 2;
+
+	static
+	{
+		for( int mask = 0; mask <= RANK_MASK; mask++ )
+		{
+			STRAIGHT[mask] = NO_STRAIGHT;
+			for( int top = NUMBER_OF_RANKS - 1; top >= 4; top-- )
+			{
+				int straight = 0x1F << (top - 4);
+				if( (mask & straight) == straight )
+				{
+					STRAIGHT[mask] = (byte) top;
+					break;
+				}
+			}
+			if( STRAIGHT[mask] == NO_STRAIGHT && (mask & WHEEL) == WHEEL )
+			{
+				STRAIGHT[mask] = FIVE;
+			}
+
+			TOP_CARD[mask] = (byte) (31 - Integer.numberOfLeadingZeros(mask));
+
+			int kickers = 0;
+			int remaining = mask;
+			for( int i = 0; i < 5; i++ )
+			{
+				kickers <<= 4;
+				if( remaining != 0 )
+				{
+					int top = 31 - Integer.numberOfLeadingZeros(remaining);
+					kickers |= top;
+					remaining &= ~(1 << top);
+				}
+			}
+			TOP_FIVE[mask] = kickers;
+		}
+
+		for( int cards = 0; cards <= RANK_MASK; cards++ )
+		{
+			int ranks = suit(cards, 0);
+			SUIT_FLUSH[cards] = Math.max(flush(ranks), 0);
+			for( int rank = 0; rank < NUMBER_OF_RANKS; rank++ )
+			{
+				if( (ranks & 1 << rank) != 0 )
+				{
+					SUIT_KEY[cards] += power(KEY_BASE, rank);
+				}
+			}
+		}
+		buildRankScores();
+	}
+
+	private HandEvaluator()
+	{}
+
+	/**
+	 * @param pHand The hand to evaluate.
+	 * @return The score of pHand.
+	 * @pre pHand != null
+	 * @pre pHand contains between 5 and 7 cards.
+	 */
+	public static int evaluate(Hand pHand)
+	{
+		assert pHand != null;
+		return evaluate(pHand.toMask());
+	}
+
+	/**
+	 * @param pCards The cards to evaluate.
+	 * @return The score of the hand made of pCards.
+	 * @pre pCards != null
+	 * @pre pCards.size() >= 5 && pCards.size() <= 7
+	 */
+	public static int evaluate(CardSet pCards)
+	{
+		assert pCards != null;
+		return evaluate(pCards.toMask());
+	}
+
+	/**
+	 * @param pScore A score returned by one of the evaluate methods.
+	 * @return The category of the hand with score pScore.
+	 */
+	public static Category categoryOf(int pScore)
+	{
+		return CATEGORIES[pScore >>> CATEGORY_SHIFT];
+	}
+
+	/**
+	 * @param pMask The mask of the cards to evaluate, as in CardSet.
+	 * @return The score of the hand.
+	 * @pre Long.bitCount(pMask) >= 5 && Long.bitCount(pMask) <= 7
+	 */
+	static int evaluate(long pMask)
+	{
+		assert Long.bitCount(pMask) >= 5 && Long.bitCount(pMask) <= 7;
+		int clubs = (int) pMask & RANK_MASK;
+		int diamonds = (int) (pMask >>> NUMBER_OF_RANKS) & RANK_MASK;
+		int spades = (int) (pMask >>> 2 * NUMBER_OF_RANKS) & RANK_MASK;
+		int hearts = (int) (pMask >>> 3 * NUMBER_OF_RANKS) & RANK_MASK;
+		int flush = Math.max(Math.max(SUIT_FLUSH[clubs], SUIT_FLUSH[diamonds]),
+				Math.max(SUIT_FLUSH[spades], SUIT_FLUSH[hearts]));
+		int key = SUIT_KEY[clubs] + SUIT_KEY[diamonds] + SUIT_KEY[spades] + SUIT_KEY[hearts];
+		return Math.max(flush, RANK_SCORES[slot(key, SEEDS[bucket(key)])]);
+	}
+
+	private static int bucket(int pKey)
+	{
+		return pKey * BUCKET_MULTIPLIER >>> Integer.SIZE - BUCKET_BITS;
+	}
+
+	private static int slot(int pKey, int pSeed)
+	{
+		return (pKey ^ pSeed) * SLOT_MULTIPLIER >>> Integer.SIZE - SLOT_BITS;
+	}
+
+	/*
+	 * Fills RANK_SCORES and SEEDS with a hash-and-displace perfect hash of the
+	 * keys of all the ranks of five to seven cards, with the scores given by
+	 * evaluateWithBranches. The buckets with the most keys are placed first, each
+	 * with the first seed that puts all its keys in free slots.
+	 */
+	private static void buildRankScores()
+	{
+		int[][] buckets = new int[1 << BUCKET_BITS][];
+		int[] bucketSizes = new int[buckets.length];
+		int[] counts = new int[NUMBER_OF_RANKS];
+		int cards = 0;
+		int key = 0;
+		int numberOfKeys = 0;
+		// Enumerates the counts of each rank, from zero to four cards, as an odometer
+		for( int rank = 0; rank < NUMBER_OF_RANKS; )
+		{
+			if( cards >= 5 )
+			{
+				numberOfKeys++;
+				int bucket = bucket(key);
+				if( bucketSizes[bucket] == 0 )
+				{
+					buckets[bucket] = new int[4];
+				}
+				else if( bucketSizes[bucket] == buckets[bucket].length )
+				{
+					buckets[bucket] = Arrays.copyOf(buckets[bucket], 2 * bucketSizes[bucket]);
+				}
+				buckets[bucket][bucketSizes[bucket]++] = key;
+			}
+			for( rank = 0; rank < NUMBER_OF_RANKS && (counts[rank] == 4 || cards >= 7); rank++ )
+			{
+				cards -= counts[rank];
+				key -= counts[rank] * power(KEY_BASE, rank);
+				counts[rank] = 0;
+			}
+			if( rank < NUMBER_OF_RANKS )
+			{
+				counts[rank]++;
+				cards++;
+				key += power(KEY_BASE, rank);
+			}
+		}
+
+		boolean[] used = new boolean[RANK_SCORES.length];
+		int placed = 0;
+		for( int size = Arrays.stream(bucketSizes).max().getAsInt(); size > 0; size-- )
+		{
+			for( int bucket = 0; bucket < buckets.length; bucket++ )
+			{
+				if( bucketSizes[bucket] == size )
+				{
+					placeBucket(bucket, buckets[bucket], size, used);
+					placed += size;
+				}
+			}
+		}
+		assert placed == numberOfKeys;
+	}
+
+	/*
+	 * Finds the seed of pBucket and stores the scores of its pSize keys.
+	 */
+	private static void placeBucket(int pBucket, int[] pKeys, int pSize, boolean[] pUsed)
+	{
+		int seed = 0;
+		while( !fits(pKeys, pSize, seed, pUsed) )
+		{
+			seed += BUCKET_MULTIPLIER;
+		}
+		SEEDS[pBucket] = seed;
+		for( int i = 0; i < pSize; i++ )
+		{
+			int slot = slot(pKeys[i], seed);
+			pUsed[slot] = true;
+			RANK_SCORES[slot] = evaluateWithBranches(maskOf(pKeys[i]));
+		}
+	}
+
+	/*
+	 * True if pSeed puts the pSize keys of pKeys in distinct slots that are not used.
+	 */
+	private static boolean fits(int[] pKeys, int pSize, int pSeed, boolean[] pUsed)
+	{
+		for( int i = 0; i < pSize; i++ )
+		{
+			int slot = slot(pKeys[i], pSeed);
+			if( pUsed[slot] )
+			{
+				return false;
+			}
+			for( int j = 0; j < i; j++ )
+			{
+				if( slot(pKeys[j], pSeed) == slot )
+				{
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/*
+	 * A mask of cards whose ranks are given by pKey, in base 5, with
+	 * the cards dealt to the suits in turn so that no suit has a flush.
+	 */
+	private static long maskOf(int pKey)
+	{
+		long mask = 0;
+		int suit = 0;
+		int key = pKey;
+		for( int rank = 0; rank < NUMBER_OF_RANKS; rank++ )
+		{
+			for( int i = 0; i < key % KEY_BASE; i++ )
+			{
+				mask |= 1L << suit * NUMBER_OF_RANKS + (rank + 1) % NUMBER_OF_RANKS;
+				suit = (suit + 1) % 4;
+			}
+			key /= KEY_BASE;
+		}
+		return mask;
+	}
+
+	private static int power(int pBase, int pExponent)
+	{
+		int result = 1;
+		for( int i = 0; i < pExponent; i++ )
+		{
+			result *= pBase;
+		}
+		return result;
+	}
+
+	/*
+	 * The score of pMask, computed by testing the categories from the
+	 * strongest ones. Used to build the table of the scores of the ranks.
+	 */
+	static int evaluateWithBranches(long pMask)
+	{
+		assert Long.bitCount(pMask) >= 5 && Long.bitCount(pMask) <= 7;
+		int clubs = suit(pMask, 0);
+		int diamonds = suit(pMask, 1);
+		int spades = suit(pMask, 2);
+		int hearts = suit(pMask, 3);
+
+		int ranks = clubs | diamonds | spades | hearts;
+		int numberOfRanks = Integer.bitCount(ranks);
+		int duplicates = Long.bitCount(pMask) - numberOfRanks;
+
+		// With at most seven cards, a flush or a straight excludes a full house or four of a kind.
+		if( numberOfRanks >= 5 )
+		{
+			int flush = flush(clubs);
+			flush = flush >= 0 ? flush : flush(diamonds);
+			flush = flush >= 0 ? flush : flush(spades);
+			flush = flush >= 0 ? flush : flush(hearts);
+			if( flush >= 0 )
+			{
+				return flush;
+			}
+			if( STRAIGHT[ranks] != NO_STRAIGHT )
+			{
+				return score(Category.STRAIGHT, STRAIGHT[ranks] << 16);
+			}
+			if( duplicates == 0 )
+			{
+				return score(Category.HIGH_CARD, TOP_FIVE[ranks]);
+			}
+		}
+
+		int pairs = ranks ^ (clubs ^ diamonds ^ spades ^ hearts); // Ranks held an even number of times
+		if( duplicates == 1 )
+		{
+			return score(Category.PAIR, TOP_CARD[pairs] << 16 | (TOP_FIVE[ranks ^ pairs] >>> 8) << 4);
+		}
+		if( duplicates == 2 )
+		{
+			if( pairs != 0 )
+			{
+				int kickers = ranks ^ pairs;
+				return score(Category.TWO_PAIR, (TOP_FIVE[pairs] >>> 12) << 12 | TOP_CARD[kickers] << 8);
+			}
+			int trips = threeOrMore(clubs, diamonds, spades, hearts);
+			return score(Category.THREE_OF_A_KIND, TOP_CARD[trips] << 16 | (TOP_FIVE[ranks ^ trips] >>> 12) << 8);
+		}
+
+		int quads = clubs & diamonds & spades & hearts;
+		if( quads != 0 )
+		{
+			int quad = TOP_CARD[quads];
+			return score(Category.FOUR_OF_A_KIND, quad << 16 | TOP_CARD[remove(ranks, quad)] << 12);
+		}
+		if( Integer.bitCount(pairs) != duplicates )
+		{
+			int threes = threeOrMore(clubs, diamonds, spades, hearts);
+			int trips = TOP_CARD[threes];
+			return score(Category.FULL_HOUSE, trips << 16 | TOP_CARD[(pairs | threes) ^ (1 << trips)] << 12);
+		}
+		int topPairs = pairs;
+		topPairs &= ~(1 << TOP_CARD[topPairs]);
+		topPairs = pairs ^ topPairs ^ (1 << TOP_CARD[topPairs]); // The two highest pairs
+		return score(Category.TWO_PAIR, (TOP_FIVE[topPairs] >>> 12) << 12 | TOP_CARD[ranks ^ topPairs] << 8);
+	}
+
+	/**
+	 * Evaluates a batch of hands given as card masks (see CardSet and Card.index()),
+	 * and stores the score of pMasks[i] in pScores[i]. The scores are the same as
+	 * those of the other evaluate methods.
+	 *
+	 * Instead of testing the categories in turn, the batch evaluator counts the
+	 * cards of each rank with bit operations on the four suits at once, as four
+	 * masks of the ranks held at least once, twice, three times, and four times.
+	 * It then computes the score the hand would have in each category, clears
+	 * the scores of the categories the hand does not have with a mask derived
+	 * from the counts, and keeps the greatest one. The loop has no data-dependent
+	 * branches, so its speed does not depend on the mix of hands in the batch.
+	 * When the jdk.incubator.vector module is present at run time and its vectors
+	 * have at least two long lanes, the hands are evaluated several at a time on
+	 * the lanes of vectors (see VectorHandEvaluator), with the same steps.
+	 *
+	 * @param pMasks The masks of the hands to evaluate.
+	 * @param pScores The array that receives the scores.
+	 * @pre pMasks != null && pScores != null && pScores.length >= pMasks.length
+	 * @pre each mask has between 5 and 7 cards
+	 */
+	public static void evaluateAll(long[] pMasks, int[] pScores)
+	{
+		assert pMasks != null && pScores != null && pScores.length >= pMasks.length;
+		evaluateAll(pMasks, pScores, VECTOR_API ? VectorHandEvaluator.evaluateAll(pMasks, pScores) : 0);
+	}
+
+	/**
+	 * @return True if evaluateAll uses the jdk.incubator.vector module.
+	 */
+	static boolean usesVectorApi()
+	{
+		return VECTOR_API;
+	}
+
+	/*
+	 * Evaluates the hands of pMasks from index pFrom one at a time.
+	 */
+	static void evaluateAll(long[] pMasks, int[] pScores, int pFrom)
+	{
+		for( int i = pFrom; i < pMasks.length; i++ )
+		{
+			pScores[i] = evaluateWithoutBranches(pMasks[i]);
+		}
+	}
+
+	/*
+	 * The score of pMask, computed as the maximum of the scores of the
+	 * categories present in the hand, each masked with all ones if the
+	 * category is present and zero otherwise.
+	 */
+	private static int evaluateWithoutBranches(long pMask)
+	{
+		assert Long.bitCount(pMask) >= 5 && Long.bitCount(pMask) <= 7;
+		int clubs = suit(pMask, 0);
+		int diamonds = suit(pMask, 1);
+		int spades = suit(pMask, 2);
+		int hearts = suit(pMask, 3);
+
+		// Per-rank counts as bit planes
+		int ranks = clubs | diamonds | spades | hearts;
+		int twoOrMore = (clubs & diamonds) | (spades & hearts) | ((clubs | diamonds) & (spades | hearts));
+		int threeOrMore = threeOrMore(clubs, diamonds, spades, hearts);
+		int quads = clubs & diamonds & spades & hearts;
+
+		// With at most seven cards, at most one suit has five cards or more.
+		int flush = clubs & fiveOrMore(clubs) | diamonds & fiveOrMore(diamonds)
+				| spades & fiveOrMore(spades) | hearts & fiveOrMore(hearts);
+		int straightFlush = STRAIGHT[flush];
+		int straight = STRAIGHT[ranks];
+
+		int quad = TOP_CARD[quads];
+		int trips = TOP_CARD[threeOrMore];
+		int fullHousePair = remove(twoOrMore, trips);
+		int topPair = TOP_CARD[twoOrMore];
+		int otherPairs = remove(twoOrMore, topPair);
+		int secondPair = TOP_CARD[otherPairs];
+
+		int score = score(Category.HIGH_CARD, TOP_FIVE[ranks]);
+		score = Math.max(score, ifNotZero(twoOrMore,
+				score(Category.PAIR, topPair << 16 | (TOP_FIVE[remove(ranks, topPair)] >>> 8) << 4)));
+		score = Math.max(score, ifNotZero(otherPairs,
+				score(Category.TWO_PAIR, topPair << 16 | secondPair << 12
+						| TOP_CARD[remove(remove(ranks, topPair), secondPair)] << 8)));
+		score = Math.max(score, ifNotZero(threeOrMore,
+				score(Category.THREE_OF_A_KIND, trips << 16 | (TOP_FIVE[remove(ranks, trips)] >>> 12) << 8)));
+		score = Math.max(score, ~(straight >> 31) & score(Category.STRAIGHT, straight << 16));
+		score = Math.max(score, ifNotZero(flush, score(Category.FLUSH, TOP_FIVE[flush])));
+		score = Math.max(score, ifNotZero(threeOrMore, ifNotZero(fullHousePair,
+				score(Category.FULL_HOUSE, trips << 16 | TOP_CARD[fullHousePair] << 12))));
+		score = Math.max(score, ifNotZero(quads,
+				score(Category.FOUR_OF_A_KIND, quad << 16 | TOP_CARD[remove(ranks, quad)] << 12)));
+		score = Math.max(score, ~(straightFlush >> 31) & score(Category.STRAIGHT_FLUSH, straightFlush << 16));
+		return score;
+	}
+
+	/*
+	 * All ones if pSuit has five ranks or more, zero otherwise.
+	 */
+	private static int fiveOrMore(int pSuit)
+	{
+		return (4 - Integer.bitCount(pSuit)) >> 31;
+	}
+
+	/*
+	 * pRanks without pRank. When pRank is -1, which TOP_CARD returns for
+	 * an empty mask, the shift sets only bit 31, so pRanks is unchanged and
+	 * remains a valid table index.
+	 */
+	private static int remove(int pRanks, int pRank)
+	{
+		return pRanks & ~(1 << pRank);
+	}
+
+	/*
+	 * pScore if pMask is not zero, zero otherwise, without a branch.
+	 */
+	private static int ifNotZero(int pMask, int pScore)
+	{
+		return (pMask | -pMask) >> 31 & pScore;
+	}
+
+	/*
+	 * Returns the 13-bit mask of the ranks of the cards of suit pSuit in pMask,
+	 * reordered so that the ace is the highest bit.
+	 */
+	private static int suit(long pMask, int pSuit)
+	{
+		int cards = (int) (pMask >>> (pSuit * NUMBER_OF_RANKS)) & RANK_MASK;
+		return (cards >>> 1) | ((cards & 1) << (NUMBER_OF_RANKS - 1));
+	}
+
+	/*
+	 * Returns the score of the flush or straight flush in pSuit, or -1 if
+	 * there are fewer than five cards in the suit.
+	 */
+	private static int flush(int pSuit)
+	{
+		if( Integer.bitCount(pSuit) < 5 )
+		{
+			return -1;
+		}
+		if( STRAIGHT[pSuit] != NO_STRAIGHT )
+		{
+			return score(Category.STRAIGHT_FLUSH, STRAIGHT[pSuit] << 16);
+		}
+		return score(Category.FLUSH, TOP_FIVE[pSuit]);
+	}
+
+	/*
+	 * Returns the mask of the ranks held in at least three suits.
+	 */
+	private static int threeOrMore(int pClubs, int pDiamonds, int pSpades, int pHearts)
+	{
+		return ((pClubs & pDiamonds) | (pSpades & pHearts)) & ((pClubs & pSpades) | (pDiamonds & pHearts));
+	}
+
+	private static int score(Category pCategory, int pRanks)
+	{
+		return pCategory.ordinal() << CATEGORY_SHIFT | pRanks;
+	}
+}
@@ -0,0 +1,51 @@
+package comp303m02;
+
+import comp303m02.Card.Rank;
+import comp303m02.Card.Suit;
+
+/**
+ * The operations that query the cards of a hand without
+ * modifying it. Both mutable hands (Hand) and immutable hands
+ * (ImmutableHand) provide them, so that code that only reads
+ * hands, such as the comparators created by Hand, works with
+ * either kind.
+ */
+public interface HandView extends Iterable<Card>
+{
+	/**
+	 * @return The number of cards in this hand.
+	 */
+	int size();
+
+	/**
+	 * @return True if there are no cards in this hand.
+	 */
+	boolean isEmpty();
+
+	/**
+	 * @return True if the number of cards in the hand
+	 * is the maximum number of cards allowable.
+	 */
+	boolean isFull();
+
+	/**
+	 * @param pCard A card to check for containment.
+	 * @return True if pCard is a card in this hand.
+	 * @pre pCard != null
+	 */
+	boolean contains(Card pCard);
+
+	/**
+	 * @param pRank A rank.
+	 * @return The number of cards of rank pRank in this hand.
+	 * @pre pRank != null
+	 */
+	int countOf(Rank pRank);
+
+	/**
+	 * @param pSuit A suit.
+	 * @return The number of cards of suit pSuit in this hand.
+	 * @pre pSuit != null
+	 */
+	int countOf(Suit pSuit);
+}
@@ -0,0 +1,186 @@
+package comp303m02;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import comp303m02.Card.Rank;
+import comp303m02.Card.Suit;
+
+/**
+ * A hand of cards that cannot be modified. The cards are stored in a
+ * single 64-bit mask, as in CardSet, so with(Card) and without(Card)
+ * create the new hand in constant time, and a hand can be shared
+ * freely between the nodes of a search tree without being copied.
+ * Like Hand, an immutable hand iterates over its cards by suit then
+ * by rank, and can be compared with the comparators created by Hand.
+ */
+public final class ImmutableHand implements HandView, Comparable<ImmutableHand>
+{
+	private final long aCards;
+	private final int aMaxCards;
+
+	/**
+	 * Creates a new, empty hand, which can hold
+	 * a maximum of pMaxCards.
+	 *
+	 * @param pMaxCards The maximum number of cards allowed in this hand.
+	 * @pre pMaxCards > 0;
+	 */
+	public ImmutableHand(int pMaxCards)
+	{
+		this(0, pMaxCards);
+	}
+
+	ImmutableHand(long pCards, int pMaxCards)
+	{
+		assert pMaxCards > 0 && Long.bitCount(pCards) <= pMaxCards;
+		aCards = pCards;
+		aMaxCards = pMaxCards;
+	}
+
+	/**
+	 * @param pCard The card to add.
+	 * @return A hand with the cards of this hand and pCard.
+	 * @pre !isFull()
+	 * @pre pCard != null;
+	 * @pre !contains(pCard);
+	 */
+	public ImmutableHand with(Card pCard)
+	{
+		assert pCard != null;
+		assert !isFull();
+		assert !contains(pCard);
+		return new ImmutableHand(aCards | 1L << pCard.index(), aMaxCards);
+	}
+
+	/**
+	 * @param pCard The card to remove.
+	 * @return A hand with the cards of this hand except pCard. If
+	 * pCard is not in the hand, returns this hand.
+	 * @pre pCard != null;
+	 */
+	public ImmutableHand without(Card pCard)
+	{
+		assert pCard != null;
+		if( !contains(pCard) )
+		{
+			return this;
+		}
+		return new ImmutableHand(aCards & ~(1L << pCard.index()), aMaxCards);
+	}
+
+	/**
+	 * @return A new mutable hand with the same cards and the same
+	 * maximum number of cards as this hand.
+	 */
+	public Hand toHand()
+	{
+		Hand hand = new Hand(aMaxCards);
+		for( Card card : this )
+		{
+			hand.add(card);
+		}
+		return hand;
+	}
+
+	@Override
+	public boolean isFull()
+	{
+		return size() == aMaxCards;
+	}
+
+	@Override
+	public boolean isEmpty()
+	{
+		return aCards == 0;
+	}
+
+	@Override
+	public boolean contains(Card pCard)
+	{
+		assert pCard != null;
+		return (aCards & 1L << pCard.index()) != 0;
+	}
+
+	@Override
+	public int size()
+	{
+		return Long.bitCount(aCards);
+	}
+
+	@Override
+	public int countOf(Rank pRank)
+	{
+		assert pRank != null;
+		return CardSet.countOf(aCards, pRank);
+	}
+
+	@Override
+	public int countOf(Suit pSuit)
+	{
+		assert pSuit != null;
+		return CardSet.countOf(aCards, pSuit);
+	}
+
+	/**
+	 * @return The mask of the cards in this hand, as in CardSet.
+	 */
+	long toMask()
+	{
+		return aCards;
+	}
+
+	@Override
+	public Iterator<Card> iterator()
+	{
+		return new Iterator<Card>()
+		{
+			private long aRemaining = aCards;
+
+			@Override
+			public boolean hasNext()
+			{
+				return aRemaining != 0;
+			}
+
+			@Override
+			public Card next()
+			{
+				if( aRemaining == 0 )
+				{
+					throw new NoSuchElementException();
+				}
+				int card = Long.numberOfTrailingZeros(aRemaining);
+				aRemaining &= aRemaining - 1;
+				return Card.get(card);
+			}
+		};
+	}
+
+	@Override
+	public int compareTo(ImmutableHand pHand)
+	{
+		return size() - pHand.size();
+	}
+
+	@Override
+	public boolean equals(Object pObject)
+	{
+		if( pObject == this )
+		{
+			return true;
+		}
+		if( pObject == null || pObject.getClass() != getClass() )
+		{
+			return false;
+		}
+		ImmutableHand hand = (ImmutableHand) pObject;
+		return aCards == hand.aCards && aMaxCards == hand.aMaxCards;
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return Long.hashCode(aCards) * 31 + aMaxCards;
+	}
+}
@@ -0,0 +1,168 @@
+package comp303m02;
+
+import java.util.function.IntConsumer;
+import java.util.random.RandomGenerator;
+
+/**
+ * A deck of cards handled through their codes (see CardCode) instead of
+ * Card objects. It is a view of a Deck that takes and returns codes, so it
+ * deals and shuffles in the same order as Deck: a Deck and an IntDeck
+ * shuffled with the same seed deal the same cards. The two can be
+ * converted into each other.
+ */
+public final class IntDeck
+{
+	private static final int NUMBER_OF_CARDS = CardCode.NUMBER_OF_CODES;
+
+	private final Deck aDeck;
+
+	/**
+	 * Creates an empty deck that shuffles its cards
+	 * with a default random number generator.
+	 */
+	public IntDeck()
+	{
+		aDeck = new Deck();
+	}
+
+	/**
+	 * Creates an empty deck that shuffles its cards
+	 * using pRandom.
+	 *
+	 * @param pRandom The source of randomness for shuffling.
+	 * @pre pRandom != null
+	 */
+	public IntDeck(RandomGenerator pRandom)
+	{
+		assert pRandom != null;
+		aDeck = new Deck(pRandom);
+	}
+
+	/**
+	 * Creates a deck with the cards of pDeck, in the same order, which
+	 * shuffles its cards with a default random number generator.
+	 * pDeck is not modified.
+	 *
+	 * @param pDeck The deck to copy.
+	 * @pre pDeck != null
+	 */
+	public IntDeck(Deck pDeck)
+	{
+		this();
+		assert pDeck != null;
+		copy(pDeck, aDeck);
+	}
+
+	/**
+	 * @return A new Deck with the cards of this deck, in the same order,
+	 * which shuffles its cards with a default random number generator.
+	 */
+	public Deck toDeck()
+	{
+		Deck deck = new Deck();
+		copy(aDeck, deck);
+		return deck;
+	}
+
+	private static void copy(Deck pFrom, Deck pTo)
+	{
+		byte[] cards = new byte[NUMBER_OF_CARDS];
+		for( int i = 0; i < NUMBER_OF_CARDS; i++ )
+		{
+			cards[i] = (byte) pFrom.permutationAt(i);
+		}
+		pTo.restore(cards, pFrom.size());
+	}
+
+	/**
+	 * Puts all 52 cards back in the deck and shuffles them
+	 * with a Fisher-Yates shuffle.
+	 */
+	public void shuffle()
+	{
+		aDeck.shuffle();
+	}
+
+	/**
+	 * Puts all 52 cards back in the deck and shuffles them with a
+	 * generator seeded with pSeed, in the same order as Deck.shuffle(long).
+	 *
+	 * @param pSeed The seed of the shuffle.
+	 */
+	public void shuffle(long pSeed)
+	{
+		aDeck.shuffle(pSeed);
+	}
+
+	/**
+	 * @return The code of the card on top of the deck, which is removed from the deck.
+	 * @throws java.util.EmptyStackException If the deck is empty.
+	 */
+	public int draw()
+	{
+		return aDeck.drawCardCode();
+	}
+
+	/**
+	 * Draws pCards cards and adds them to pHand.
+	 *
+	 * @param pHand The hand that receives the cards.
+	 * @param pCards The number of cards to draw.
+	 * @pre pHand != null && pCards >= 0 && pCards <= size()
+	 * @pre pHand can hold pCards more cards
+	 */
+	public void deal(IntHand pHand, int pCards)
+	{
+		assert pHand != null && pCards >= 0 && pCards <= size();
+		for( int i = 0; i < pCards; i++ )
+		{
+			pHand.add(draw());
+		}
+	}
+
+	/**
+	 * @return The code of the card on top of the deck.
+	 * @throws java.util.EmptyStackException If the deck is empty.
+	 */
+	public int peek()
+	{
+		return aDeck.peekCardCode();
+	}
+
+	/**
+	 * @return The number of cards in the deck.
+	 */
+	public int size()
+	{
+		return aDeck.size();
+	}
+
+	/**
+	 * @return True if there are no cards in the deck.
+	 */
+	public boolean isEmpty()
+	{
+		return aDeck.isEmpty();
+	}
+
+	/**
+	 * Performs pAction on the code of each card, from the
+	 * bottom of the deck to the top.
+	 *
+	 * @param pAction The action to perform on each code.
+	 * @pre pAction != null
+	 */
+	public void forEachCardCode(IntConsumer pAction)
+	{
+		aDeck.forEachCardCode(pAction);
+	}
+
+	/**
+	 * @return A new array with the code of each card,
+	 * from the bottom of the deck to the top.
+	 */
+	public int[] cardCodes()
+	{
+		return aDeck.cardCodes();
+	}
+}
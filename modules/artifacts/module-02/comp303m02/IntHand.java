@@ -0,0 +1,161 @@
+package comp303m02;
+
+import java.util.function.IntConsumer;
+
+/**
+ * A hand of cards handled through their codes (see CardCode) instead of
+ * Card objects. The cards are stored as the bits of a single long, as in
+ * CardSet, bit i being set if the card with code i is in the hand, so adding,
+ * removing, and looking up a card are single bit operations on the code.
+ *
+ * An IntHand has the same capacity and the same order of cards as Hand,
+ * and the two can be converted into each other.
+ */
+public final class IntHand
+{
+	private long aCards;
+	private final int aMaxCards;
+
+	/**
+	 * Creates a new, empty hand, which can hold
+	 * a maximum of pMaxCards.
+	 *
+	 * @param pMaxCards The maximum number of cards allowed in this hand.
+	 * @pre pMaxCards > 0
+	 */
+	public IntHand(int pMaxCards)
+	{
+		assert pMaxCards > 0;
+		aMaxCards = pMaxCards;
+	}
+
+	/**
+	 * Creates a hand with the cards and the capacity of pHand.
+	 *
+	 * @param pHand The hand to copy.
+	 * @pre pHand != null
+	 */
+	public IntHand(Hand pHand)
+	{
+		assert pHand != null;
+		aCards = pHand.toMask();
+		aMaxCards = pHand.maxCards();
+	}
+
+	/**
+	 * @return A new Hand with the same cards and capacity as this hand.
+	 */
+	public Hand toHand()
+	{
+		Hand hand = new Hand(aMaxCards);
+		for( long cards = aCards; cards != 0; cards &= cards - 1 )
+		{
+			hand.add(Card.get(Long.numberOfTrailingZeros(cards)));
+		}
+		return hand;
+	}
+
+	/**
+	 * Adds the card with code pCode to the hand.
+	 *
+	 * @param pCode The code of the card to add.
+	 * @pre !isFull()
+	 * @pre CardCode.isValid(pCode) && !contains(pCode)
+	 */
+	public void add(int pCode)
+	{
+		assert !isFull();
+		assert CardCode.isValid(pCode) && !contains(pCode);
+		aCards |= 1L << pCode;
+	}
+
+	/**
+	 * Removes the card with code pCode from the hand, if it is there.
+	 *
+	 * @param pCode The code of the card to remove.
+	 * @pre CardCode.isValid(pCode)
+	 */
+	public void remove(int pCode)
+	{
+		assert CardCode.isValid(pCode);
+		aCards &= ~(1L << pCode);
+	}
+
+	/**
+	 * @param pCode The code of a card.
+	 * @return True if the card with code pCode is in the hand.
+	 * @pre CardCode.isValid(pCode)
+	 */
+	public boolean contains(int pCode)
+	{
+		assert CardCode.isValid(pCode);
+		return (aCards & 1L << pCode) != 0;
+	}
+
+	/**
+	 * @return The number of cards in the hand.
+	 */
+	public int size()
+	{
+		return Long.bitCount(aCards);
+	}
+
+	/**
+	 * @return True if the hand has no cards.
+	 */
+	public boolean isEmpty()
+	{
+		return aCards == 0;
+	}
+
+	/**
+	 * @return True if the hand holds its maximum number of cards.
+	 */
+	public boolean isFull()
+	{
+		return size() == aMaxCards;
+	}
+
+	/**
+	 * Removes all the cards from the hand.
+	 */
+	public void clear()
+	{
+		aCards = 0;
+	}
+
+	/**
+	 * Performs pAction on the code of each card, in increasing order.
+	 *
+	 * @param pAction The action to perform on each code.
+	 * @pre pAction != null
+	 */
+	public void forEachCardCode(IntConsumer pAction)
+	{
+		assert pAction != null;
+		for( long cards = aCards; cards != 0; cards &= cards - 1 )
+		{
+			pAction.accept(Long.numberOfTrailingZeros(cards));
+		}
+	}
+
+	/**
+	 * @return A new array with the code of each card, in increasing order.
+	 */
+	public int[] cardCodes()
+	{
+		int[] codes = new int[size()];
+		int i = 0;
+		for( long cards = aCards; cards != 0; cards &= cards - 1 )
+		{
+			codes[i++] = Long.numberOfTrailingZeros(cards);
+		}
+		return codes;
+	}
+
+	@Override
+	public String toString()
+	{
+		return new CardSet(aCards).toString();
+	}
+}
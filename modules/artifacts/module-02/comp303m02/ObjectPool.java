@@ -0,0 +1,181 @@
+package comp303m02;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * A pool of reusable objects, such as hands and decks, which lets a
+ * simulation loop run without allocating new objects for each round.
+ *
+ * Each thread has its own pool, so acquiring and releasing objects takes
+ * no lock and allocates no memory. An object released to a full pool is
+ * discarded and left to the garbage collector, so the pool of each thread
+ * never holds more than a fixed number of objects. Objects are reset when
+ * they are released, so an acquired object is always in the state of a
+ * new one.
+ *
+ * The pool counts the objects it creates, acquires, releases, and
+ * discards, over all threads, to check that a loop reuses its objects:
+ * in the steady state, the number of objects created stops growing.
+ *
+ * @param <T> The type of the pooled objects.
+ */
+public final class ObjectPool<T>
+{
+	private final Supplier<? extends T> aFactory;
+	private final Consumer<? super T> aReset;
+	private final int aCapacity;
+	private final ThreadLocal<Stack> aStacks;
+
+	private final LongAdder aCreated = new LongAdder();
+	private final LongAdder aAcquired = new LongAdder();
+	private final LongAdder aReleased = new LongAdder();
+	private final LongAdder aDiscarded = new LongAdder();
+
+	/**
+	 * Creates an empty pool.
+	 *
+	 * @param pFactory Creates a new object when the pool of a thread is empty.
+	 * @param pReset Puts a released object back in the state of a new one.
+	 * @param pCapacity The maximum number of objects kept by each thread.
+	 * @pre pFactory != null && pReset != null && pCapacity > 0
+	 */
+	public ObjectPool(Supplier<? extends T> pFactory, Consumer<? super T> pReset, int pCapacity)
+	{
+		assert pFactory != null && pReset != null && pCapacity > 0;
+		aFactory = pFactory;
+		aReset = pReset;
+		aCapacity = pCapacity;
+		aStacks = ThreadLocal.withInitial(() -> new Stack(pCapacity));
+	}
+
+	/**
+	 * @param pMaxCards The maximum number of cards of the hands.
+	 * @param pCapacity The maximum number of hands kept by each thread.
+	 * @return A pool of hands that can hold pMaxCards cards.
+	 * @pre pMaxCards > 0 && pCapacity > 0
+	 */
+	public static ObjectPool<Hand> ofHands(int pMaxCards, int pCapacity)
+	{
+		return new ObjectPool<>(() -> new Hand(pMaxCards), Hand::clear, pCapacity);
+	}
+
+	/**
+	 * @param pCapacity The maximum number of decks kept by each thread.
+	 * @return A pool of decks, each with its own default random number generator.
+	 * @pre pCapacity > 0
+	 */
+	public static ObjectPool<Deck> ofDecks(int pCapacity)
+	{
+		return new ObjectPool<>(Deck::new, Deck::reset, pCapacity);
+	}
+
+	/**
+	 * @return An object from the pool of the current thread,
+	 * or a new object if this pool is empty.
+	 */
+	@SuppressWarnings("unchecked")
+	public T acquire()
+	{
+		aAcquired.increment();
+		Stack stack = aStacks.get();
+		if( stack.aSize == 0 )
+		{
+			aCreated.increment();
+			return aFactory.get();
+		}
+		stack.aSize--;
+		T object = (T) stack.aObjects[stack.aSize];
+		stack.aObjects[stack.aSize] = null;
+		return object;
+	}
+
+	/**
+	 * Resets pObject and puts it in the pool of the current thread, or
+	 * discards it if this pool is full. The client must not use pObject
+	 * after releasing it.
+	 *
+	 * @param pObject The object to release.
+	 * @pre pObject != null
+	 */
+	public void release(T pObject)
+	{
+		assert pObject != null;
+		aReleased.increment();
+		Stack stack = aStacks.get();
+		if( stack.aSize == aCapacity )
+		{
+			aDiscarded.increment();
+			return;
+		}
+		aReset.accept(pObject);
+		stack.aObjects[stack.aSize] = pObject;
+		stack.aSize++;
+	}
+
+	/**
+	 * @return The maximum number of objects kept by each thread.
+	 */
+	public int capacity()
+	{
+		return aCapacity;
+	}
+
+	/**
+	 * @return The number of objects created by the pool.
+	 */
+	public long getCreated()
+	{
+		return aCreated.sum();
+	}
+
+	/**
+	 * @return The number of calls to acquire().
+	 */
+	public long getAcquired()
+	{
+		return aAcquired.sum();
+	}
+
+	/**
+	 * @return The number of calls to release().
+	 */
+	public long getReleased()
+	{
+		return aReleased.sum();
+	}
+
+	/**
+	 * @return The number of released objects that were discarded
+	 * because the pool of their thread was full.
+	 */
+	public long getDiscarded()
+	{
+		return aDiscarded.sum();
+	}
+
+	/**
+	 * @return The proportion of the acquired objects that were reused
+	 * instead of created.
+	 */
+	public double getReuseRate()
+	{
+		long acquired = getAcquired();
+		return acquired == 0 ? 0 : 1 - (double) getCreated() / acquired;
+	}
+
+	/*
+	 * The objects kept by one thread.
+	 */
+	private static final class Stack
+	{
+		private final Object[] aObjects;
+		private int aSize = 0;
+
+		Stack(int pCapacity)
+		{
+			aObjects = new Object[pCapacity];
+		}
+	}
+}
@@ -0,0 +1,248 @@
+package comp303m02;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+import comp303m02.Card.Rank;
+
+/**
+ * A dealing shoe that holds the cards of several decks in a single
+ * array, so that all the cards are shuffled together instead of
+ * deck by deck. Drawing a card and checking for emptiness are
+ * constant-time operations. The shoe also keeps track of how many
+ * cards of each rank are left, and of a cut card placed at a
+ * configurable penetration that signals when to reshuffle.
+ *
+ * For card counting, the shoe keeps the Hi-Lo count of the cards dealt
+ * since the last shuffle: 2 to 6 count +1, 7 to 9 count 0, and tens,
+ * faces, and aces count -1. The running count is updated as each card is drawn, so
+ * reading it, or the true count, is a constant-time operation.
+ */
+public final class Shoe implements Iterable<Card>
+{
+	private static final int CARDS_PER_DECK = 52;
+	private static final int NUMBER_OF_RANKS = Rank.values().length;
+	private static final int NUMBER_OF_SUITS = Card.Suit.values().length;
+	// The Hi-Lo value of each rank, in the order of Rank
+	private static final int[] HI_LO = {-1, 1, 1, 1, 1, 1, 0, 0, 0, -1, -1, -1, -1};
+
+	private final byte[] aCards;
+	private int aSize = 0; // Cards at indices [0, aSize) are in the shoe, the top one last.
+	private final int[] aRemaining = new int[NUMBER_OF_RANKS];
+	private int aRunningCount = 0;
+	private final int aNumberOfDecks;
+	private final int aCutCard; // The number of cards dealt when the cut card is reached, at least 1
+	private final RandomGenerator aRandom;
+
+	/**
+	 * Creates an initialized, shuffled shoe from pNumberOfDecks decks.
+	 *
+	 * @param pNumberOfDecks The number of decks in the shoe.
+	 * @param pPenetration The fraction of the cards to deal before the cut card is reached,
+	 * rounded to the nearest card, and at least one card.
+	 * @pre pNumberOfDecks > 0
+	 * @pre pPenetration > 0 && pPenetration <= 1
+	 */
+	public Shoe(int pNumberOfDecks, double pPenetration)
+	{
+		this(pNumberOfDecks, pPenetration, new SplittableRandom());
+	}
+
+	/**
+	 * Creates an initialized shoe from pNumberOfDecks decks, shuffled
+	 * with pRandom.
+	 *
+	 * @param pNumberOfDecks The number of decks in the shoe.
+	 * @param pPenetration The fraction of the cards to deal before the cut card is reached,
+	 * rounded to the nearest card, and at least one card.
+	 * @param pRandom The source of randomness for shuffling.
+	 * @pre pNumberOfDecks > 0
+	 * @pre pPenetration > 0 && pPenetration <= 1
+	 * @pre pRandom != null
+	 */
+	public Shoe(int pNumberOfDecks, double pPenetration, RandomGenerator pRandom)
+	{
+		assert pNumberOfDecks > 0;
+		assert pPenetration > 0 && pPenetration <= 1;
+		assert pRandom != null;
+		aNumberOfDecks = pNumberOfDecks;
+		aRandom = pRandom;
+		aCards = new byte[pNumberOfDecks * CARDS_PER_DECK];
+		aCutCard = Math.max(1, (int) Math.round(pPenetration * aCards.length));
+		for( int i = 0; i < aCards.length; i++ )
+		{
+			aCards[i] = (byte) (i % CARDS_PER_DECK);
+		}
+		shuffle();
+	}
+
+	/**
+	 * Puts all the cards back in the shoe and shuffles them together.
+	 */
+	public void shuffle()
+	{
+		for( int i = aCards.length - 1; i > 0; i-- )
+		{
+			int j = aRandom.nextInt(i + 1);
+			byte card = aCards[i];
+			aCards[i] = aCards[j];
+			aCards[j] = card;
+		}
+		aSize = aCards.length;
+		for( int i = 0; i < NUMBER_OF_RANKS; i++ )
+		{
+			aRemaining[i] = aNumberOfDecks * NUMBER_OF_SUITS;
+		}
+		aRunningCount = 0;
+	}
+
+	/**
+	 * @return The next card in the shoe, which is removed from the shoe.
+	 * @pre !isEmpty()
+	 */
+	public Card draw()
+	{
+		assert !isEmpty();
+		aSize--;
+		Card card = Card.get(aCards[aSize]);
+		int rank = card.getRank().ordinal();
+		aRemaining[rank]--;
+		aRunningCount += HI_LO[rank];
+		return card;
+	}
+
+	/**
+	 * @return The next card in the shoe, which is not removed.
+	 * @pre !isEmpty()
+	 */
+	public Card peek()
+	{
+		assert !isEmpty();
+		return Card.get(aCards[aSize - 1]);
+	}
+
+	/**
+	 * @return True if there are no cards left in the shoe.
+	 */
+	public boolean isEmpty()
+	{
+		return aSize == 0;
+	}
+
+	/**
+	 * @return The number of cards left in the shoe.
+	 */
+	public int size()
+	{
+		return aSize;
+	}
+
+	/**
+	 * @return The number of decks in the shoe.
+	 */
+	public int getNumberOfDecks()
+	{
+		return aNumberOfDecks;
+	}
+
+	/**
+	 * @param pRank A rank.
+	 * @return The number of cards of rank pRank left in the shoe.
+	 * @pre pRank != null
+	 */
+	public int remaining(Rank pRank)
+	{
+		assert pRank != null;
+		return aRemaining[pRank.ordinal()];
+	}
+
+	/**
+	 * @return The Hi-Lo count of the cards drawn since the last shuffle.
+	 */
+	public int getRunningCount()
+	{
+		return aRunningCount;
+	}
+
+	/**
+	 * @return The running count divided by the number of decks left
+	 * in the shoe, or the running count if the shoe is empty.
+	 */
+	public double getTrueCount()
+	{
+		return aSize == 0 ? aRunningCount : aRunningCount * (double) CARDS_PER_DECK / aSize;
+	}
+
+	/**
+	 * @return True if the cut card has been reached, that is, if the
+	 * shoe should be reshuffled before the next round.
+	 */
+	public boolean isCutCardReached()
+	{
+		return aCards.length - aSize >= aCutCard;
+	}
+
+	/**
+	 * Used to take back the count of a card that has been
+	 * drawn but is not seen by the player.
+	 *
+	 * @param pCard A card.
+	 * @return The Hi-Lo value of pCard: 1 for two to six, -1 for
+	 * tens, face cards and aces, and 0 otherwise.
+	 * @pre pCard != null
+	 */
+	static int hiLo(Card pCard)
+	{
+		assert pCard != null;
+		return HI_LO[pCard.getRank().ordinal()];
+	}
+
+	/**
+	 * Sorts the cards left in the shoe in the order of pComparator, from the last
+	 * one to be dealt to the next one. Comparators that order cards by an ordinal
+	 * key, such as Card.createByRankComparator() and Card.CompareBySuitFirst, sort
+	 * the shoe in linear time. Other comparators fall back to a comparison sort.
+	 *
+	 * @param pComparator The order of the cards.
+	 * @return True if the shoe was sorted in linear time, false if pComparator
+	 * does not order cards by an ordinal key.
+	 * @pre pComparator != null
+	 */
+	public boolean sort(Comparator<Card> pComparator)
+	{
+		assert pComparator != null;
+		return CardSorter.sort(aCards, 0, aSize, pComparator);
+	}
+
+	/**
+	 * Iterates over the cards left in the shoe, from the
+	 * last one to be dealt to the next one.
+	 */
+	@Override
+	public Iterator<Card> iterator()
+	{
+		return new Iterator<Card>()
+		{
+			private int aNext = 0;
+
+			@Override
+			public boolean hasNext()
+			{
+				return aNext < aSize;
+			}
+
+			@Override
+			public Card next()
+			{
+				if( !hasNext() )
+				{
+					throw new NoSuchElementException();
+				}
+				return Card.get(aCards[aNext++]);
+			}
+		};
+	}
+}
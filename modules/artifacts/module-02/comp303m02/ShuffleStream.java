@@ -0,0 +1,120 @@
+package comp303m02;
+
+/**
+ * A reproducible sequence of deals, each identified by its position in the
+ * sequence. The seed of deal n is the n-th value returned by nextLong() on a
+ * SplittableRandom created with the seed of the stream. This value is computed
+ * directly from n, without producing the values before it, so a stream can be
+ * split into sub-streams that each cover a range of deals and can be used by
+ * different threads without sharing any state. Whatever the way the deals are
+ * split between threads, deal n is always shuffled in the same way.
+ */
+public final class ShuffleStream
+{
+	private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L; // The increment of SplittableRandom(long)
+
+	private final long aSeed;
+	private long aNext; // The position of the next deal
+	private final long aEnd; // The position after the last deal
+
+	/**
+	 * Creates a stream of deals derived from pSeed.
+	 *
+	 * @param pSeed The seed of the stream.
+	 */
+	public ShuffleStream(long pSeed)
+	{
+		this(pSeed, 0, Long.MAX_VALUE);
+	}
+
+	private ShuffleStream(long pSeed, long pFirst, long pEnd)
+	{
+		aSeed = pSeed;
+		aNext = pFirst;
+		aEnd = pEnd;
+	}
+
+	/**
+	 * @return The position of the next deal in the whole stream.
+	 */
+	public long position()
+	{
+		return aNext;
+	}
+
+	/**
+	 * @return The number of deals left in this stream.
+	 */
+	public long remaining()
+	{
+		return aEnd - aNext;
+	}
+
+	/**
+	 * @return The seed of the next deal, which is consumed.
+	 * @pre remaining() > 0
+	 */
+	public long nextSeed()
+	{
+		assert remaining() > 0;
+		return seedOf(aNext++);
+	}
+
+	/**
+	 * Shuffles pDeck with the next deal, as with pDeck.shuffle(nextSeed()).
+	 *
+	 * @param pDeck The deck to shuffle.
+	 * @pre pDeck != null && remaining() > 0
+	 */
+	public void shuffle(CardDeck pDeck)
+	{
+		assert pDeck != null;
+		pDeck.shuffle(nextSeed());
+	}
+
+	/**
+	 * Creates a stream with the first half of the deals left in this
+	 * stream, which keeps the second half.
+	 *
+	 * @return The first half of the deals, or null if there are fewer
+	 * than two deals left.
+	 */
+	public ShuffleStream split()
+	{
+		long half = remaining() / 2;
+		if( half == 0 )
+		{
+			return null;
+		}
+		ShuffleStream first = new ShuffleStream(aSeed, aNext, aNext + half);
+		aNext += half;
+		return first;
+	}
+
+	/**
+	 * Creates a stream with pCount deals starting at position pFirst of
+	 * the whole stream, independently of the deals already consumed.
+	 *
+	 * @param pFirst The position of the first deal.
+	 * @param pCount The number of deals.
+	 * @return A stream with the deals in [pFirst, pFirst + pCount).
+	 * @pre pFirst >= 0 && pCount >= 0 && pFirst + pCount does not overflow
+	 */
+	public ShuffleStream substream(long pFirst, long pCount)
+	{
+		assert pFirst >= 0 && pCount >= 0 && pFirst + pCount >= 0;
+		return new ShuffleStream(aSeed, pFirst, pFirst + pCount);
+	}
+
+	/*
+	 * Same as the pPosition-th call to nextLong() on new SplittableRandom(aSeed),
+	 * which adds GOLDEN_GAMMA to its state and mixes the result.
+	 */
+	private long seedOf(long pPosition)
+	{
+		long z = aSeed + (pPosition + 1) * GOLDEN_GAMMA;
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+}
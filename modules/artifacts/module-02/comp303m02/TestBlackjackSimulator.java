@@ -0,0 +1,139 @@
+package comp303m02;
+
+import static org.junit.Assert.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import comp303m02.BlackjackStrategy.Action;
+import comp303m02.Card.Rank;
+
+/**
+ * Tests for BlackjackSimulator, BlackjackStrategy, and the count kept by Shoe.
+ * Each round of a simulation depends only on the seed, so the same seed must
+ * give the same result with any number of threads.
+ */
+public class TestBlackjackSimulator
+{
+	private static final long ROUNDS = 1_000_000;
+
+	@Test
+	public void testRunningCount()
+	{
+		Shoe shoe = new Shoe(2, 1, new SplittableRandom(3));
+		int count = 0;
+		while( shoe.size() > 52 )
+		{
+			Rank rank = shoe.draw().getRank();
+			if( rank.ordinal() >= Rank.TWO.ordinal() && rank.ordinal() <= Rank.SIX.ordinal() )
+			{
+				count++;
+			}
+			else if( rank == Rank.ACE || rank.ordinal() >= Rank.TEN.ordinal() )
+			{
+				count--;
+			}
+			assertEquals(count, shoe.getRunningCount());
+		}
+		assertEquals(count, shoe.getTrueCount(), 1e-9);
+		while( !shoe.isEmpty() )
+		{
+			shoe.draw();
+		}
+		assertEquals(0, shoe.getRunningCount());
+		shoe.shuffle();
+		assertEquals(0, shoe.getRunningCount());
+		assertEquals(0, shoe.getTrueCount(), 0);
+	}
+
+	@Test
+	public void testBasicStrategy()
+	{
+		BlackjackStrategy basic = BlackjackStrategy.basic();
+		assertEquals(Action.HIT, basic.getAction(16, false, 0, 10, true, 5));
+		assertEquals(Action.STAND, basic.getAction(13, false, 0, 6, true, 0));
+		assertEquals(Action.DOUBLE, basic.getAction(11, false, 0, 10, true, 0));
+		assertEquals(Action.HIT, basic.getAction(11, false, 0, 10, false, 0));
+		assertEquals(Action.HIT, basic.getAction(11, false, 0, 11, true, 0));
+		assertEquals(Action.DOUBLE, basic.getAction(18, true, 0, 6, true, 0));
+		assertEquals(Action.STAND, basic.getAction(18, true, 0, 6, false, 0));
+		assertEquals(Action.HIT, basic.getAction(18, true, 0, 9, true, 0));
+		assertEquals(Action.SPLIT, basic.getAction(12, true, 11, 11, true, 0));
+		assertEquals(Action.SPLIT, basic.getAction(16, false, 8, 10, true, 0));
+		assertEquals(Action.STAND, basic.getAction(18, false, 9, 7, true, 0));
+		assertEquals(Action.STAND, basic.getAction(20, false, 10, 6, true, 10));
+		assertEquals(Action.DOUBLE, basic.getAction(10, false, 5, 9, true, 0));
+		assertEquals(1, basic.getBet(-3));
+		assertEquals(1, basic.getBet(8));
+	}
+
+	@Test
+	public void testCountingStrategy()
+	{
+		BlackjackStrategy counting = new BlackjackStrategy(new int[] {1, 1, 2, 4}, true);
+		assertEquals(1, counting.getBet(-2.5));
+		assertEquals(1, counting.getBet(1.9));
+		assertEquals(2, counting.getBet(2));
+		assertEquals(4, counting.getBet(7));
+		assertEquals(Action.HIT, counting.getAction(16, false, 0, 10, true, -0.1));
+		assertEquals(Action.STAND, counting.getAction(16, false, 0, 10, true, 0));
+		assertEquals(Action.HIT, counting.getAction(12, false, 0, 4, true, -1));
+		assertEquals(Action.DOUBLE, counting.getAction(11, false, 0, 11, true, 1));
+		assertEquals(Action.HIT, counting.getAction(11, false, 0, 11, false, 1));
+		assertEquals(Action.SPLIT, counting.getAction(20, false, 10, 6, true, 4));
+		assertEquals(Action.STAND, counting.getAction(20, false, 10, 6, true, 3.5));
+		assertEquals(Action.HIT, counting.getAction(16, true, 0, 10, true, 3));
+	}
+
+	@Test
+	public void testThreads()
+	{
+		BlackjackSimulator simulator = new BlackjackSimulator(6, 0.8, new BlackjackStrategy(new int[] {1, 2, 4}, true));
+		long rounds = 3 * (1 << 16) + 1000;
+		BlackjackSimulator.Result single = simulate(simulator, rounds, 1);
+		BlackjackSimulator.Result multiple = simulate(simulator, rounds, 3);
+		assertEquals(rounds, single.getRounds());
+		long total = 0;
+		for( int count = BlackjackSimulator.Result.MIN_TRUE_COUNT; count <= BlackjackSimulator.Result.MAX_TRUE_COUNT; count++ )
+		{
+			assertEquals(single.getRounds(count), multiple.getRounds(count));
+			assertEquals(single.getExpectedValue(count), multiple.getExpectedValue(count), 0);
+			total += single.getRounds(count);
+		}
+		assertEquals(rounds, total);
+		assertEquals(single.getWinRate(), multiple.getWinRate(), 0);
+		assertEquals(single.getAverageBet(), multiple.getAverageBet(), 0);
+	}
+
+	@Test
+	public void testExpectedValue()
+	{
+		BlackjackSimulator.Result basic = new BlackjackSimulator(6, 0.75, BlackjackStrategy.basic()).simulate(ROUNDS, 5);
+		// The house edge of basic strategy with these rules is about 0.5%
+		assertEquals(-0.005, basic.getExpectedValue(), 0.01);
+		assertEquals(1, basic.getAverageBet(), 0);
+		assertEquals(basic.getExpectedValue(), basic.getWinRate(), 1e-12);
+		assertTrue(basic.getExpectedValue(4) - basic.getConfidenceInterval(4) >
+				basic.getExpectedValue(-4) + basic.getConfidenceInterval(-4));
+
+		BlackjackSimulator.Result counting = new BlackjackSimulator(6, 0.75,
+				new BlackjackStrategy(new int[] {1, 1, 2, 4, 8}, true)).simulate(ROUNDS, 5);
+		assertTrue(counting.getAverageBet() > 1);
+		assertTrue(counting.getWinRate() > basic.getWinRate());
+	}
+
+	private static BlackjackSimulator.Result simulate(BlackjackSimulator pSimulator, long pRounds, int pThreads)
+	{
+		ForkJoinPool pool = new ForkJoinPool(pThreads);
+		try
+		{
+			return pSimulator.simulate(pRounds, 11, pool);
+		}
+		finally
+		{
+			pool.shutdown();
+		}
+	}
+}
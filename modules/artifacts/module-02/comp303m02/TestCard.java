@@ -0,0 +1,79 @@
+package comp303m02;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import comp303m02.Card.Rank;
+import comp303m02.Card.Suit;
+
+public class TestCard
+{
+	@Test
+	public void testGetReturnsSharedInstance()
+	{
+		for( Suit suit : Suit.values() )
+		{
+			for( Rank rank : Rank.values() )
+			{
+				Card card = Card.get(rank, suit);
+				assertSame(card, Card.get(rank, suit));
+				assertSame(rank, card.getRank());
+				assertSame(suit, card.getSuit());
+			}
+		}
+	}
+
+	@Test
+	public void testGetByIndex()
+	{
+		for( int index = 0; index < 52; index++ )
+		{
+			Card card = Card.get(index);
+			assertEquals(index, card.index());
+			assertSame(card, Card.get(card.index()));
+			assertSame(card, Card.get(card.getRank(), card.getSuit()));
+		}
+		assertEquals(0, Card.get(Rank.ACE, Suit.CLUBS).index());
+		assertEquals(51, Card.get(Rank.KING, Suit.HEARTS).index());
+	}
+
+	@Test
+	public void testEqualsAndHashCode()
+	{
+		for( int i = 0; i < 52; i++ )
+		{
+			Card card = Card.get(i);
+			Card copy = new Card(card);
+			assertNotSame(card, copy);
+			assertEquals(card, copy);
+			assertEquals(card.hashCode(), copy.hashCode());
+			assertEquals(card.index(), card.hashCode());
+			for( int j = 0; j < 52; j++ )
+			{
+				assertEquals(i == j, card.equals(Card.get(j)));
+			}
+		}
+		assertNotEquals(Card.get(0), null);
+		assertNotEquals(Card.get(0), Rank.ACE);
+	}
+
+	@Test
+	public void testCompareTo()
+	{
+		for( int i = 0; i < 52; i++ )
+		{
+			for( int j = 0; j < 52; j++ )
+			{
+				assertEquals(Integer.signum(i - j), Integer.signum(Card.get(i).compareTo(Card.get(j))));
+			}
+		}
+	}
+
+	@Test
+	public void testToString()
+	{
+		assertEquals("ACE of Clubs", Card.get(Rank.ACE, Suit.CLUBS).toString());
+		assertEquals("TEN of Hearts", Card.get(Rank.TEN, Suit.HEARTS).toString());
+	}
+}
@@ -0,0 +1,114 @@
+package comp303m02;
+
+import static org.junit.Assert.*;
+
+import java.util.Comparator;
+
+import org.junit.Test;
+
+import comp303m02.Card.Rank;
+import comp303m02.Card.Suit;
+
+/**
+ * Tests for CardCode, IntHand, and IntDeck. The codes must agree with the
+ * cards they code, and the conversions between the card and code versions
+ * of hands and decks must keep the cards and their order.
+ */
+public class TestCardCode
+{
+	private static final int NUMBER_OF_CARDS = 52;
+
+	@Test
+	public void testPackAndUnpack()
+	{
+		for( Suit suit : Suit.values() )
+		{
+			for( Rank rank : Rank.values() )
+			{
+				int code = CardCode.pack(rank, suit);
+				assertTrue(CardCode.isValid(code));
+				assertEquals(rank, CardCode.rankOf(code));
+				assertEquals(suit, CardCode.suitOf(code));
+				assertEquals(Card.get(rank, suit), CardCode.toCard(code));
+				assertEquals(code, CardCode.of(Card.get(rank, suit)));
+				assertEquals(Card.get(rank, suit).toString(), CardCode.toString(code));
+			}
+		}
+		assertFalse(CardCode.isValid(-1));
+		assertFalse(CardCode.isValid(NUMBER_OF_CARDS));
+	}
+
+	@Test
+	public void testCompare()
+	{
+		Comparator<Card> byRank = Card.createByRankComparator();
+		for( int code1 = 0; code1 < NUMBER_OF_CARDS; code1++ )
+		{
+			for( int code2 = 0; code2 < NUMBER_OF_CARDS; code2++ )
+			{
+				Card card1 = Card.get(code1);
+				Card card2 = Card.get(code2);
+				assertEquals(Integer.signum(card1.compareTo(card2)), Integer.signum(CardCode.compare(code1, code2)));
+				assertEquals(Integer.signum(byRank.compare(card1, card2)),
+						Integer.signum(CardCode.compareByRank(code1, code2)));
+			}
+		}
+	}
+
+	@Test
+	public void testIntHand()
+	{
+		IntHand hand = new IntHand(3);
+		assertTrue(hand.isEmpty());
+		hand.add(CardCode.pack(Rank.KING, Suit.HEARTS));
+		hand.add(CardCode.pack(Rank.ACE, Suit.CLUBS));
+		assertEquals(2, hand.size());
+		assertFalse(hand.isFull());
+		assertTrue(hand.contains(CardCode.pack(Rank.ACE, Suit.CLUBS)));
+		assertEquals("[ACE of Clubs, KING of Hearts]", hand.toString());
+
+		Hand converted = hand.toHand();
+		assertEquals(2, converted.size());
+		assertTrue(converted.contains(Card.get(Rank.KING, Suit.HEARTS)));
+		converted.add(Card.get(Rank.TWO, Suit.SPADES));
+		assertTrue(converted.isFull());
+		IntHand back = new IntHand(converted);
+		assertTrue(back.isFull());
+		assertArrayEquals(converted.cardCodes(), back.cardCodes());
+
+		back.remove(CardCode.pack(Rank.ACE, Suit.CLUBS));
+		assertFalse(back.contains(CardCode.pack(Rank.ACE, Suit.CLUBS)));
+		assertEquals(2, back.size());
+		back.clear();
+		assertTrue(back.isEmpty());
+	}
+
+	@Test
+	public void testIntDeck()
+	{
+		Deck deck = new Deck();
+		IntDeck intDeck = new IntDeck();
+		deck.shuffle(42);
+		intDeck.shuffle(42);
+		assertArrayEquals(deck.cardCodes(), intDeck.cardCodes());
+
+		deck.draw();
+		assertEquals(deck.peek().index(), new IntDeck(deck).peek());
+		assertEquals(NUMBER_OF_CARDS - 1, new IntDeck(deck).size());
+
+		IntHand hand = new IntHand(5);
+		intDeck.deal(hand, 5);
+		assertEquals(NUMBER_OF_CARDS - 5, intDeck.size());
+		Deck converted = intDeck.toDeck();
+		assertArrayEquals(intDeck.cardCodes(), converted.cardCodes());
+		for( int code : converted.cardCodes() )
+		{
+			assertFalse(hand.contains(code));
+		}
+		while( !converted.isEmpty() )
+		{
+			assertEquals(intDeck.draw(), converted.draw().index());
+		}
+		assertTrue(intDeck.isEmpty());
+	}
+}
@@ -0,0 +1,156 @@
+package comp303m02;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.junit.Test;
+
+import comp303m02.Card.Rank;
+import comp303m02.Card.Suit;
+
+public class TestCardSet
+{
+	private static final Card ACE_OF_CLUBS = Card.get(Rank.ACE, Suit.CLUBS);
+	private static final Card KING_OF_CLUBS = Card.get(Rank.KING, Suit.CLUBS);
+	private static final Card TWO_OF_DIAMONDS = Card.get(Rank.TWO, Suit.DIAMONDS);
+	private static final Card KING_OF_HEARTS = Card.get(Rank.KING, Suit.HEARTS);
+
+	private static CardSet setOf(Card... pCards)
+	{
+		CardSet set = new CardSet();
+		for( Card card : pCards )
+		{
+			set.add(card);
+		}
+		return set;
+	}
+
+	private static List<Card> toList(CardSet pSet)
+	{
+		List<Card> cards = new ArrayList<>();
+		for( Card card : pSet )
+		{
+			cards.add(card);
+		}
+		return cards;
+	}
+
+	@Test
+	public void testAddRemoveContains()
+	{
+		CardSet set = new CardSet();
+		assertTrue(set.isEmpty());
+		assertEquals(0, set.size());
+		set.add(KING_OF_HEARTS);
+		set.add(ACE_OF_CLUBS);
+		set.add(KING_OF_HEARTS);
+		assertEquals(2, set.size());
+		assertFalse(set.isEmpty());
+		assertTrue(set.contains(KING_OF_HEARTS));
+		assertTrue(set.contains(ACE_OF_CLUBS));
+		assertFalse(set.contains(KING_OF_CLUBS));
+		set.remove(KING_OF_HEARTS);
+		set.remove(TWO_OF_DIAMONDS);
+		assertEquals(1, set.size());
+		assertFalse(set.contains(KING_OF_HEARTS));
+		set.clear();
+		assertTrue(set.isEmpty());
+	}
+
+	@Test
+	public void testAllCards()
+	{
+		CardSet set = new CardSet();
+		for( int i = 51; i >= 0; i-- )
+		{
+			set.add(Card.get(i));
+			assertEquals(52 - i, set.size());
+		}
+		for( int i = 0; i < 52; i++ )
+		{
+			assertTrue(set.contains(Card.get(i)));
+		}
+		for( Rank rank : Rank.values() )
+		{
+			assertEquals(4, set.countOf(rank));
+		}
+		for( Suit suit : Suit.values() )
+		{
+			assertEquals(13, set.countOf(suit));
+		}
+	}
+
+	@Test
+	public void testIterationOrder()
+	{
+		CardSet set = setOf(KING_OF_HEARTS, TWO_OF_DIAMONDS, KING_OF_CLUBS, ACE_OF_CLUBS);
+		assertEquals(List.of(ACE_OF_CLUBS, KING_OF_CLUBS, TWO_OF_DIAMONDS, KING_OF_HEARTS), toList(set));
+		assertEquals("[" + ACE_OF_CLUBS + ", " + KING_OF_CLUBS + ", " + TWO_OF_DIAMONDS + ", "
+				+ KING_OF_HEARTS + "]", set.toString());
+		assertEquals("[]", new CardSet().toString());
+	}
+
+	@Test
+	public void testIteratorRemove()
+	{
+		CardSet set = setOf(ACE_OF_CLUBS, TWO_OF_DIAMONDS, KING_OF_HEARTS);
+		Iterator<Card> iterator = set.iterator();
+		assertSame(ACE_OF_CLUBS, iterator.next());
+		assertSame(TWO_OF_DIAMONDS, iterator.next());
+		iterator.remove();
+		assertSame(KING_OF_HEARTS, iterator.next());
+		assertFalse(iterator.hasNext());
+		assertEquals(setOf(ACE_OF_CLUBS, KING_OF_HEARTS), set);
+		try
+		{
+			iterator.next();
+			fail();
+		}
+		catch( NoSuchElementException exception )
+		{
+			// Expected
+		}
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testIteratorRemoveTwice()
+	{
+		Iterator<Card> iterator = setOf(ACE_OF_CLUBS, KING_OF_HEARTS).iterator();
+		iterator.next();
+		iterator.remove();
+		iterator.remove();
+	}
+
+	@Test
+	public void testSetAlgebra()
+	{
+		CardSet clubs = setOf(ACE_OF_CLUBS, KING_OF_CLUBS);
+		CardSet kings = setOf(KING_OF_CLUBS, KING_OF_HEARTS);
+		assertEquals(setOf(ACE_OF_CLUBS, KING_OF_CLUBS, KING_OF_HEARTS), clubs.union(kings));
+		assertEquals(setOf(KING_OF_CLUBS), clubs.intersect(kings));
+		assertEquals(setOf(ACE_OF_CLUBS), clubs.difference(kings));
+		assertEquals(setOf(KING_OF_HEARTS), kings.difference(clubs));
+		assertTrue(clubs.intersect(setOf(TWO_OF_DIAMONDS)).isEmpty());
+		// The operands are not modified
+		assertEquals(setOf(ACE_OF_CLUBS, KING_OF_CLUBS), clubs);
+		assertEquals(setOf(KING_OF_CLUBS, KING_OF_HEARTS), kings);
+	}
+
+	@Test
+	public void testCopyAndEquals()
+	{
+		CardSet set = setOf(ACE_OF_CLUBS, KING_OF_HEARTS);
+		CardSet copy = new CardSet(set);
+		assertEquals(set, copy);
+		assertEquals(set.hashCode(), copy.hashCode());
+		copy.remove(ACE_OF_CLUBS);
+		assertNotEquals(set, copy);
+		assertTrue(set.contains(ACE_OF_CLUBS));
+		assertNotEquals(set, null);
+		assertNotEquals(set, "set");
+	}
+}
@@ -0,0 +1,120 @@
+package comp303m02;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.Test;
+
+import comp303m02.Card.OrdinalComparator;
+
+public class TestCardSorter
+{
+	private static final long SEED = 303;
+	private static final int NUMBER_OF_CARDS = 52;
+
+	private static final Comparator<Card> BY_RANK = Card.createByRankComparator();
+	private static final Comparator<Card> BY_SUIT = new Card.CompareBySuitFirst();
+	// Orders cards by rank then suit, from the highest, without an ordinal key
+	private static final Comparator<Card> BY_RANK_DESCENDING = (pCard1, pCard2) -> BY_RANK.compare(pCard2, pCard1);
+
+	private static List<Card> toList(byte[] pCards, int pFrom, int pTo)
+	{
+		List<Card> cards = new ArrayList<>();
+		for( int i = pFrom; i < pTo; i++ )
+		{
+			cards.add(Card.get(pCards[i]));
+		}
+		return cards;
+	}
+
+	/*
+	 * Sorts random arrays of card indices, with duplicates, between random
+	 * bounds, and checks them against List.sort.
+	 */
+	private static void assertSortsLikeList(Comparator<Card> pComparator, boolean pLinear)
+	{
+		SplittableRandom random = new SplittableRandom(SEED);
+		for( int length : new int[] {0, 1, 2, 5, 52, 200, 312} )
+		{
+			byte[] cards = new byte[length];
+			for( int i = 0; i < length; i++ )
+			{
+				cards[i] = (byte) random.nextInt(NUMBER_OF_CARDS);
+			}
+			int from = length == 0 ? 0 : random.nextInt(length);
+			int to = from + random.nextInt(length - from + 1);
+			byte[] original = cards.clone();
+			List<Card> expected = toList(cards, from, to);
+			expected.sort(pComparator);
+
+			assertEquals(pLinear, CardSorter.sort(cards, from, to, pComparator));
+			assertEquals(expected, toList(cards, from, to));
+			assertArrayEquals(Arrays.copyOfRange(original, 0, from), Arrays.copyOfRange(cards, 0, from));
+			assertArrayEquals(Arrays.copyOfRange(original, to, length), Arrays.copyOfRange(cards, to, length));
+		}
+	}
+
+	@Test
+	public void testSortByRank()
+	{
+		assertSortsLikeList(BY_RANK, true);
+	}
+
+	@Test
+	public void testSortBySuit()
+	{
+		assertSortsLikeList(BY_SUIT, true);
+	}
+
+	@Test
+	public void testSortWithoutOrdinalKey()
+	{
+		assertFalse(Card.hasOrdinalKey(BY_RANK_DESCENDING));
+		assertSortsLikeList(BY_RANK_DESCENDING, false);
+	}
+
+	@Test
+	public void testCardsByKey()
+	{
+		for( OrdinalComparator comparator : new OrdinalComparator[] {(OrdinalComparator) BY_RANK, (OrdinalComparator) BY_SUIT} )
+		{
+			byte[] cards = CardSorter.cardsByKey(comparator);
+			for( int key = 0; key < NUMBER_OF_CARDS; key++ )
+			{
+				assertEquals(key, comparator.keyOf(Card.get(cards[key])));
+			}
+		}
+	}
+
+	@Test
+	public void testSortShoe()
+	{
+		for( Comparator<Card> comparator : List.of(BY_RANK, BY_SUIT, BY_RANK_DESCENDING) )
+		{
+			Shoe shoe = new Shoe(6, 0.75, new SplittableRandom(SEED));
+			for( int i = 0; i < 100; i++ )
+			{
+				shoe.draw();
+			}
+			List<Card> expected = new ArrayList<>();
+			shoe.forEach(expected::add);
+			expected.sort(comparator);
+
+			assertEquals(Card.hasOrdinalKey(comparator), shoe.sort(comparator));
+			List<Card> sorted = new ArrayList<>();
+			shoe.forEach(sorted::add);
+			assertEquals(expected, sorted);
+			// The cards are dealt from the greatest to the smallest
+			for( int i = expected.size() - 1; i >= 0; i-- )
+			{
+				assertSame(expected.get(i), shoe.draw());
+			}
+			assertTrue(shoe.isEmpty());
+		}
+	}
+}
@@ -0,0 +1,116 @@
+package comp303m02;
+
+import static org.junit.Assert.*;
+
+import java.util.SplittableRandom;
+
+import org.junit.Test;
+
+import comp303m02.Card.Rank;
+import comp303m02.Card.Suit;
+
+/**
+ * Tests for Combinations. The combinations are compared with the ones
+ * produced by nested loops, and the parallel enumeration of all five-card
+ * hands with the sequential one.
+ */
+public class TestCombinations
+{
+	private static final int NUMBER_OF_CARDS = 52;
+
+	@Test
+	public void testAllTwoCardHands()
+	{
+		Combinations combinations = Combinations.of(2);
+		assertEquals(1326, combinations.estimateSize());
+		for( int a = 0; a < NUMBER_OF_CARDS; a++ )
+		{
+			for( int b = 0; b < a; b++ )
+			{
+				long[] next = new long[1];
+				assertTrue(combinations.tryAdvance((long pMask) -> next[0] = pMask));
+				assertEquals(1L << a | 1L << b, next[0]);
+			}
+		}
+		assertFalse(combinations.tryAdvance((long pMask) -> fail()));
+	}
+
+	@Test
+	public void testAllFiveCardHands()
+	{
+		assertEquals(2598960, Combinations.of(5).stream().count());
+		assertEquals(2598960, Combinations.of(5).stream().parallel().distinct().count());
+		assertEquals(Combinations.of(5).stream().sum(), Combinations.of(5).stream().parallel().sum());
+		assertTrue(Combinations.of(5).stream().parallel().allMatch(pMask -> Long.bitCount(pMask) == 5));
+	}
+
+	@Test
+	public void testSplitIsEven()
+	{
+		Combinations combinations = Combinations.of(7);
+		long size = combinations.estimateSize();
+		Combinations first = combinations.trySplit();
+		assertEquals(size / 2, first.estimateSize());
+		assertEquals(size - size / 2, combinations.estimateSize());
+		long[] last = new long[1];
+		first.forEachRemaining((long pMask) -> last[0] = pMask);
+		long[] next = new long[1];
+		combinations.tryAdvance((long pMask) -> next[0] = pMask);
+		assertTrue(last[0] < next[0]);
+		assertEquals(7, Long.bitCount(next[0]));
+	}
+
+	@Test
+	public void testCompletions()
+	{
+		Deck deck = new Deck(new SplittableRandom(0));
+		deck.shuffle();
+		Hand hand = new Hand(5);
+		hand.add(deck.draw());
+		hand.add(deck.draw());
+		hand.add(Card.get(Rank.ACE, Suit.HEARTS)); // May also be left in the deck
+		for( int i = 0; i < 10; i++ )
+		{
+			deck.draw();
+		}
+		long handMask = hand.toMask();
+		long deckMask = 0;
+		for( Card card : deck )
+		{
+			deckMask |= 1L << card.index();
+		}
+		long available = deckMask & ~handMask;
+
+		long count = 0;
+		long expected = 0;
+		for( int a = 0; a < NUMBER_OF_CARDS; a++ )
+		{
+			for( int b = a + 1; b < NUMBER_OF_CARDS; b++ )
+			{
+				if( (available & 1L << a) != 0 && (available & 1L << b) != 0 )
+				{
+					count++;
+					expected += handMask | 1L << a | 1L << b;
+				}
+			}
+		}
+		assertEquals(count, Combinations.completions(hand, deck, 2).stream().count());
+		assertEquals(expected, Combinations.completions(hand, deck, 2).stream().parallel().sum());
+		assertEquals(expected, Combinations.completions(hand, deck, 2).stream().sum());
+
+		long[] sum = new long[1];
+		Combinations.completions(hand, deck, 2).forEachHand(pHand ->
+		{
+			assertTrue(pHand.isFull());
+			assertEquals(5, pHand.size());
+			long mask = 0;
+			for( Card card : pHand )
+			{
+				assertTrue(pHand.contains(card));
+				mask |= 1L << card.index();
+			}
+			sum[0] += mask;
+		});
+		assertEquals(expected, sum[0]);
+	}
+}
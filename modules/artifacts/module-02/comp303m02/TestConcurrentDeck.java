@@ -0,0 +1,136 @@
+package comp303m02;
+
+import static org.junit.Assert.*;
+
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+
+/**
+ * Tests for ConcurrentDeck. The stress test follows the approach of
+ * jcstress: many short rounds in which several threads are released at
+ * the same time to race on a fresh deck, after which the outcome of the
+ * round is checked. In every round, each card must have been dealt to
+ * exactly one thread.
+ */
+public class TestConcurrentDeck
+{
+	private static final int NUMBER_OF_CARDS = 52;
+	private static final int NUMBER_OF_THREADS = 8;
+	private static final int NUMBER_OF_ROUNDS = 2000;
+
+	@Test
+	public void testDrawAll()
+	{
+		ConcurrentDeck deck = new ConcurrentDeck(new SplittableRandom(0));
+		long dealt = 0;
+		for( int i = 0; i < NUMBER_OF_CARDS; i++ )
+		{
+			assertEquals(NUMBER_OF_CARDS - i, deck.size());
+			dealt |= 1L << deck.draw().index();
+		}
+		assertEquals(NUMBER_OF_CARDS, Long.bitCount(dealt));
+		assertTrue(deck.isEmpty());
+		assertNull(deck.tryDraw());
+		assertEquals(0, deck.drawBatch(5).length);
+		assertEquals(0, deck.size());
+	}
+
+	@Test
+	public void testDrawEmpty()
+	{
+		ConcurrentDeck deck = new ConcurrentDeck();
+		deck.drawBatch(NUMBER_OF_CARDS);
+		try
+		{
+			deck.draw();
+			fail();
+		}
+		catch( NoSuchElementException e )
+		{
+			// Expected
+		}
+	}
+
+	@Test
+	public void testDrawBatch()
+	{
+		ConcurrentDeck deck = new ConcurrentDeck();
+		assertEquals(50, deck.drawBatch(50).length);
+		assertEquals(2, deck.drawBatch(5).length);
+		assertTrue(deck.isEmpty());
+	}
+
+	@Test
+	public void testSameOrderAsDeck()
+	{
+		Deck deck = new Deck(new SplittableRandom(0));
+		deck.shuffle();
+		ConcurrentDeck concurrentDeck = new ConcurrentDeck(deck);
+		while( !deck.isEmpty() )
+		{
+			assertSame(deck.draw(), concurrentDeck.draw());
+		}
+		assertTrue(concurrentDeck.isEmpty());
+	}
+
+	@Test
+	public void testConcurrentDraws() throws InterruptedException
+	{
+		for( int round = 0; round < NUMBER_OF_ROUNDS; round++ )
+		{
+			ConcurrentDeck deck = new ConcurrentDeck(new SplittableRandom(round));
+			long[] dealt = new long[NUMBER_OF_THREADS];
+			int[] counts = new int[NUMBER_OF_THREADS];
+			CountDownLatch start = new CountDownLatch(1);
+			Thread[] threads = new Thread[NUMBER_OF_THREADS];
+			for( int i = 0; i < NUMBER_OF_THREADS; i++ )
+			{
+				int thread = i;
+				threads[i] = new Thread(() ->
+				{
+					try
+					{
+						start.await();
+					}
+					catch( InterruptedException e )
+					{
+						return;
+					}
+					while( !deck.isEmpty() )
+					{
+						// Alternate between single draws and batches to mix both paths.
+						Card[] cards = thread % 2 == 0 ? new Card[] { deck.tryDraw() } : deck.drawBatch(3);
+						for( Card card : cards )
+						{
+							if( card != null )
+							{
+								dealt[thread] |= 1L << card.index();
+								counts[thread]++;
+							}
+						}
+					}
+				});
+				threads[i].start();
+			}
+			start.countDown();
+			for( Thread thread : threads )
+			{
+				thread.join();
+			}
+
+			long all = 0;
+			int total = 0;
+			for( int i = 0; i < NUMBER_OF_THREADS; i++ )
+			{
+				assertEquals("Card dealt twice in round " + round, 0, all & dealt[i]);
+				all |= dealt[i];
+				total += counts[i];
+			}
+			assertEquals("Card dealt twice in round " + round, NUMBER_OF_CARDS, total);
+			assertEquals("Card lost in round " + round, NUMBER_OF_CARDS, Long.bitCount(all));
+		}
+	}
+}
@@ -0,0 +1,164 @@
+package comp303m02;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+/**
+ * Tests for DealJournal. Deals are appended in small segments, over
+ * two sessions, and replayed into decks and hands. A damaged record
+ * is skipped by the replay.
+ */
+public class TestDealJournal
+{
+	private static final int NUMBER_OF_DEALS = 1000;
+	private static final int RECORDS_PER_SEGMENT = 64;
+	private static final int RECORDS_PER_COMMIT = 10;
+
+	@Test
+	public void testAppendAndReplay() throws IOException
+	{
+		Path directory = Files.createTempDirectory("journal");
+		try
+		{
+			Deck[] decks = new Deck[NUMBER_OF_DEALS];
+			SplittableRandom random = new SplittableRandom(0);
+			for( int session = 0; session < 2; session++ )
+			{
+				try( DealJournal journal = new DealJournal(directory, RECORDS_PER_SEGMENT, RECORDS_PER_COMMIT) )
+				{
+					for( int i = session * NUMBER_OF_DEALS / 2; i < (session + 1) * NUMBER_OF_DEALS / 2; i++ )
+					{
+						decks[i] = new Deck(random.split());
+						decks[i].shuffle();
+						for( int drawn = i % 53; drawn > 0; drawn-- )
+						{
+							decks[i].draw();
+						}
+						journal.append(i * 1000L, i % 7, decks[i]);
+					}
+				}
+			}
+
+			DealJournal.Replay replay = DealJournal.replay(directory);
+			Deck deck = new Deck();
+			for( int i = 0; i < NUMBER_OF_DEALS; i++ )
+			{
+				assertTrue(replay.next());
+				assertEquals(i * 1000L, replay.getTimestamp());
+				assertEquals(i % 7, replay.getTableId());
+				assertEquals(i % 53, replay.getDrawCount());
+				replay.restore(deck);
+				assertArrayEquals(decks[i].cardCodes(), deck.cardCodes());
+			}
+			assertFalse(replay.next());
+		}
+		finally
+		{
+			delete(directory);
+		}
+	}
+
+	@Test
+	public void testDeal() throws IOException
+	{
+		Path directory = Files.createTempDirectory("journal");
+		try
+		{
+			Deck deck = new Deck(new SplittableRandom(1));
+			deck.shuffle();
+			Hand first = new Hand(2);
+			Hand second = new Hand(2);
+			first.add(deck.draw());
+			second.add(deck.draw());
+			first.add(deck.draw());
+			second.add(deck.draw());
+			try( DealJournal journal = new DealJournal(directory) )
+			{
+				journal.append(1, deck);
+			}
+
+			DealJournal.Replay replay = DealJournal.replay(directory);
+			assertTrue(replay.next());
+			Hand replayedFirst = new Hand(2);
+			Hand replayedSecond = new Hand(2);
+			replay.deal(replayedFirst, 0, 4, 2);
+			replay.deal(replayedSecond, 1, 4, 2);
+			assertArrayEquals(first.cardCodes(), replayedFirst.cardCodes());
+			assertArrayEquals(second.cardCodes(), replayedSecond.cardCodes());
+			assertFalse(replay.next());
+		}
+		finally
+		{
+			delete(directory);
+		}
+	}
+
+	@Test
+	public void testCorruptRecord() throws IOException
+	{
+		Path directory = Files.createTempDirectory("journal");
+		try
+		{
+			Deck deck = new Deck(new SplittableRandom(2));
+			try( DealJournal journal = new DealJournal(directory, RECORDS_PER_SEGMENT, RECORDS_PER_COMMIT) )
+			{
+				for( int i = 0; i < 3; i++ )
+				{
+					deck.shuffle();
+					journal.append(i, i, deck);
+				}
+			}
+			Path segment;
+			try( Stream<Path> files = Files.list(directory) )
+			{
+				segment = files.findFirst().get();
+			}
+			assertEquals(0, Files.size(segment) % 4096);
+			// Flips a bit of the last byte of the second record
+			try( FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE) )
+			{
+				ByteBuffer last = ByteBuffer.allocate(1);
+				long position = 2L * DealJournal.RECORD_SIZE - 1;
+				channel.read(last, position);
+				last.put(0, (byte) (last.get(0) ^ 1));
+				last.rewind();
+				channel.write(last, position);
+			}
+
+			DealJournal.Replay replay = DealJournal.replay(directory);
+			assertTrue(replay.next());
+			assertEquals(0, replay.getTableId());
+			assertEquals(0, replay.getSkipped());
+			assertTrue(replay.next());
+			assertEquals(2, replay.getTableId());
+			assertEquals(1, replay.getSkipped());
+			assertFalse(replay.next());
+		}
+		finally
+		{
+			delete(directory);
+		}
+	}
+
+	private static void delete(Path pDirectory) throws IOException
+	{
+		try( Stream<Path> files = Files.walk(pDirectory) )
+		{
+			for( Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator )
+			{
+				Files.delete(file);
+			}
+		}
+	}
+}
@@ -0,0 +1,99 @@
+package comp303m02;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.Test;
+
+import comp303m02.Card.Rank;
+import comp303m02.Card.Suit;
+
+public class TestDealLogWriter
+{
+	/*
+	 * The expected line of pCards: the text of each card, separated by ", ".
+	 */
+	private static String line(Iterable<Card> pCards)
+	{
+		List<String> cards = new ArrayList<>();
+		for( Card card : pCards )
+		{
+			cards.add(card.toString());
+		}
+		return String.join(", ", cards) + "\n";
+	}
+
+	private static String written(ByteBuffer pBuffer)
+	{
+		pBuffer.flip();
+		return StandardCharsets.UTF_8.decode(pBuffer).toString();
+	}
+
+	@Test
+	public void testWriteDeck()
+	{
+		Deck deck = new Deck();
+		deck.shuffle(303);
+		for( int i = 0; i < 10; i++ )
+		{
+			deck.draw();
+		}
+		ByteBuffer buffer = ByteBuffer.allocate(4096);
+		DealLogWriter.write(deck, buffer);
+		assertEquals(line(deck), written(buffer));
+	}
+
+	@Test
+	public void testWriteHand()
+	{
+		Hand hand = new Hand(3);
+		hand.add(Card.get(Rank.KING, Suit.HEARTS));
+		hand.add(Card.get(Rank.ACE, Suit.CLUBS));
+		hand.add(Card.get(Rank.TEN, Suit.SPADES));
+		ByteBuffer buffer = ByteBuffer.allocate(256);
+		DealLogWriter.write(hand, buffer);
+		assertEquals(line(hand), written(buffer));
+		assertEquals(Card.get(Rank.ACE, Suit.CLUBS) + ", " + Card.get(Rank.TEN, Suit.SPADES) + ", "
+				+ Card.get(Rank.KING, Suit.HEARTS) + "\n", line(hand));
+	}
+
+	@Test
+	public void testWriteEmpty()
+	{
+		ByteBuffer buffer = ByteBuffer.allocate(16);
+		DealLogWriter.write(new Deck(), buffer);
+		DealLogWriter.write(new Hand(5), buffer);
+		assertEquals("\n\n", written(buffer));
+	}
+
+	@Test
+	public void testLog() throws Exception
+	{
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		// A small buffer, so that the writer flushes while logging
+		DealLogWriter writer = new DealLogWriter(Channels.newChannel(output), 1);
+		Deck deck = new Deck(new SplittableRandom(1));
+		StringBuilder expected = new StringBuilder();
+		for( int i = 0; i < 20; i++ )
+		{
+			deck.shuffle();
+			Hand hand = new Hand(5);
+			for( int j = 0; j < 5; j++ )
+			{
+				hand.add(deck.draw());
+			}
+			writer.log(deck);
+			writer.log(hand);
+			expected.append(line(deck)).append(line(hand));
+		}
+		writer.flush();
+		assertEquals(expected.toString(), output.toString(StandardCharsets.UTF_8));
+	}
+}
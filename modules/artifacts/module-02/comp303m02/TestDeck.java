@@ -0,0 +1,185 @@
+package comp303m02;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.EmptyStackException;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.Test;
+
+public class TestDeck
+{
+	private static final int NUMBER_OF_CARDS = 52;
+
+	/*
+	 * Draws all the cards of pDeck and checks that each card appears once.
+	 */
+	private static List<Card> drawAll(Deck pDeck)
+	{
+		List<Card> cards = new ArrayList<>();
+		long seen = 0;
+		while( !pDeck.isEmpty() )
+		{
+			Card card = pDeck.draw();
+			assertEquals(0, seen & 1L << card.index());
+			seen |= 1L << card.index();
+			cards.add(card);
+		}
+		assertEquals(NUMBER_OF_CARDS, cards.size());
+		return cards;
+	}
+
+	@Test
+	public void testNewDeckIsEmpty()
+	{
+		Deck deck = new Deck();
+		assertTrue(deck.isEmpty());
+		assertEquals(0, deck.size());
+		assertFalse(deck.iterator().hasNext());
+	}
+
+	@Test
+	public void testShuffleIsPermutation()
+	{
+		Deck deck = new Deck(new SplittableRandom(1));
+		for( int i = 0; i < 100; i++ )
+		{
+			deck.shuffle();
+			assertEquals(NUMBER_OF_CARDS, deck.size());
+			drawAll(deck);
+		}
+		// Shuffling puts back the cards already drawn
+		deck.shuffle();
+		deck.draw();
+		deck.shuffle();
+		assertEquals(NUMBER_OF_CARDS, deck.size());
+		drawAll(deck);
+	}
+
+	@Test
+	public void testDrawAndPeekOrder()
+	{
+		Deck deck = new Deck();
+		deck.shuffle(7);
+		int[] codes = deck.cardCodes();
+		for( int i = codes.length - 1; i >= 0; i-- )
+		{
+			Card top = deck.peek();
+			assertSame(top, deck.peek());
+			assertEquals(codes[i], top.index());
+			assertSame(top, deck.draw());
+			assertEquals(i, deck.size());
+		}
+		assertTrue(deck.isEmpty());
+	}
+
+	@Test
+	public void testShuffleWithSeedIsReproducible()
+	{
+		Deck deck1 = new Deck(new SplittableRandom(1));
+		Deck deck2 = new Deck(new SplittableRandom(2));
+		deck1.shuffle(42);
+		deck2.shuffle();
+		deck2.draw();
+		deck2.sort();
+		deck2.shuffle(42);
+		assertEquals(drawAll(deck1), drawAll(deck2));
+		deck1.shuffle(43);
+		deck2.shuffle(42);
+		assertNotEquals(drawAll(deck1), drawAll(deck2));
+	}
+
+	@Test
+	public void testIterationOrder()
+	{
+		Deck deck = new Deck();
+		deck.shuffle(3);
+		deck.draw();
+		List<Card> cards = new ArrayList<>();
+		for( Card card : deck )
+		{
+			cards.add(card);
+		}
+		assertEquals(NUMBER_OF_CARDS - 1, cards.size());
+		assertSame(deck.peek(), cards.get(cards.size() - 1));
+	}
+
+	@Test
+	public void testForEachMatchesIterator()
+	{
+		Deck deck = new Deck();
+		deck.shuffle(11);
+		for( int i = 0; i < 5; i++ )
+		{
+			deck.draw();
+		}
+		List<Card> cards = new ArrayList<>();
+		deck.iterator().forEachRemaining(cards::add);
+		List<Card> forEachCard = new ArrayList<>();
+		deck.forEachCard(forEachCard::add);
+		List<Card> forEachCardCode = new ArrayList<>();
+		deck.forEachCardCode(pCode -> forEachCardCode.add(Card.get(pCode)));
+		assertEquals(cards, forEachCard);
+		assertEquals(cards, forEachCardCode);
+		int[] codes = deck.cardCodes();
+		assertEquals(cards.size(), codes.length);
+		for( int i = 0; i < codes.length; i++ )
+		{
+			assertEquals(cards.get(i).index(), codes[i]);
+			assertEquals(codes[i], deck.cardCodeAt(i));
+		}
+	}
+
+	@Test
+	public void testCardCodesIsCopy()
+	{
+		Deck deck = new Deck();
+		deck.shuffle(12);
+		int[] codes = deck.cardCodes();
+		int[] expected = codes.clone();
+		// Changes to the array do not affect the deck
+		codes[0] = codes[1];
+		assertArrayEquals(expected, deck.cardCodes());
+		// Later changes to the deck do not affect the array
+		codes = deck.cardCodes();
+		deck.draw();
+		deck.sort();
+		assertArrayEquals(expected, codes);
+		assertEquals(NUMBER_OF_CARDS - 1, deck.cardCodes().length);
+	}
+
+	@Test(expected = EmptyStackException.class)
+	public void testDrawEmpty()
+	{
+		new Deck().draw();
+	}
+
+	@Test(expected = EmptyStackException.class)
+	public void testPeekEmpty()
+	{
+		new Deck().peek();
+	}
+
+	@Test
+	public void testDrawEmptyKeepsDeckUsable()
+	{
+		Deck deck = new Deck();
+		deck.shuffle(5);
+		drawAll(deck);
+		try
+		{
+			deck.draw();
+			fail();
+		}
+		catch( EmptyStackException exception )
+		{
+			// Expected
+		}
+		assertEquals(0, deck.size());
+		deck.shuffle(5);
+		assertEquals(NUMBER_OF_CARDS, deck.size());
+		drawAll(deck);
+	}
+}
@@ -0,0 +1,121 @@
+package comp303m02;
+
+import static org.junit.Assert.*;
+
+import java.math.BigInteger;
+import java.util.SplittableRandom;
+
+import org.junit.Test;
+
+/**
+ * Tests for DeckCodec. Full decks are checked against the rank of their
+ * permutation computed with BigInteger, and all encodings are checked
+ * by decoding them back.
+ */
+public class TestDeckCodec
+{
+	private static final int NUMBER_OF_CARDS = 52;
+	private static final int NUMBER_OF_DECKS = 1000;
+
+	@Test
+	public void testRanks()
+	{
+		Deck deck = new Deck();
+		byte[] cards = new byte[NUMBER_OF_CARDS];
+		for( int i = 0; i < NUMBER_OF_CARDS; i++ )
+		{
+			cards[i] = (byte) i;
+		}
+		deck.restore(cards, NUMBER_OF_CARDS);
+		assertArrayEquals(new byte[DeckCodec.FULL_DECK_BYTES], DeckCodec.encode(deck));
+
+		for( int i = 0; i < NUMBER_OF_CARDS; i++ )
+		{
+			cards[i] = (byte) (NUMBER_OF_CARDS - 1 - i);
+		}
+		deck.restore(cards, NUMBER_OF_CARDS);
+		BigInteger last = factorial(NUMBER_OF_CARDS).subtract(BigInteger.ONE);
+		assertEquals(226, last.bitLength());
+		assertEquals(last, new BigInteger(1, DeckCodec.encode(deck)));
+	}
+
+	@Test
+	public void testFullDecks()
+	{
+		SplittableRandom random = new SplittableRandom(0);
+		Deck[] decks = new Deck[NUMBER_OF_DECKS];
+		for( int i = 0; i < decks.length; i++ )
+		{
+			decks[i] = new Deck(random.split());
+			decks[i].shuffle();
+			assertEquals(reference(decks[i]), new BigInteger(1, DeckCodec.encode(decks[i])));
+		}
+		byte[] bytes = DeckCodec.encodeAll(decks);
+		assertEquals(NUMBER_OF_DECKS * DeckCodec.FULL_DECK_BYTES, bytes.length);
+
+		Deck[] decoded = new Deck[NUMBER_OF_DECKS];
+		for( int i = 0; i < decoded.length; i++ )
+		{
+			decoded[i] = new Deck();
+		}
+		DeckCodec.decodeAll(bytes, decoded);
+		for( int i = 0; i < decks.length; i++ )
+		{
+			assertArrayEquals(decks[i].cardCodes(), decoded[i].cardCodes());
+		}
+	}
+
+	@Test
+	public void testPartialDecks()
+	{
+		Deck deck = new Deck(new SplittableRandom(0));
+		Deck decoded = new Deck();
+		for( int drawn = 0; drawn <= NUMBER_OF_CARDS; drawn++ )
+		{
+			deck.shuffle();
+			for( int i = 0; i < drawn; i++ )
+			{
+				deck.draw();
+			}
+			byte[] bytes = DeckCodec.encodePartial(deck);
+			assertEquals(DeckCodec.partialDeckBytes(deck.size()), bytes.length);
+			assertEquals(bytes.length, DeckCodec.decodePartial(bytes, 0, decoded));
+			assertArrayEquals(deck.cardCodes(), decoded.cardCodes());
+			decoded.shuffle(); // Checks that the decoded deck still holds all the cards
+			assertEquals(NUMBER_OF_CARDS, decoded.size());
+		}
+	}
+
+	/*
+	 * The rank of the permutation of pDeck, computed from
+	 * its Lehmer code with factorials.
+	 */
+	private static BigInteger reference(Deck pDeck)
+	{
+		BigInteger rank = BigInteger.ZERO;
+		int[] cards = pDeck.cardCodes();
+		for( int i = 0; i < cards.length; i++ )
+		{
+			int smaller = 0;
+			for( int j = i + 1; j < cards.length; j++ )
+			{
+				if( cards[j] < cards[i] )
+				{
+					smaller++;
+				}
+			}
+			rank = rank.add(factorial(cards.length - 1 - i).multiply(BigInteger.valueOf(smaller)));
+		}
+		return rank;
+	}
+
+	private static BigInteger factorial(int pNumber)
+	{
+		BigInteger result = BigInteger.ONE;
+		for( int i = 2; i <= pNumber; i++ )
+		{
+			result = result.multiply(BigInteger.valueOf(i));
+		}
+		return result;
+	}
+}
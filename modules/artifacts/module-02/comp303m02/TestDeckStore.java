@@ -0,0 +1,248 @@
+package comp303m02;
+
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.EmptyStackException;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.Test;
+
+/**
+ * Tests for DeckStore. The decks of a store must deal the same cards as
+ * Deck objects shuffled with the same seeds, and the games must not
+ * interfere with each other.
+ */
+public class TestDeckStore
+{
+	private static final int GAMES = 1000;
+
+	@Test
+	public void testNewDecks()
+	{
+		DeckStore store = new DeckStore(GAMES);
+		assertEquals(GAMES, store.games());
+		assertEquals(GAMES * 64L, store.byteSize());
+		for( int game = 0; game < GAMES; game++ )
+		{
+			assertTrue(store.isEmpty(game));
+		}
+		store.shuffle(7, 3);
+		Deck expected = new Deck();
+		expected.shuffle(3);
+		assertArrayEquals(expected.cardCodes(), store.toDeck(7).cardCodes());
+	}
+
+	@Test
+	public void testSameAsDeck()
+	{
+		DeckStore store = new DeckStore(GAMES);
+		Deck[] decks = new Deck[GAMES];
+		for( int game = 0; game < GAMES; game++ )
+		{
+			store.shuffle(game, game);
+			decks[game] = new Deck();
+			decks[game].shuffle(game);
+		}
+		// Interleave the games, so that a game that changed another would be noticed
+		for( int card = 0; card < 52; card++ )
+		{
+			for( int game = 0; game < GAMES; game++ )
+			{
+				assertEquals(decks[game].size(), store.size(game));
+				assertEquals(decks[game].peek().index(), store.peek(game));
+				assertEquals(decks[game].draw().index(), store.draw(game));
+			}
+		}
+		for( int game = 0; game < GAMES; game++ )
+		{
+			assertTrue(store.isEmpty(game));
+		}
+	}
+
+	@Test
+	public void testRandomShuffle()
+	{
+		DeckStore store = new DeckStore(2);
+		store.shuffle(1, new SplittableRandom(5));
+		Deck deck = new Deck(new SplittableRandom(5));
+		deck.shuffle();
+		assertArrayEquals(deck.cardCodes(), store.toDeck(1).cardCodes());
+		assertTrue(store.isEmpty(0));
+	}
+
+	@Test
+	public void testPut()
+	{
+		DeckStore store = new DeckStore(3);
+		Deck deck = new Deck();
+		deck.shuffle(11);
+		deck.draw();
+		deck.draw();
+		store.put(2, deck);
+		assertEquals(50, store.size(2));
+		assertArrayEquals(deck.cardCodes(), store.toDeck(2).cardCodes());
+		// The cards already drawn must be kept for the next shuffle
+		Deck copy = store.toDeck(2);
+		for( int i = 0; i < 52; i++ )
+		{
+			assertEquals(deck.permutationAt(i), copy.permutationAt(i));
+		}
+		store.reset(2);
+		assertTrue(store.isEmpty(2));
+	}
+
+	@Test
+	public void testView()
+	{
+		DeckStore store = new DeckStore(4);
+		DeckStore.DeckView view = store.view(3);
+		assertEquals(3, view.getGame());
+		assertTrue(view.isEmpty());
+		view.shuffle(13);
+		Deck deck = new Deck();
+		deck.shuffle(13);
+		assertEquals(52, view.size());
+		assertEquals(deck.peek(), view.peek());
+		assertEquals(deck.draw(), view.draw());
+		assertEquals(51, store.size(3));
+		assertArrayEquals(deck.cardCodes(), view.cardCodes());
+
+		List<Card> cards = new ArrayList<>();
+		for( Card card : view )
+		{
+			cards.add(card);
+		}
+		List<Card> expected = new ArrayList<>();
+		deck.forEachCard(expected::add);
+		assertEquals(expected, cards);
+
+		view.sort();
+		deck.sort();
+		assertArrayEquals(deck.cardCodes(), view.cardCodes());
+		assertArrayEquals(deck.cardCodes(), view.toDeck().cardCodes());
+		assertArrayEquals(deck.cardCodes(), store.view(3).cardCodes());
+		view.reset();
+		assertTrue(store.isEmpty(3));
+	}
+
+	@Test
+	public void testDrawEmpty()
+	{
+		DeckStore store = new DeckStore(2);
+		try
+		{
+			store.draw(1);
+			fail();
+		}
+		catch( EmptyStackException exception )
+		{
+			assertEquals(0, store.size(1));
+		}
+		try
+		{
+			store.view(1).peek();
+			fail();
+		}
+		catch( EmptyStackException exception )
+		{
+			// Expected
+		}
+	}
+
+	@Test
+	public void testViewAsCardDeck()
+	{
+		DeckStore store = new DeckStore(2);
+		CardDeck view = store.view(1);
+		Deck deck = new Deck();
+		new ShuffleStream(17).shuffle(view);
+		new ShuffleStream(17).shuffle(deck);
+		for( int i = 0; i < 10; i++ )
+		{
+			assertSame(deck.draw(), view.draw());
+		}
+		assertArrayEquals(deck.cardCodes(), view.cardCodes());
+		assertArrayEquals(DeckCodec.encodePartial(deck), DeckCodec.encodePartial(view));
+		ByteBuffer expected = ByteBuffer.allocate(4096);
+		ByteBuffer actual = ByteBuffer.allocate(4096);
+		DealLogWriter.write(deck, expected);
+		DealLogWriter.write(view, actual);
+		assertEquals(expected.flip(), actual.flip());
+		assertEquals(new ConcurrentDeck(deck).draw(), new ConcurrentDeck(view).draw());
+		assertEquals(Combinations.completions(new Hand(2), deck, 1).estimateSize(),
+				Combinations.completions(new Hand(2), view, 1).estimateSize());
+		assertTrue(store.isEmpty(0));
+	}
+
+	@Test
+	public void testThreads() throws Exception
+	{
+		DeckStore store = new DeckStore(GAMES);
+		Thread[] threads = new Thread[4];
+		for( int t = 0; t < threads.length; t++ )
+		{
+			int first = t;
+			threads[t] = new Thread(() ->
+			{
+				for( int game = first; game < GAMES; game += threads.length )
+				{
+					store.shuffle(game, game);
+					for( int i = 0; i < game % 52; i++ )
+					{
+						store.draw(game);
+					}
+				}
+			});
+			threads[t].start();
+		}
+		for( Thread thread : threads )
+		{
+			thread.join();
+		}
+		for( int game = 0; game < GAMES; game++ )
+		{
+			Deck deck = new Deck();
+			deck.shuffle(game);
+			for( int i = 0; i < game % 52; i++ )
+			{
+				deck.draw();
+			}
+			assertArrayEquals(deck.cardCodes(), store.toDeck(game).cardCodes());
+		}
+	}
+
+	@Test
+	public void testViewForEachMatchesIterator()
+	{
+		DeckStore store = new DeckStore(3);
+		DeckStore.DeckView view = store.view(2);
+		view.shuffle(21);
+		for( int i = 0; i < 7; i++ )
+		{
+			view.draw();
+		}
+		List<Card> cards = new ArrayList<>();
+		view.iterator().forEachRemaining(cards::add);
+		List<Card> forEachCard = new ArrayList<>();
+		view.forEachCard(forEachCard::add);
+		List<Card> forEachCardCode = new ArrayList<>();
+		view.forEachCardCode(pCode -> forEachCardCode.add(Card.get(pCode)));
+		assertEquals(cards, forEachCard);
+		assertEquals(cards, forEachCardCode);
+		int[] codes = view.cardCodes();
+		assertEquals(cards.size(), codes.length);
+		for( int i = 0; i < codes.length; i++ )
+		{
+			assertEquals(cards.get(i).index(), codes[i]);
+		}
+		// The array is a copy of the stored deck
+		codes[0] = codes[1];
+		assertEquals(cards.get(0).index(), store.view(2).cardCodes()[0]);
+		codes = view.cardCodes();
+		view.draw();
+		assertEquals(cards.size(), codes.length);
+	}
+}
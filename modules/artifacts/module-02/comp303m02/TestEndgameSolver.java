@@ -0,0 +1,281 @@
+package comp303m02;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import comp303m02.Card.Rank;
+import comp303m02.Card.Suit;
+
+/**
+ * Tests for EndgameSolver. The solver is checked against a plain minimax
+ * search without pruning or table on random deals, with a table large
+ * enough for the whole search, with a table of four entries, and with a
+ * table shared by several threads.
+ */
+public class TestEndgameSolver
+{
+	private static final int DEALS = 30;
+	private static final int THREADS = 4;
+
+	@Test
+	public void testSingleTrick()
+	{
+		ImmutableHand[] hands = {
+				hand(Card.get(Rank.ACE, Suit.SPADES)),
+				hand(Card.get(Rank.KING, Suit.SPADES))};
+		EndgameSolver solver = new EndgameSolver(new TranspositionTable(10));
+		assertEquals(1, solver.solve(hands, null, 0));
+		assertEquals(Card.get(Rank.ACE, Suit.SPADES), solver.getBestCard());
+		assertEquals(1, solver.solve(hands, null, 1));
+		assertEquals(Card.get(Rank.KING, Suit.SPADES), solver.getBestCard());
+	}
+
+	@Test
+	public void testTrumps()
+	{
+		ImmutableHand[] hands = {
+				hand(Card.get(Rank.ACE, Suit.SPADES), Card.get(Rank.KING, Suit.SPADES)),
+				hand(Card.get(Rank.TWO, Suit.HEARTS), Card.get(Rank.THREE, Suit.SPADES))};
+		EndgameSolver solver = new EndgameSolver(new TranspositionTable(10));
+		assertEquals(2, solver.solve(hands, null, 0));
+		assertEquals(2, solver.solve(hands, Suit.CLUBS, 0));
+		// Player 1 must follow the first spade, and then trumps the second one
+		assertEquals(1, solver.solve(hands, Suit.HEARTS, 0));
+	}
+
+	@Test
+	public void testAgainstMinimax()
+	{
+		SplittableRandom random = new SplittableRandom(20);
+		EndgameSolver solver = new EndgameSolver(new TranspositionTable(16));
+		for( int i = 0; i < DEALS; i++ )
+		{
+			int players = i % 2 == 0 ? 4 : 2;
+			ImmutableHand[] hands = deal(players, players == 4 ? 4 : 6, random);
+			Suit trump = trump(random);
+			int leader = random.nextInt(players);
+			int expected = minimax(masks(hands), trump, leader, new int[players], 0);
+			assertEquals(expected, solver.solve(hands, trump, leader));
+
+			// Leading the best card keeps the same number of tricks
+			long[] masks = masks(hands);
+			int[] trick = new int[players];
+			int best = solver.getBestCard().index();
+			assertTrue(hands[leader].contains(solver.getBestCard()));
+			masks[leader] &= ~(1L << best);
+			trick[0] = best;
+			assertEquals(expected, minimax(masks, trump, (leader + 1) % players, trick, 1));
+		}
+		assertTrue(solver.getNodes() > 0);
+		assertTrue(solver.getHitRate() > 0 && solver.getHitRate() <= 1);
+		assertTrue(solver.getNodesPerSecond() > 0);
+	}
+
+	@Test
+	public void testSmallTable()
+	{
+		SplittableRandom random = new SplittableRandom(4);
+		EndgameSolver large = new EndgameSolver(new TranspositionTable(20));
+		TranspositionTable table = new TranspositionTable(2);
+		EndgameSolver small = new EndgameSolver(table);
+		for( int i = 0; i < DEALS; i++ )
+		{
+			ImmutableHand[] hands = deal(4, 6, random);
+			Suit trump = trump(random);
+			assertEquals(large.solve(hands, trump, i % 4), small.solve(hands, trump, i % 4));
+		}
+		assertTrue(small.getReplacements() > 0);
+		assertEquals(1, table.usage(), 0);
+		assertTrue(small.getNodes() > large.getNodes());
+		small.resetStatistics();
+		assertEquals(0, small.getNodes());
+		assertEquals(0, small.getReplacements());
+		assertEquals(0, small.getHitRate(), 0);
+	}
+
+	@Test
+	public void testNewSearch()
+	{
+		SplittableRandom random = new SplittableRandom(12);
+		TranspositionTable table = new TranspositionTable(10);
+		EndgameSolver solver = new EndgameSolver(table);
+		assertEquals(0, table.usage(), 0);
+		ImmutableHand[] hands = deal(4, 5, random);
+		int tricks = solver.solve(hands, Suit.HEARTS, 0);
+		double usage = table.usage();
+		assertTrue(usage > 0);
+		// The results of the earlier search are still in the table and can be found
+		table.newSearch();
+		assertEquals(usage, table.usage(), 0);
+		long nodes = solver.getNodes();
+		assertEquals(tricks, solver.solve(hands, Suit.HEARTS, 0));
+		assertTrue(solver.getNodes() - nodes < nodes);
+		table.clear();
+		assertEquals(0, table.usage(), 0);
+	}
+
+	@Test
+	public void testSharedTable() throws Exception
+	{
+		SplittableRandom random = new SplittableRandom(8);
+		List<ImmutableHand[]> deals = new ArrayList<>();
+		int[] expected = new int[DEALS];
+		EndgameSolver solver = new EndgameSolver(new TranspositionTable(16));
+		for( int i = 0; i < DEALS; i++ )
+		{
+			deals.add(deal(4, 6, random));
+			expected[i] = solver.solve(deals.get(i), Suit.SPADES, 0);
+		}
+
+		TranspositionTable table = new TranspositionTable(12);
+		table.newSearch();
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try
+		{
+			List<Future<int[]>> futures = new ArrayList<>();
+			for( int t = 0; t < THREADS; t++ )
+			{
+				futures.add(executor.submit(() ->
+				{
+					EndgameSolver threadSolver = new EndgameSolver(table);
+					int[] tricks = new int[DEALS];
+					for( int i = 0; i < DEALS; i++ )
+					{
+						tricks[i] = threadSolver.solve(deals.get(i), Suit.SPADES, 0);
+					}
+					return tricks;
+				}));
+			}
+			for( Future<int[]> future : futures )
+			{
+				assertArrayEquals(expected, future.get());
+			}
+			assertTrue(table.usage() > 0);
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+	}
+
+	private static ImmutableHand hand(Card... pCards)
+	{
+		ImmutableHand hand = new ImmutableHand(pCards.length);
+		for( Card card : pCards )
+		{
+			hand = hand.with(card);
+		}
+		return hand;
+	}
+
+	private static ImmutableHand[] deal(int pPlayers, int pCards, SplittableRandom pRandom)
+	{
+		Deck deck = new Deck(pRandom);
+		deck.shuffle();
+		ImmutableHand[] hands = new ImmutableHand[pPlayers];
+		for( int i = 0; i < pPlayers; i++ )
+		{
+			hands[i] = new ImmutableHand(pCards);
+			for( int j = 0; j < pCards; j++ )
+			{
+				hands[i] = hands[i].with(deck.draw());
+			}
+		}
+		return hands;
+	}
+
+	private static Suit trump(SplittableRandom pRandom)
+	{
+		int suit = pRandom.nextInt(Suit.values().length + 1);
+		return suit == Suit.values().length ? null : Suit.values()[suit];
+	}
+
+	private static long[] masks(ImmutableHand[] pHands)
+	{
+		long[] masks = new long[pHands.length];
+		for( int i = 0; i < pHands.length; i++ )
+		{
+			masks[i] = pHands[i].toMask();
+		}
+		return masks;
+	}
+
+	/*
+	 * The number of tricks won by players 0 and 2 when pPlayer plays the
+	 * pPlayed-th card of a trick, found by trying every legal card.
+	 */
+	private static int minimax(long[] pHands, Suit pTrump, int pPlayer, int[] pTrick, int pPlayed)
+	{
+		int players = pHands.length;
+		if( pPlayed == players )
+		{
+			int winner = 0;
+			for( int i = 1; i < players; i++ )
+			{
+				if( beats(Card.get(pTrick[i]), Card.get(pTrick[winner]), pTrump) )
+				{
+					winner = i;
+				}
+			}
+			int player = (pPlayer + winner) % players; // pPlayer is the leader again
+			return (player % 2 == 0 ? 1 : 0) + minimax(pHands, pTrump, player, pTrick, 0);
+		}
+		long hand = pHands[pPlayer];
+		if( hand == 0 )
+		{
+			return 0;
+		}
+		long moves = hand;
+		if( pPlayed > 0 )
+		{
+			long following = 0;
+			for( long cards = hand; cards != 0; cards &= cards - 1 )
+			{
+				int card = Long.numberOfTrailingZeros(cards);
+				if( Card.get(card).getSuit() == Card.get(pTrick[0]).getSuit() )
+				{
+					following |= 1L << card;
+				}
+			}
+			if( following != 0 )
+			{
+				moves = following;
+			}
+		}
+		int best = pPlayer % 2 == 0 ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+		for( long cards = moves; cards != 0; cards &= cards - 1 )
+		{
+			int card = Long.numberOfTrailingZeros(cards);
+			pHands[pPlayer] &= ~(1L << card);
+			int saved = pTrick[pPlayed];
+			pTrick[pPlayed] = card;
+			int value = minimax(pHands, pTrump, (pPlayer + 1) % players, pTrick, pPlayed + 1);
+			pTrick[pPlayed] = saved;
+			pHands[pPlayer] |= 1L << card;
+			best = pPlayer % 2 == 0 ? Math.max(best, value) : Math.min(best, value);
+		}
+		return best;
+	}
+
+	private static boolean beats(Card pCard, Card pWinner, Suit pTrump)
+	{
+		if( pCard.getSuit() == pWinner.getSuit() )
+		{
+			return power(pCard) > power(pWinner);
+		}
+		return pCard.getSuit() == pTrump;
+	}
+
+	private static int power(Card pCard)
+	{
+		return pCard.getRank() == Rank.ACE ? Rank.values().length : pCard.getRank().ordinal();
+	}
+}
@@ -0,0 +1,84 @@
+package comp303m02;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import comp303m02.Card.Rank;
+import comp303m02.Card.Suit;
+
+public class TestEquitySimulator
+{
+	private static final long SEED = 303;
+	private static final long TRIALS = 400000;
+	// The equity of a pair of aces against one random hand, computed exactly
+	private static final double ACES_EQUITY = 0.852;
+	private static final double TOLERANCE = 0.005;
+
+	private static Hand hand(Card... pCards)
+	{
+		Hand hand = new Hand(pCards.length);
+		for( Card card : pCards )
+		{
+			hand.add(card);
+		}
+		return hand;
+	}
+
+	private static EquitySimulator.Result simulate(EquitySimulator pSimulator, int pThreads)
+	{
+		ForkJoinPool pool = new ForkJoinPool(pThreads);
+		try
+		{
+			return pSimulator.simulate(TRIALS, SEED, pool);
+		}
+		finally
+		{
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testSameResultForAnyNumberOfThreads()
+	{
+		EquitySimulator simulator = new EquitySimulator(hand(Card.get(Rank.ACE, Suit.SPADES),
+				Card.get(Rank.KING, Suit.SPADES)), new Hand(5), 3);
+		EquitySimulator.Result expected = simulate(simulator, 1);
+		for( int threads : new int[] {2, 3, 8} )
+		{
+			EquitySimulator.Result result = simulate(simulator, threads);
+			assertEquals(expected.toString(), result.toString());
+			assertEquals(expected.getEquity(), result.getEquity(), 0);
+		}
+		assertEquals(expected.toString(), simulator.simulate(TRIALS, SEED).toString());
+		assertNotEquals(expected.toString(), simulator.simulate(TRIALS, SEED + 1).toString());
+	}
+
+	@Test
+	public void testAcesAgainstRandomHand()
+	{
+		EquitySimulator simulator = new EquitySimulator(hand(Card.get(Rank.ACE, Suit.SPADES),
+				Card.get(Rank.ACE, Suit.HEARTS)), new Hand(5), 1);
+		EquitySimulator.Result result = simulate(simulator, 4);
+		assertEquals(TRIALS, result.getTrials());
+		assertEquals(ACES_EQUITY, result.getEquity(), TOLERANCE);
+		assertTrue(result.getConfidenceInterval() < TOLERANCE);
+		assertEquals(1, result.getWinRate() + result.getTieRate() + result.getLossRate(), 1e-9);
+	}
+
+	@Test
+	public void testCompleteBoard()
+	{
+		// A royal flush on the board: every player plays the board and splits the pot
+		Hand board = hand(Card.get(Rank.TEN, Suit.CLUBS), Card.get(Rank.JACK, Suit.CLUBS),
+				Card.get(Rank.QUEEN, Suit.CLUBS), Card.get(Rank.KING, Suit.CLUBS), Card.get(Rank.ACE, Suit.CLUBS));
+		EquitySimulator simulator = new EquitySimulator(hand(Card.get(Rank.TWO, Suit.SPADES),
+				Card.get(Rank.THREE, Suit.HEARTS)), board, 2);
+		EquitySimulator.Result result = simulate(simulator, 2);
+		assertEquals(1, result.getTieRate(), 0);
+		assertEquals(1.0 / 3, result.getEquity(), 1e-9);
+		assertEquals(0, result.getConfidenceInterval(), 1e-9);
+	}
+}
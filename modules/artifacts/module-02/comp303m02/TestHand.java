@@ -0,0 +1,171 @@
+package comp303m02;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.ToIntFunction;
+
+import org.junit.Test;
+
+import comp303m02.Card.Rank;
+import comp303m02.Card.Suit;
+
+public class TestHand
+{
+	private static final int HAND_SIZE = 7;
+
+	private static List<Hand> randomHands(int pNumberOfHands, long pSeed)
+	{
+		Deck deck = new Deck(new SplittableRandom(pSeed));
+		List<Hand> hands = new ArrayList<>();
+		for( int i = 0; i < pNumberOfHands; i++ )
+		{
+			deck.shuffle();
+			Hand hand = new Hand(HAND_SIZE);
+			int size = 1 + i % HAND_SIZE;
+			for( int j = 0; j < size; j++ )
+			{
+				hand.add(deck.draw());
+			}
+			hands.add(hand);
+		}
+		return hands;
+	}
+
+	@Test
+	public void testCountOf()
+	{
+		for( Hand hand : randomHands(1000, 1) )
+		{
+			int[] ranks = new int[Rank.values().length];
+			int[] suits = new int[Suit.values().length];
+			for( Card card : hand )
+			{
+				ranks[card.getRank().ordinal()]++;
+				suits[card.getSuit().ordinal()]++;
+			}
+			for( Rank rank : Rank.values() )
+			{
+				assertEquals(ranks[rank.ordinal()], hand.countOf(rank));
+			}
+			for( Suit suit : Suit.values() )
+			{
+				assertEquals(suits[suit.ordinal()], hand.countOf(suit));
+			}
+		}
+	}
+
+	@Test
+	public void testCountOfAfterRemove()
+	{
+		Hand hand = new Hand(4);
+		hand.add(Card.get(Rank.KING, Suit.CLUBS));
+		hand.add(Card.get(Rank.KING, Suit.HEARTS));
+		hand.add(Card.get(Rank.ACE, Suit.HEARTS));
+		assertEquals(2, hand.countOf(Rank.KING));
+		assertEquals(2, hand.countOf(Suit.HEARTS));
+		assertEquals(0, hand.countOf(Suit.SPADES));
+		hand.remove(Card.get(Rank.KING, Suit.HEARTS));
+		assertEquals(1, hand.countOf(Rank.KING));
+		assertEquals(1, hand.countOf(Suit.HEARTS));
+		hand.clear();
+		assertEquals(0, hand.countOf(Rank.ACE));
+	}
+
+	@Test
+	public void testSortByKey()
+	{
+		List<ToIntFunction<Hand>> keys = List.of(pHand -> pHand.countOf(Rank.ACE),
+				pHand -> -pHand.countOf(Suit.SPADES), Hand::size, pHand -> 0);
+		for( ToIntFunction<Hand> key : keys )
+		{
+			List<Hand> hands = randomHands(500, 2);
+			List<Hand> expected = new ArrayList<>(hands);
+			// List.sort is stable, like Hand.sort
+			expected.sort(Comparator.comparingInt(key));
+			Hand.sort(hands, key);
+			assertEquals(expected.size(), hands.size());
+			for( int i = 0; i < hands.size(); i++ )
+			{
+				assertSame(expected.get(i), hands.get(i));
+			}
+		}
+	}
+
+	@Test
+	public void testSortByComparator()
+	{
+		List<Hand> hands = randomHands(500, 3);
+		List<Hand> sorted = new ArrayList<>(hands);
+		sorted.sort(Hand.createByRankComparator(Rank.QUEEN));
+		for( int i = 1; i < sorted.size(); i++ )
+		{
+			assertTrue(sorted.get(i - 1).countOf(Rank.QUEEN) <= sorted.get(i).countOf(Rank.QUEEN));
+		}
+		sorted.sort(Hand.createDescendingComparator());
+		for( int i = 1; i < sorted.size(); i++ )
+		{
+			assertTrue(sorted.get(i - 1).size() >= sorted.get(i).size());
+		}
+	}
+
+	@Test
+	public void testToList()
+	{
+		for( Hand hand : randomHands(100, 4) )
+		{
+			for( Comparator<Card> comparator : List.<Comparator<Card>>of(Card.createByRankComparator(),
+					new Card.CompareBySuitFirst(), Comparator.<Card>naturalOrder().reversed()) )
+			{
+				List<Card> expected = new ArrayList<>();
+				hand.forEach(expected::add);
+				expected.sort(comparator);
+				assertEquals(expected, hand.toList(comparator));
+			}
+		}
+	}
+
+	@Test
+	public void testForEachMatchesIterator()
+	{
+		for( Hand hand : randomHands(100, 5) )
+		{
+			List<Card> cards = new ArrayList<>();
+			hand.iterator().forEachRemaining(cards::add);
+			List<Card> forEachCard = new ArrayList<>();
+			hand.forEachCard(forEachCard::add);
+			List<Card> forEachCardCode = new ArrayList<>();
+			hand.forEachCardCode(pCode -> forEachCardCode.add(Card.get(pCode)));
+			assertEquals(cards, forEachCard);
+			assertEquals(cards, forEachCardCode);
+			int[] codes = hand.cardCodes();
+			assertEquals(cards.size(), codes.length);
+			for( int i = 0; i < codes.length; i++ )
+			{
+				assertEquals(cards.get(i).index(), codes[i]);
+			}
+		}
+	}
+
+	@Test
+	public void testCardCodesIsCopy()
+	{
+		Hand hand = new Hand(3);
+		hand.add(Card.get(Rank.KING, Suit.HEARTS));
+		hand.add(Card.get(Rank.ACE, Suit.CLUBS));
+		int[] codes = hand.cardCodes();
+		int[] expected = codes.clone();
+		// Changes to the array do not affect the hand
+		codes[0] = codes[1];
+		assertArrayEquals(expected, hand.cardCodes());
+		// Later changes to the hand do not affect the array
+		codes = hand.cardCodes();
+		hand.add(Card.get(Rank.TEN, Suit.SPADES));
+		hand.remove(Card.get(Rank.ACE, Suit.CLUBS));
+		assertArrayEquals(expected, codes);
+		assertEquals(2, hand.cardCodes().length);
+	}
+}
@@ -0,0 +1,331 @@
+package comp303m02;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import comp303m02.Card.Rank;
+import comp303m02.Card.Suit;
+import comp303m02.HandEvaluator.Category;
+
+/**
+ * Tests for HandEvaluator. The evaluator is checked against a brute-force
+ * reference that sorts the ranks of five cards and counts them, on all
+ * five-card hands and on samples of six- and seven-card hands, for which
+ * the reference takes the best five-card hand. The number of seven-card
+ * hands in each category is also checked against the known totals, and the
+ * batch evaluator is checked against the evaluator on all hands of five to
+ * seven cards. The perfect hash of evaluate is checked against the
+ * evaluator that tests the categories in turn. When the jdk.incubator.vector
+ * module is present, its lanes are checked against the scalar batch evaluator.
+ */
+public class TestHandEvaluator
+{
+	private static final int NUMBER_OF_CARDS = 52;
+	private static final int SAMPLE_SIZE = 200000;
+	private static final int BATCH_SIZE = 4096;
+
+	@Test
+	public void testAllFiveCardHands()
+	{
+		long[] counts = new long[Category.values().length];
+		for( int a = 0; a < NUMBER_OF_CARDS; a++ )
+		{
+			for( int b = a + 1; b < NUMBER_OF_CARDS; b++ )
+			{
+				for( int c = b + 1; c < NUMBER_OF_CARDS; c++ )
+				{
+					for( int d = c + 1; d < NUMBER_OF_CARDS; d++ )
+					{
+						for( int e = d + 1; e < NUMBER_OF_CARDS; e++ )
+						{
+							long mask = 1L << a | 1L << b | 1L << c | 1L << d | 1L << e;
+							int score = HandEvaluator.evaluate(mask);
+							assertEquals(reference(new int[] {a, b, c, d, e}), score);
+							counts[HandEvaluator.categoryOf(score).ordinal()]++;
+						}
+					}
+				}
+			}
+		}
+		assertEquals(1302540, counts[Category.HIGH_CARD.ordinal()]);
+		assertEquals(1098240, counts[Category.PAIR.ordinal()]);
+		assertEquals(123552, counts[Category.TWO_PAIR.ordinal()]);
+		assertEquals(54912, counts[Category.THREE_OF_A_KIND.ordinal()]);
+		assertEquals(10200, counts[Category.STRAIGHT.ordinal()]);
+		assertEquals(5108, counts[Category.FLUSH.ordinal()]);
+		assertEquals(3744, counts[Category.FULL_HOUSE.ordinal()]);
+		assertEquals(624, counts[Category.FOUR_OF_A_KIND.ordinal()]);
+		assertEquals(40, counts[Category.STRAIGHT_FLUSH.ordinal()]);
+	}
+
+	@Test
+	public void testSixCardHands()
+	{
+		testRandomHands(6, new SplittableRandom(6));
+	}
+
+	@Test
+	public void testSevenCardHands()
+	{
+		testRandomHands(7, new SplittableRandom(7));
+	}
+
+	@Test
+	public void testAllSevenCardHandCategories()
+	{
+		long[] counts = new long[Category.values().length];
+		for( int a = 0; a < NUMBER_OF_CARDS; a++ )
+		{
+			for( int b = a + 1; b < NUMBER_OF_CARDS; b++ )
+			{
+				for( int c = b + 1; c < NUMBER_OF_CARDS; c++ )
+				{
+					for( int d = c + 1; d < NUMBER_OF_CARDS; d++ )
+					{
+						long mask4 = 1L << a | 1L << b | 1L << c | 1L << d;
+						for( int e = d + 1; e < NUMBER_OF_CARDS; e++ )
+						{
+							for( int f = e + 1; f < NUMBER_OF_CARDS; f++ )
+							{
+								for( int g = f + 1; g < NUMBER_OF_CARDS; g++ )
+								{
+									int score = HandEvaluator.evaluate(mask4 | 1L << e | 1L << f | 1L << g);
+									counts[score >>> 20]++;
+								}
+							}
+						}
+					}
+				}
+			}
+		}
+		assertEquals(23294460, counts[Category.HIGH_CARD.ordinal()]);
+		assertEquals(58627800, counts[Category.PAIR.ordinal()]);
+		assertEquals(31433400, counts[Category.TWO_PAIR.ordinal()]);
+		assertEquals(6461620, counts[Category.THREE_OF_A_KIND.ordinal()]);
+		assertEquals(6180020, counts[Category.STRAIGHT.ordinal()]);
+		assertEquals(4047644, counts[Category.FLUSH.ordinal()]);
+		assertEquals(3473184, counts[Category.FULL_HOUSE.ordinal()]);
+		assertEquals(224848, counts[Category.FOUR_OF_A_KIND.ordinal()]);
+		assertEquals(41584, counts[Category.STRAIGHT_FLUSH.ordinal()]);
+	}
+
+	@Test
+	public void testEvaluateWithBranches()
+	{
+		for( int cards = 5; cards <= 6; cards++ )
+		{
+			Combinations.of(cards).forEachRemaining((long pMask) ->
+					assertEquals(HandEvaluator.evaluateWithBranches(pMask), HandEvaluator.evaluate(pMask)));
+		}
+		SplittableRandom random = new SplittableRandom(303);
+		for( int i = 0; i < SAMPLE_SIZE; i++ )
+		{
+			long mask = 0;
+			while( Long.bitCount(mask) < 7 )
+			{
+				mask |= 1L << random.nextInt(NUMBER_OF_CARDS);
+			}
+			assertEquals(HandEvaluator.evaluateWithBranches(mask), HandEvaluator.evaluate(mask));
+		}
+	}
+
+	@Test
+	public void testEvaluateAll()
+	{
+		for( int cards = 5; cards <= 7; cards++ )
+		{
+			long[] masks = new long[BATCH_SIZE];
+			int[] size = new int[1];
+			Combinations.of(cards).forEachRemaining((long pMask) ->
+			{
+				masks[size[0]++] = pMask;
+				if( size[0] == BATCH_SIZE )
+				{
+					testBatch(masks);
+					size[0] = 0;
+				}
+			});
+			testBatch(Arrays.copyOf(masks, size[0]));
+		}
+	}
+
+	@Test
+	public void testVectorAgreesWithScalar()
+	{
+		Assume.assumeTrue(HandEvaluator.usesVectorApi());
+		for( int cards = 5; cards <= 7; cards++ )
+		{
+			long[] masks = new long[SAMPLE_SIZE];
+			SplittableRandom random = new SplittableRandom(cards);
+			for( int i = 0; i < masks.length; i++ )
+			{
+				while( Long.bitCount(masks[i]) < cards )
+				{
+					masks[i] |= 1L << random.nextInt(NUMBER_OF_CARDS);
+				}
+			}
+			int[] scalar = new int[masks.length];
+			int[] vector = new int[masks.length];
+			HandEvaluator.evaluateAll(masks, scalar, 0);
+			int evaluated = VectorHandEvaluator.evaluateAll(masks, vector);
+			assertTrue(evaluated > masks.length / 2);
+			assertArrayEquals(Arrays.copyOf(scalar, evaluated), Arrays.copyOf(vector, evaluated));
+		}
+	}
+
+	@Test
+	public void testEvaluateHand()
+	{
+		Hand royalFlush = new Hand(5);
+		royalFlush.add(Card.get(Rank.ACE, Suit.SPADES));
+		royalFlush.add(Card.get(Rank.KING, Suit.SPADES));
+		royalFlush.add(Card.get(Rank.QUEEN, Suit.SPADES));
+		royalFlush.add(Card.get(Rank.JACK, Suit.SPADES));
+		royalFlush.add(Card.get(Rank.TEN, Suit.SPADES));
+
+		Hand wheel = new Hand(5);
+		wheel.add(Card.get(Rank.ACE, Suit.CLUBS));
+		wheel.add(Card.get(Rank.TWO, Suit.SPADES));
+		wheel.add(Card.get(Rank.THREE, Suit.HEARTS));
+		wheel.add(Card.get(Rank.FOUR, Suit.HEARTS));
+		wheel.add(Card.get(Rank.FIVE, Suit.DIAMONDS));
+
+		assertEquals(Category.STRAIGHT_FLUSH, HandEvaluator.categoryOf(HandEvaluator.evaluate(royalFlush)));
+		assertEquals(Category.STRAIGHT, HandEvaluator.categoryOf(HandEvaluator.evaluate(wheel)));
+		assertTrue(HandEvaluator.evaluate(royalFlush) > HandEvaluator.evaluate(wheel));
+	}
+
+	private static void testRandomHands(int pSize, SplittableRandom pRandom)
+	{
+		int[] cards = new int[pSize];
+		for( int i = 0; i < SAMPLE_SIZE; i++ )
+		{
+			long mask = 0;
+			for( int j = 0; j < pSize; j++ )
+			{
+				int card;
+				do
+				{
+					card = pRandom.nextInt(NUMBER_OF_CARDS);
+				}
+				while( (mask & (1L << card)) != 0 );
+				mask |= 1L << card;
+				cards[j] = card;
+			}
+			assertEquals(bestOfFive(cards), HandEvaluator.evaluate(mask));
+		}
+	}
+
+	private static void testBatch(long[] pMasks)
+	{
+		int[] scores = new int[pMasks.length];
+		HandEvaluator.evaluateAll(pMasks, scores);
+		for( int i = 0; i < pMasks.length; i++ )
+		{
+			assertEquals(HandEvaluator.evaluate(pMasks[i]), scores[i]);
+		}
+	}
+
+	/*
+	 * The best reference score of all the five-card subsets of pCards.
+	 */
+	private static int bestOfFive(int[] pCards)
+	{
+		int best = -1;
+		int n = pCards.length;
+		for( int subset = 0; subset < 1 << n; subset++ )
+		{
+			if( Integer.bitCount(subset) != 5 )
+			{
+				continue;
+			}
+			int[] five = new int[5];
+			int k = 0;
+			for( int i = 0; i < n; i++ )
+			{
+				if( (subset & (1 << i)) != 0 )
+				{
+					five[k++] = pCards[i];
+				}
+			}
+			best = Math.max(best, reference(five));
+		}
+		return best;
+	}
+
+	/*
+	 * Brute-force score of exactly five cards, in the format of HandEvaluator.
+	 */
+	private static int reference(int[] pCards)
+	{
+		int[] counts = new int[13];
+		boolean flush = true;
+		for( int card : pCards )
+		{
+			counts[(card % 13 + 12) % 13]++; // Aces are high
+			flush = flush && card / 13 == pCards[0] / 13;
+		}
+
+		// Ranks ordered by decreasing count, then decreasing rank
+		Integer[] ranks = new Integer[13];
+		for( int i = 0; i < 13; i++ )
+		{
+			ranks[i] = 12 - i;
+		}
+		Arrays.sort(ranks, (pRank1, pRank2) -> counts[pRank2] - counts[pRank1]);
+
+		int straight = -1;
+		if( counts[ranks[0]] == 1 )
+		{
+			if( ranks[0] - ranks[4] == 4 )
+			{
+				straight = ranks[0];
+			}
+			else if( ranks[0] == 12 && ranks[1] == 3 )
+			{
+				straight = 3;
+			}
+		}
+
+		Category category;
+		if( straight >= 0 )
+		{
+			category = flush ? Category.STRAIGHT_FLUSH : Category.STRAIGHT;
+			return category.ordinal() << 20 | straight << 16;
+		}
+		if( flush )
+		{
+			category = Category.FLUSH;
+		}
+		else if( counts[ranks[0]] == 4 )
+		{
+			category = Category.FOUR_OF_A_KIND;
+		}
+		else if( counts[ranks[0]] == 3 )
+		{
+			category = counts[ranks[1]] == 2 ? Category.FULL_HOUSE : Category.THREE_OF_A_KIND;
+		}
+		else if( counts[ranks[0]] == 2 )
+		{
+			category = counts[ranks[1]] == 2 ? Category.TWO_PAIR : Category.PAIR;
+		}
+		else
+		{
+			category = Category.HIGH_CARD;
+		}
+
+		int score = 0;
+		int shift = 16;
+		for( int i = 0; i < 13 && counts[ranks[i]] > 0; i++ )
+		{
+			score |= ranks[i] << shift;
+			shift -= 4;
+		}
+		return category.ordinal() << 20 | score;
+	}
+}
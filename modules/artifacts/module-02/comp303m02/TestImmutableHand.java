@@ -0,0 +1,157 @@
+package comp303m02;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+
+import org.junit.Test;
+
+import comp303m02.Card.Rank;
+import comp303m02.Card.Suit;
+
+public class TestImmutableHand
+{
+	private static final Card ACE_OF_CLUBS = Card.get(Rank.ACE, Suit.CLUBS);
+	private static final Card TEN_OF_SPADES = Card.get(Rank.TEN, Suit.SPADES);
+	private static final Card KING_OF_HEARTS = Card.get(Rank.KING, Suit.HEARTS);
+
+	private static List<Card> cardsOf(Iterable<Card> pCards)
+	{
+		List<Card> cards = new ArrayList<>();
+		pCards.forEach(cards::add);
+		return cards;
+	}
+
+	@Test
+	public void testWithDoesNotModify()
+	{
+		ImmutableHand empty = new ImmutableHand(3);
+		ImmutableHand one = empty.with(KING_OF_HEARTS);
+		ImmutableHand two = one.with(ACE_OF_CLUBS);
+		assertTrue(empty.isEmpty());
+		assertEquals(0, empty.size());
+		assertEquals(1, one.size());
+		assertFalse(one.contains(ACE_OF_CLUBS));
+		assertEquals(2, two.size());
+		assertTrue(two.contains(ACE_OF_CLUBS));
+		assertTrue(two.contains(KING_OF_HEARTS));
+		assertFalse(two.isFull());
+		assertTrue(two.with(TEN_OF_SPADES).isFull());
+		assertFalse(two.isFull());
+	}
+
+	@Test
+	public void testWithoutDoesNotModify()
+	{
+		ImmutableHand hand = new ImmutableHand(3).with(ACE_OF_CLUBS).with(KING_OF_HEARTS);
+		ImmutableHand without = hand.without(ACE_OF_CLUBS);
+		assertEquals(2, hand.size());
+		assertTrue(hand.contains(ACE_OF_CLUBS));
+		assertEquals(1, without.size());
+		assertFalse(without.contains(ACE_OF_CLUBS));
+		assertTrue(without.contains(KING_OF_HEARTS));
+		// Removing a card that is not in the hand returns the same hand
+		assertSame(hand, hand.without(TEN_OF_SPADES));
+	}
+
+	@Test
+	public void testIterationOrder()
+	{
+		ImmutableHand hand = new ImmutableHand(3).with(KING_OF_HEARTS).with(TEN_OF_SPADES).with(ACE_OF_CLUBS);
+		assertEquals(List.of(ACE_OF_CLUBS, TEN_OF_SPADES, KING_OF_HEARTS), cardsOf(hand));
+		Iterator<Card> iterator = new ImmutableHand(1).iterator();
+		assertFalse(iterator.hasNext());
+		try
+		{
+			iterator.next();
+			fail();
+		}
+		catch( NoSuchElementException exception )
+		{
+			// Expected
+		}
+	}
+
+	@Test
+	public void testCountOf()
+	{
+		ImmutableHand hand = new ImmutableHand(4).with(KING_OF_HEARTS).with(Card.get(Rank.KING, Suit.CLUBS))
+				.with(ACE_OF_CLUBS);
+		assertEquals(2, hand.countOf(Rank.KING));
+		assertEquals(1, hand.countOf(Rank.ACE));
+		assertEquals(0, hand.countOf(Rank.TEN));
+		assertEquals(2, hand.countOf(Suit.CLUBS));
+		assertEquals(0, hand.countOf(Suit.SPADES));
+	}
+
+	@Test
+	public void testEqualsAndHashCode()
+	{
+		ImmutableHand hand1 = new ImmutableHand(3).with(ACE_OF_CLUBS).with(KING_OF_HEARTS);
+		ImmutableHand hand2 = new ImmutableHand(3).with(KING_OF_HEARTS).with(ACE_OF_CLUBS);
+		assertNotSame(hand1, hand2);
+		assertEquals(hand1, hand2);
+		assertEquals(hand1.hashCode(), hand2.hashCode());
+		assertEquals(hand1, hand1.with(TEN_OF_SPADES).without(TEN_OF_SPADES));
+		assertNotEquals(hand1, hand1.without(ACE_OF_CLUBS));
+		// The maximum number of cards is part of the value
+		assertNotEquals(hand1, new ImmutableHand(4).with(ACE_OF_CLUBS).with(KING_OF_HEARTS));
+		assertNotEquals(new ImmutableHand(3), new ImmutableHand(4));
+		assertEquals(new ImmutableHand(3), new ImmutableHand(3));
+		assertNotEquals(hand1, null);
+		assertNotEquals(hand1, hand1.toHand());
+	}
+
+	@Test
+	public void testConversions()
+	{
+		Deck deck = new Deck(new SplittableRandom(13));
+		for( int i = 0; i < 100; i++ )
+		{
+			deck.shuffle();
+			Hand hand = new Hand(7);
+			for( int j = 0; j < 1 + i % 7; j++ )
+			{
+				hand.add(deck.draw());
+			}
+			ImmutableHand immutable = hand.toImmutableHand();
+			assertEquals(hand.size(), immutable.size());
+			assertEquals(hand.isFull(), immutable.isFull());
+			assertEquals(cardsOf(hand), cardsOf(immutable));
+
+			Hand copy = immutable.toHand();
+			assertNotSame(hand, copy);
+			assertEquals(cardsOf(hand), cardsOf(copy));
+			assertEquals(hand.isFull(), copy.isFull());
+			assertEquals(immutable, copy.toImmutableHand());
+
+			// The hands are independent after the conversion
+			Card card = deck.draw();
+			if( !hand.isFull() )
+			{
+				hand.add(card);
+				assertFalse(immutable.contains(card));
+				assertFalse(copy.contains(card));
+			}
+			int size = immutable.size();
+			copy.clear();
+			assertEquals(size, immutable.size());
+			assertFalse(hand.isEmpty());
+		}
+	}
+
+	@Test
+	public void testComparators()
+	{
+		ImmutableHand small = new ImmutableHand(5).with(KING_OF_HEARTS);
+		ImmutableHand large = small.with(Card.get(Rank.KING, Suit.CLUBS)).with(ACE_OF_CLUBS);
+		assertTrue(small.compareTo(large) < 0);
+		assertTrue(Hand.<ImmutableHand>createDescendingComparator().compare(small, large) > 0);
+		assertTrue(Hand.<ImmutableHand>createByRankComparator(Rank.KING).compare(small, large) < 0);
+		assertEquals(0, Hand.<ImmutableHand>createByRankComparator(Rank.ACE).compare(small, small));
+	}
+}
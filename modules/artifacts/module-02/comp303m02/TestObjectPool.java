@@ -0,0 +1,95 @@
+package comp303m02;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import comp303m02.Card.Rank;
+import comp303m02.Card.Suit;
+
+/**
+ * Tests for ObjectPool, and for Hand.clear() and Deck.reset(),
+ * which reset the pooled hands and decks.
+ */
+public class TestObjectPool
+{
+	@Test
+	public void testClearHand()
+	{
+		Hand hand = new Hand(2);
+		hand.add(Card.get(Rank.ACE, Suit.CLUBS));
+		hand.add(Card.get(Rank.TWO, Suit.CLUBS));
+		hand.clear();
+		assertTrue(hand.isEmpty());
+		hand.add(Card.get(Rank.ACE, Suit.HEARTS));
+		hand.add(Card.get(Rank.TWO, Suit.HEARTS));
+		assertTrue(hand.isFull());
+	}
+
+	@Test
+	public void testResetDeck()
+	{
+		Deck deck = new Deck();
+		deck.shuffle(7);
+		deck.draw();
+		deck.reset();
+		assertTrue(deck.isEmpty());
+		Deck expected = new Deck();
+		expected.shuffle(7);
+		deck.shuffle(7);
+		assertArrayEquals(expected.cardCodes(), deck.cardCodes());
+	}
+
+	@Test
+	public void testReuse()
+	{
+		ObjectPool<Hand> pool = ObjectPool.ofHands(5, 2);
+		Hand hand = pool.acquire();
+		hand.add(Card.get(Rank.KING, Suit.SPADES));
+		pool.release(hand);
+		Hand reused = pool.acquire();
+		assertSame(hand, reused);
+		assertTrue(reused.isEmpty());
+		assertEquals(1, pool.getCreated());
+		assertEquals(2, pool.getAcquired());
+		assertEquals(1, pool.getReleased());
+		assertEquals(0.5, pool.getReuseRate(), 0);
+	}
+
+	@Test
+	public void testCapacity()
+	{
+		ObjectPool<Deck> pool = ObjectPool.ofDecks(2);
+		Deck[] decks = new Deck[3];
+		for( int i = 0; i < decks.length; i++ )
+		{
+			decks[i] = pool.acquire();
+			decks[i].shuffle();
+		}
+		for( Deck deck : decks )
+		{
+			pool.release(deck);
+		}
+		assertEquals(1, pool.getDiscarded());
+		assertTrue(pool.acquire().isEmpty());
+		assertTrue(pool.acquire().isEmpty());
+		assertEquals(3, pool.getCreated());
+		pool.acquire();
+		assertEquals(4, pool.getCreated());
+	}
+
+	@Test
+	public void testThreadLocal() throws Exception
+	{
+		ObjectPool<Hand> pool = ObjectPool.ofHands(5, 4);
+		Hand hand = pool.acquire();
+		pool.release(hand);
+		Hand[] other = new Hand[1];
+		Thread thread = new Thread(() -> other[0] = pool.acquire());
+		thread.start();
+		thread.join();
+		assertNotSame(hand, other[0]);
+		assertSame(hand, pool.acquire());
+		assertEquals(2, pool.getCreated());
+	}
+}
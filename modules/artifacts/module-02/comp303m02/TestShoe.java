@@ -0,0 +1,104 @@
+package comp303m02;
+
+import static org.junit.Assert.*;
+
+import java.util.SplittableRandom;
+
+import org.junit.Test;
+
+import comp303m02.Card.Rank;
+
+public class TestShoe
+{
+	private static Shoe newShoe(int pNumberOfDecks, double pPenetration)
+	{
+		return new Shoe(pNumberOfDecks, pPenetration, new SplittableRandom(303));
+	}
+
+	/*
+	 * The number of cards drawn from pShoe until the cut card is reached.
+	 */
+	private static int drawToCutCard(Shoe pShoe)
+	{
+		int drawn = 0;
+		while( !pShoe.isCutCardReached() )
+		{
+			pShoe.draw();
+			drawn++;
+		}
+		return drawn;
+	}
+
+	@Test
+	public void testNewShoe()
+	{
+		Shoe shoe = newShoe(6, 0.75);
+		assertEquals(6, shoe.getNumberOfDecks());
+		assertEquals(6 * 52, shoe.size());
+		assertFalse(shoe.isEmpty());
+		for( Rank rank : Rank.values() )
+		{
+			assertEquals(6 * 4, shoe.remaining(rank));
+		}
+		assertEquals(0, shoe.getRunningCount());
+		assertFalse(shoe.isCutCardReached());
+	}
+
+	@Test
+	public void testRemaining()
+	{
+		Shoe shoe = newShoe(2, 1);
+		int[] drawn = new int[Rank.values().length];
+		int count = 0;
+		while( !shoe.isEmpty() )
+		{
+			Card card = shoe.draw();
+			drawn[card.getRank().ordinal()]++;
+			count += Shoe.hiLo(card);
+			assertEquals(2 * 4 - drawn[card.getRank().ordinal()], shoe.remaining(card.getRank()));
+			assertEquals(count, shoe.getRunningCount());
+		}
+		for( Rank rank : Rank.values() )
+		{
+			assertEquals(0, shoe.remaining(rank));
+		}
+		// A full shoe has as many low cards as high cards
+		assertEquals(0, shoe.getRunningCount());
+		shoe.shuffle();
+		assertEquals(2 * 52, shoe.size());
+		assertEquals(2 * 4, shoe.remaining(Rank.ACE));
+		assertEquals(0, shoe.getRunningCount());
+	}
+
+	@Test
+	public void testCutCard()
+	{
+		assertEquals(78, drawToCutCard(newShoe(2, 0.75)));
+		assertEquals(104, drawToCutCard(newShoe(2, 1)));
+		Shoe shoe = newShoe(6, 0.5);
+		assertEquals(156, drawToCutCard(shoe));
+		shoe.shuffle();
+		assertFalse(shoe.isCutCardReached());
+		assertEquals(156, drawToCutCard(shoe));
+	}
+
+	@Test
+	public void testSmallPenetration()
+	{
+		// The cut card cannot be placed before the first card
+		Shoe shoe = newShoe(1, 0.001);
+		assertFalse(shoe.isCutCardReached());
+		assertEquals(1, drawToCutCard(shoe));
+		assertEquals(51, shoe.size());
+	}
+
+	@Test
+	public void testPeek()
+	{
+		Shoe shoe = newShoe(1, 1);
+		Card top = shoe.peek();
+		assertEquals(52, shoe.size());
+		assertSame(top, shoe.draw());
+		assertEquals(51, shoe.size());
+	}
+}
@@ -0,0 +1,132 @@
+package comp303m02;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+public class TestShuffleStream
+{
+	private static final long SEED = 303;
+	private static final int DEALS = 1000;
+
+	@Test
+	public void testSeedsMatchSplittableRandom()
+	{
+		ShuffleStream stream = new ShuffleStream(SEED);
+		SplittableRandom random = new SplittableRandom(SEED);
+		for( int i = 0; i < 1000; i++ )
+		{
+			assertEquals(i, stream.position());
+			assertEquals(random.nextLong(), stream.nextSeed());
+		}
+	}
+
+	@Test
+	public void testShuffleWithSeed()
+	{
+		Deck deck1 = new Deck();
+		Deck deck2 = new Deck();
+		deck1.shuffle(SEED);
+		deck2.shuffle();
+		deck2.draw();
+		deck2.shuffle(SEED);
+		assertEquals(52, deck2.size());
+		while( !deck1.isEmpty() )
+		{
+			assertSame(deck1.draw(), deck2.draw());
+		}
+	}
+
+	@Test
+	public void testSplit()
+	{
+		ShuffleStream stream = new ShuffleStream(SEED).substream(10, 5);
+		ShuffleStream first = stream.split();
+		assertEquals(2, first.remaining());
+		assertEquals(10, first.position());
+		assertEquals(3, stream.remaining());
+		assertEquals(12, stream.position());
+		assertNull(stream.substream(0, 1).split());
+
+		ShuffleStream whole = new ShuffleStream(SEED);
+		for( int i = 0; i < 10; i++ )
+		{
+			whole.nextSeed();
+		}
+		assertEquals(whole.nextSeed(), first.nextSeed());
+		assertEquals(whole.nextSeed(), first.nextSeed());
+		assertEquals(whole.nextSeed(), stream.nextSeed());
+		assertEquals(0, first.remaining());
+	}
+
+	@Test
+	public void testPiecesOnThreadsMatchSequentialStream() throws Exception
+	{
+		// Splits the deals into pieces of four to seven deals, of uneven sizes
+		List<ShuffleStream> pieces = new ArrayList<>();
+		List<ShuffleStream> toSplit = new ArrayList<>();
+		toSplit.add(new ShuffleStream(SEED).substream(0, DEALS));
+		while( !toSplit.isEmpty() )
+		{
+			ShuffleStream stream = toSplit.remove(toSplit.size() - 1);
+			ShuffleStream first = stream.remaining() > 7 ? stream.split() : null;
+			if( first == null )
+			{
+				pieces.add(stream);
+			}
+			else
+			{
+				toSplit.add(first);
+				toSplit.add(stream);
+			}
+		}
+
+		long[] seeds = new long[DEALS];
+		int[] tops = new int[DEALS];
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try
+		{
+			List<Future<?>> futures = new ArrayList<>();
+			for( ShuffleStream piece : pieces )
+			{
+				futures.add(executor.submit(() ->
+				{
+					Deck deck = new Deck();
+					ShuffleStream seedsOfPiece = piece.substream(piece.position(), piece.remaining());
+					while( piece.remaining() > 0 )
+					{
+						int position = (int) piece.position();
+						seeds[position] = seedsOfPiece.nextSeed();
+						piece.shuffle(deck);
+						tops[position] = deck.peek().index();
+					}
+				}));
+			}
+			for( Future<?> future : futures )
+			{
+				future.get();
+			}
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+
+		ShuffleStream sequential = new ShuffleStream(SEED);
+		Deck deck = new Deck();
+		for( int i = 0; i < DEALS; i++ )
+		{
+			long seed = sequential.nextSeed();
+			assertEquals(seed, seeds[i]);
+			deck.shuffle(seed);
+			assertEquals(deck.peek().index(), tops[i]);
+		}
+	}
+}
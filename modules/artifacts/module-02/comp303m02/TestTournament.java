@@ -0,0 +1,82 @@
+package comp303m02;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+
+import comp303m02.Card.Rank;
+
+/**
+ * Tests for Tournament. The wins must add up to the rounds played and must
+ * not depend on the executor, and the latencies must include the think time.
+ */
+public class TestTournament
+{
+	private static final int TABLES = 40;
+	private static final int ROUNDS = 5;
+	private static final int PLAYERS = 4;
+	private static final Duration THINK_TIME = Duration.ofMillis(1);
+
+	@Test
+	public void testResults() throws Exception
+	{
+		Tournament tournament = new Tournament(TABLES, ROUNDS, PLAYERS, THINK_TIME,
+				Hand.createByRankComparator(Rank.ACE), 1);
+		Tournament.Result single = run(tournament, Executors.newSingleThreadExecutor());
+		Tournament.Result pool = run(tournament, Executors.newFixedThreadPool(8));
+
+		long rounds = single.getTies();
+		for( int seat = 0; seat < PLAYERS; seat++ )
+		{
+			rounds += single.getWins(seat);
+			assertEquals(single.getWins(seat), pool.getWins(seat));
+		}
+		assertEquals(TABLES * ROUNDS, rounds);
+		assertEquals(TABLES * ROUNDS, pool.getRounds());
+		assertEquals(single.getTies(), pool.getTies());
+
+		Optional<ExecutorService> virtual = Tournament.newVirtualThreadExecutor();
+		if( virtual.isPresent() )
+		{
+			Tournament.Result result = run(tournament, virtual.get());
+			assertEquals(single.getWins(0), result.getWins(0));
+		}
+	}
+
+	@Test
+	public void testMeasures() throws Exception
+	{
+		Tournament tournament = new Tournament(TABLES, ROUNDS, PLAYERS, THINK_TIME,
+				Hand.createByRankComparator(Rank.KING), 2);
+		Tournament.Result result = run(tournament, Executors.newFixedThreadPool(4));
+		Duration thinking = THINK_TIME.multipliedBy(PLAYERS);
+		assertTrue(result.getRoundLatency(0).compareTo(thinking) >= 0);
+		assertTrue(result.getRoundLatency(50).compareTo(result.getRoundLatency(99)) <= 0);
+		assertTrue(result.getRoundLatency(99).compareTo(result.getRoundLatency(100)) <= 0);
+		assertTrue(result.getTablesPerSecond() > 0);
+		double load = result.getProcessCpuLoad();
+		// The load is -1 on a Java runtime that cannot measure it
+		assumeTrue(load >= 0);
+		assertTrue(load > 0);
+		// The tables wait most of the time, so four threads cannot play faster than this
+		assertTrue(result.getElapsedTime().compareTo(thinking.multipliedBy(TABLES * ROUNDS / 4)) >= 0);
+	}
+
+	private static Tournament.Result run(Tournament pTournament, ExecutorService pExecutor) throws Exception
+	{
+		try
+		{
+			return pTournament.run(pExecutor);
+		}
+		finally
+		{
+			pExecutor.shutdown();
+		}
+	}
+}
@@ -0,0 +1,359 @@
+package comp303m02;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.reflect.InvocationTargetException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import comp303m02.Card.Rank;
+
+/**
+ * Plays many tables of a simple card game at the same time, to load-test the
+ * game logic under an executor. At each round of a table, a deck is shuffled,
+ * each player is dealt a hand and thinks for a fixed time, and the player with
+ * the greatest hand according to a Hand comparator wins the round.
+ *
+ * Each table is one task of the executor, which plays all its rounds. While a
+ * player thinks, the task sleeps: with an executor that runs each task in its
+ * own virtual thread, sleeping tasks release their carrier thread, so all the
+ * tables can play at once; with a fixed pool of platform threads, at most one
+ * table per thread plays at a time. Running the same tournament with both
+ * executors shows the difference.
+ *
+ * The deals come from a ShuffleStream, round r of table t using deal
+ * t * rounds + r, so the wins do not depend on the executor or on the
+ * scheduling of the tables.
+ */
+public final class Tournament
+{
+	private static final int HAND_SIZE = 5;
+	private static final OperatingSystemMXBean OPERATING_SYSTEM = ManagementFactory.getOperatingSystemMXBean();
+	// True if OPERATING_SYSTEM measures the processor time of the process, as in the
+	// HotSpot and OpenJ9 runtimes. The module is checked first, so that a runtime
+	// without jdk.management never loads com.sun.management.
+	private static final boolean PROCESS_CPU_TIME = ModuleLayer.boot().findModule("jdk.management").isPresent()
+			&& OPERATING_SYSTEM instanceof com.sun.management.OperatingSystemMXBean;
+
+	private final int aTables;
+	private final int aRounds;
+	private final int aPlayers;
+	private final Duration aThinkTime;
+	private final Comparator<? super Hand> aComparator;
+	private final long aSeed;
+
+	/**
+	 * Creates a tournament.
+	 *
+	 * @param pTables The number of tables.
+	 * @param pRounds The number of rounds played at each table.
+	 * @param pPlayers The number of players at each table.
+	 * @param pThinkTime The time each player waits before playing a round.
+	 * @param pComparator Orders the hands, the greatest one winning the round.
+	 * @param pSeed The seed of the deals.
+	 * @pre pTables > 0 && pRounds > 0
+	 * @pre pTables * pRounds <= Integer.MAX_VALUE
+	 * @pre pPlayers > 0 && pPlayers * 5 <= 52
+	 * @pre pThinkTime != null && !pThinkTime.isNegative() && pComparator != null
+	 */
+	public Tournament(int pTables, int pRounds, int pPlayers, Duration pThinkTime,
+			Comparator<? super Hand> pComparator, long pSeed)
+	{
+		assert pTables > 0 && pRounds > 0;
+		assert (long) pTables * pRounds <= Integer.MAX_VALUE;
+		assert pPlayers > 0 && pPlayers * HAND_SIZE <= CardCode.NUMBER_OF_CODES;
+		assert pThinkTime != null && !pThinkTime.isNegative() && pComparator != null;
+		aTables = pTables;
+		aRounds = pRounds;
+		aPlayers = pPlayers;
+		aThinkTime = pThinkTime;
+		aComparator = pComparator;
+		aSeed = pSeed;
+	}
+
+	/*
+	 * Returns the processor time used by the process, in nanoseconds,
+	 * or a negative number if it cannot be measured.
+	 */
+	private static long processCpuTime()
+	{
+		if( !PROCESS_CPU_TIME )
+		{
+			return -1;
+		}
+		return ((com.sun.management.OperatingSystemMXBean) OPERATING_SYSTEM).getProcessCpuTime();
+	}
+
+	/**
+	 * @return An executor that runs each task in a new virtual thread, if the
+	 * Java runtime supports virtual threads (Java 21, or Java 19 and 20 with
+	 * preview features enabled), and nothing otherwise. The executor is looked
+	 * up at run time so that this class also compiles and runs on earlier versions.
+	 */
+	public static Optional<ExecutorService> newVirtualThreadExecutor()
+	{
+		try
+		{
+			return Optional.of((ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null));
+		}
+		catch( NoSuchMethodException | IllegalAccessException | InvocationTargetException exception )
+		{
+			return Optional.empty();
+		}
+	}
+
+	/**
+	 * Plays all the tables with pExecutor and waits for them to finish.
+	 * pExecutor is not shut down.
+	 *
+	 * @param pExecutor The executor that runs the tables.
+	 * @return The results of the tournament.
+	 * @throws InterruptedException If the current thread is interrupted while waiting.
+	 * @throws ExecutionException If a table fails.
+	 * @pre pExecutor != null
+	 */
+	public Result run(ExecutorService pExecutor) throws InterruptedException, ExecutionException
+	{
+		assert pExecutor != null;
+		Result result = new Result(aTables, aRounds, aPlayers);
+		ShuffleStream deals = new ShuffleStream(aSeed);
+		List<Callable<Void>> tables = new ArrayList<>(aTables);
+		for( int table = 0; table < aTables; table++ )
+		{
+			int first = table * aRounds;
+			ShuffleStream tableDeals = deals.substream(first, aRounds);
+			tables.add(() ->
+			{
+				play(tableDeals, result, first);
+				return null;
+			});
+		}
+		long cpuStart = processCpuTime();
+		long start = System.nanoTime();
+		List<Future<Void>> futures = pExecutor.invokeAll(tables);
+		result.aElapsedNanos = System.nanoTime() - start;
+		long cpuEnd = processCpuTime();
+		result.aCpuNanos = cpuStart < 0 || cpuEnd < 0 ? -1 : cpuEnd - cpuStart;
+		for( Future<Void> future : futures )
+		{
+			future.get();
+		}
+		Arrays.sort(result.aLatencies);
+		return result;
+	}
+
+	/*
+	 * Plays the rounds of one table and records them in pResult,
+	 * the latency of the first round at index pFirst.
+	 */
+	private void play(ShuffleStream pDeals, Result pResult, int pFirst) throws InterruptedException
+	{
+		Deck deck = new Deck();
+		Hand[] hands = new Hand[aPlayers];
+		for( int i = 0; i < aPlayers; i++ )
+		{
+			hands[i] = new Hand(HAND_SIZE);
+		}
+		long[] wins = new long[aPlayers];
+		long ties = 0;
+		for( int round = 0; round < aRounds; round++ )
+		{
+			long start = System.nanoTime();
+			pDeals.shuffle(deck);
+			for( Hand hand : hands )
+			{
+				hand.clear();
+				for( int i = 0; i < HAND_SIZE; i++ )
+				{
+					hand.add(deck.draw());
+				}
+			}
+			for( int i = 0; i < aPlayers && !aThinkTime.isZero(); i++ )
+			{
+				Thread.sleep(aThinkTime.toMillis(), aThinkTime.toNanosPart() % 1_000_000);
+			}
+			int winner = 0;
+			boolean tie = false;
+			for( int i = 1; i < aPlayers; i++ )
+			{
+				int comparison = aComparator.compare(hands[i], hands[winner]);
+				if( comparison > 0 )
+				{
+					winner = i;
+					tie = false;
+				}
+				else if( comparison == 0 )
+				{
+					tie = true;
+				}
+			}
+			if( tie )
+			{
+				ties++;
+			}
+			else
+			{
+				wins[winner]++;
+			}
+			pResult.aLatencies[pFirst + round] = System.nanoTime() - start;
+		}
+		for( int i = 0; i < aPlayers; i++ )
+		{
+			pResult.aWins.addAndGet(i, wins[i]);
+		}
+		pResult.aTies.add(ties);
+	}
+
+	/**
+	 * Runs a tournament of 10,000 tables on a pool of 200 platform threads,
+	 * then on virtual threads if they are supported, and prints the results.
+	 *
+	 * @param args Not used.
+	 * @throws Exception If the tournament fails.
+	 */
+	public static void main(String[] args) throws Exception
+	{
+		Tournament tournament = new Tournament(10_000, 10, 4, Duration.ofMillis(1),
+				Hand.createByRankComparator(Rank.ACE), 0);
+		ExecutorService platform = Executors.newFixedThreadPool(200);
+		try
+		{
+			System.out.println("200 platform threads: " + tournament.run(platform));
+		}
+		finally
+		{
+			platform.shutdown();
+		}
+		Optional<ExecutorService> virtual = newVirtualThreadExecutor();
+		if( virtual.isPresent() )
+		{
+			try
+			{
+				System.out.println("Virtual threads: " + tournament.run(virtual.get()));
+			}
+			finally
+			{
+				virtual.get().shutdown();
+			}
+		}
+		else
+		{
+			System.out.println("Virtual threads are not supported by this Java runtime.");
+		}
+	}
+
+	/**
+	 * The results of a tournament: the wins of each seat, and measures of the
+	 * throughput and latency of the executor. The latency of a round includes
+	 * the think time of its players.
+	 */
+	public static final class Result
+	{
+		private final int aTables;
+		private final long[] aLatencies; // The latency of each round, in nanoseconds
+		private final AtomicLongArray aWins;
+		private final LongAdder aTies = new LongAdder();
+		private long aElapsedNanos;
+		private long aCpuNanos; // The processor time used by the whole process, or -1
+
+		private Result(int pTables, int pRounds, int pPlayers)
+		{
+			aTables = pTables;
+			aLatencies = new long[pTables * pRounds];
+			aWins = new AtomicLongArray(pPlayers);
+		}
+
+		/**
+		 * @param pSeat The index of a player at a table.
+		 * @return The number of rounds won by the player at pSeat, over all tables.
+		 * @pre pSeat >= 0 && pSeat < the number of players
+		 */
+		public long getWins(int pSeat)
+		{
+			return aWins.get(pSeat);
+		}
+
+		/**
+		 * @return The number of rounds where several players had the greatest hand.
+		 */
+		public long getTies()
+		{
+			return aTies.sum();
+		}
+
+		/**
+		 * @return The number of rounds played.
+		 */
+		public int getRounds()
+		{
+			return aLatencies.length;
+		}
+
+		/**
+		 * @return The time taken by the tournament.
+		 */
+		public Duration getElapsedTime()
+		{
+			return Duration.ofNanos(aElapsedNanos);
+		}
+
+		/**
+		 * @return The number of tables played per second.
+		 */
+		public double getTablesPerSecond()
+		{
+			return aTables * 1e9 / aElapsedNanos;
+		}
+
+		/**
+		 * @param pPercentile A percentile, for example 50 for the median.
+		 * @return The latency of a round at pPercentile.
+		 * @pre pPercentile >= 0 && pPercentile <= 100
+		 */
+		public Duration getRoundLatency(double pPercentile)
+		{
+			assert pPercentile >= 0 && pPercentile <= 100;
+			int index = (int) Math.ceil(pPercentile / 100 * aLatencies.length) - 1;
+			return Duration.ofNanos(aLatencies[Math.max(index, 0)]);
+		}
+
+		/**
+		 * Returns the processor time used by the whole process during the
+		 * tournament, divided by the elapsed time times the number of available
+		 * processors. This counts the work of all the threads of the process,
+		 * including the garbage collector and the JIT compiler, and not only of
+		 * the threads of the executor, so it is not the utilization of the
+		 * carrier threads of virtual threads.
+		 *
+		 * @return The processor load of the process, between 0 and 1, or a negative
+		 * number if the Java runtime cannot measure the processor time of the process.
+		 */
+		public double getProcessCpuLoad()
+		{
+			if( aCpuNanos < 0 )
+			{
+				return -1;
+			}
+			return aCpuNanos / ((double) aElapsedNanos * Runtime.getRuntime().availableProcessors());
+		}
+
+		@Override
+		public String toString()
+		{
+			return String.format("%d rounds in %d ms, %.0f tables/s, round latency p50 %.3f ms p99 %.3f ms, process CPU load %.4f",
+					getRounds(), getElapsedTime().toMillis(), getTablesPerSecond(), getRoundLatency(50).toNanos() / 1e6,
+					getRoundLatency(99).toNanos() / 1e6, getProcessCpuLoad());
+		}
+	}
+}
@@ -0,0 +1,185 @@
+package comp303m02;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size table of search results, indexed by 64-bit hashes of the
+ * positions searched, which several threads can read and write at the same
+ * time without locks. It is used by EndgameSolver.
+ *
+ * Each entry is stored as two longs: the data, and the data XORed with the
+ * key. Threads write the two longs without synchronization, so a reader can
+ * see half of an entry that is being written by another thread. Such an
+ * entry does not give back the key when its two longs are XORed, and is
+ * treated as missing, so a torn entry can be lost but never misread.
+ *
+ * Entries are grouped in buckets of two. The first entry of a bucket keeps
+ * the deepest result of the current search, and the second one always
+ * receives the results that do not replace the first. Results from an
+ * earlier search (see newSearch()) are replaced first, whatever their depth.
+ * The owner of the table starts each search, not the solvers that use it,
+ * so that solvers sharing the table do not age each other's results.
+ */
+public final class TranspositionTable
+{
+	static final long MISS = -1;
+	static final int NO_CARD = 63;
+	static final int EXACT = 0;
+	static final int LOWER_BOUND = 1;
+	static final int UPPER_BOUND = 2;
+
+	private static final int MAX_BITS = 28;
+	private static final int SAMPLE_SIZE = 1024;
+
+	// Layout of the data of an entry
+	private static final int CARD_SHIFT = 0;
+	private static final int VALUE_SHIFT = 6;
+	private static final int BOUND_SHIFT = 11;
+	private static final int DEPTH_SHIFT = 13;
+	private static final int GENERATION_SHIFT = 18;
+	private static final int CARD_MASK = 0x3f;
+	private static final int VALUE_MASK = 0x1f;
+	private static final int BOUND_MASK = 0x3;
+	private static final int DEPTH_MASK = 0x1f;
+	private static final int GENERATION_MASK = 0xff;
+
+	private final long[] aEntries; // For each entry, the key XOR the data, then the data
+	private final int aBuckets;
+	private volatile int aGeneration = 1;
+
+	/**
+	 * Creates an empty table of 2^pBits entries. Each entry takes 16 bytes.
+	 *
+	 * @param pBits The base 2 logarithm of the number of entries.
+	 * @pre pBits >= 1 && pBits <= 28
+	 */
+	public TranspositionTable(int pBits)
+	{
+		assert pBits >= 1 && pBits <= MAX_BITS;
+		aEntries = new long[2 << pBits];
+		aBuckets = 1 << pBits - 1;
+	}
+
+	/**
+	 * @return The number of entries of this table.
+	 */
+	public int capacity()
+	{
+		return aBuckets * 2;
+	}
+
+	/**
+	 * Marks the results already in the table as coming from an earlier search,
+	 * so that they are replaced before the results of the new search. They can
+	 * still be found until they are replaced. The owner of the table calls this
+	 * method once before each search, for example once per move at the root of
+	 * a game, and not once per call to EndgameSolver.solve, so that solvers that
+	 * share the table in other threads keep their results current.
+	 */
+	public void newSearch()
+	{
+		aGeneration = aGeneration % GENERATION_MASK + 1;
+	}
+
+	/**
+	 * Removes all the results from the table.
+	 * @pre No other thread is using the table.
+	 */
+	public void clear()
+	{
+		Arrays.fill(aEntries, 0);
+	}
+
+	/**
+	 * Estimates the proportion of the entries that hold a result, of any
+	 * search, from a sample of the entries. A proportion that gets close to 1
+	 * means that the table is too small for the searches that use it.
+	 *
+	 * @return A number between 0 and 1.
+	 */
+	public double usage()
+	{
+		int entries = Math.min(SAMPLE_SIZE, capacity());
+		int used = 0;
+		for( int i = 0; i < entries; i++ )
+		{
+			if( aEntries[2 * i + 1] != 0 )
+			{
+				used++;
+			}
+		}
+		return (double) used / entries;
+	}
+
+	/*
+	 * Returns the data of the entry of pKey, or MISS.
+	 */
+	long probe(long pKey)
+	{
+		int first = bucketOf(pKey) * 4;
+		for( int i = first; i < first + 4; i += 2 )
+		{
+			long data = aEntries[i + 1];
+			if( data != 0 && (aEntries[i] ^ data) == pKey )
+			{
+				return data;
+			}
+		}
+		return MISS;
+	}
+
+	/*
+	 * Stores a result for pKey and returns true if it replaced a result
+	 * of the current search for another position.
+	 */
+	boolean store(long pKey, int pDepth, int pBound, int pValue, int pCard)
+	{
+		assert pDepth > 0 && pDepth <= DEPTH_MASK && pValue >= 0 && pValue <= VALUE_MASK;
+		int generation = aGeneration;
+		int first = bucketOf(pKey) * 4;
+		long preferred = aEntries[first + 1];
+		int slot = first + 2;
+		if( preferred == 0 || (aEntries[first] ^ preferred) == pKey || generationOf(preferred) != generation ||
+				pDepth >= depthOf(preferred) )
+		{
+			slot = first;
+		}
+		long old = aEntries[slot + 1];
+		boolean replaced = old != 0 && generationOf(old) == generation && (aEntries[slot] ^ old) != pKey;
+		long data = (long) pCard << CARD_SHIFT | pValue << VALUE_SHIFT | pBound << BOUND_SHIFT |
+				pDepth << DEPTH_SHIFT | (long) generation << GENERATION_SHIFT;
+		aEntries[slot] = pKey ^ data;
+		aEntries[slot + 1] = data;
+		return replaced;
+	}
+
+	static int cardOf(long pData)
+	{
+		return (int) (pData >>> CARD_SHIFT) & CARD_MASK;
+	}
+
+	static int valueOf(long pData)
+	{
+		return (int) (pData >>> VALUE_SHIFT) & VALUE_MASK;
+	}
+
+	static int boundOf(long pData)
+	{
+		return (int) (pData >>> BOUND_SHIFT) & BOUND_MASK;
+	}
+
+	static int depthOf(long pData)
+	{
+		return (int) (pData >>> DEPTH_SHIFT) & DEPTH_MASK;
+	}
+
+	private static int generationOf(long pData)
+	{
+		return (int) (pData >>> GENERATION_SHIFT) & GENERATION_MASK;
+	}
+
+	private int bucketOf(long pKey)
+	{
+		return (int) pKey & aBuckets - 1;
+	}
+}
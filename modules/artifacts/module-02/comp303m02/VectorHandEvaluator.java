@@ -0,0 +1,268 @@
+package comp303m02;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+import comp303m02.HandEvaluator.Category;
+
+/**
+ * The batch evaluator of HandEvaluator.evaluateAll on the lanes of the vectors
+ * of the jdk.incubator.vector module. Each lane holds one hand, and the steps of
+ * the scalar batch evaluator are applied to all the lanes at once: the rank
+ * counts as bit planes, flush and straight detection, table lookups with
+ * gathers, and the maximum of the scores of the categories present.
+ *
+ * The work on each vector of hands is split in small steps, which exchange their
+ * lanes through a small array instead of passing vectors. A vector passed to a
+ * method that the compiler does not inline loses its exact type, and a method
+ * with too many vector operations is not completely inlined, and in both cases
+ * the operations are no longer compiled to vector instructions.
+ *
+ * This class is only used when the module is present at run time, for example
+ * with the option --add-modules jdk.incubator.vector, and when its vectors have
+ * at least two long lanes (see HandEvaluator).
+ */
+final class VectorHandEvaluator
+{
+	private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+	// Half the size of LONGS, so that the two have the same number of lanes. There is
+	// no 32-bit shape, so with a single long lane the class is loaded but not used.
+	private static final VectorSpecies<Integer> INTS = LONGS.length() < 2 ? IntVector.SPECIES_64
+			: VectorSpecies.of(int.class, VectorShape.forBitSize(LONGS.vectorBitSize() / 2));
+	private static final int LANES = LONGS.length();
+	private static final int NUMBER_OF_RANKS = 13;
+	private static final int RANK_MASK = (1 << NUMBER_OF_RANKS) - 1;
+
+	// The offsets, in lanes, of the masks of ranks exchanged between the steps
+	private static final int RANKS = 0;
+	private static final int TWO_OR_MORE = 1;
+	private static final int THREE_OR_MORE = 2;
+	private static final int QUADS = 3;
+	private static final int FLUSH = 4;
+	private static final int OTHER_PAIRS = 5; // Without the top pair
+	private static final int PAIR_KICKERS = 6; // The ranks without the top pair
+	private static final int TWO_PAIR_KICKERS = 7; // The ranks without the two top pairs
+	private static final int TRIPS_KICKERS = 8;
+	private static final int FULL_HOUSE_PAIRS = 9;
+	private static final int QUAD_KICKERS = 10;
+	private static final int LOW_SCORE = 11; // The score of the categories up to three of a kind
+	private static final int NUMBER_OF_MASKS = 12;
+
+	// The byte tables of HandEvaluator widened to int for the gathers, and the
+	// highest bit of each mask, which replaces HandEvaluator.remove.
+	private static final int[] STRAIGHT = new int[1 << NUMBER_OF_RANKS];
+	private static final int[] TOP_CARD = new int[1 << NUMBER_OF_RANKS];
+	private static final int[] TOP_BIT = new int[1 << NUMBER_OF_RANKS];
+	private static final int[] TOP_FIVE = HandEvaluator.TOP_FIVE;
+
+	static
+	{
+		for( int mask = 0; mask <= RANK_MASK; mask++ )
+		{
+			STRAIGHT[mask] = HandEvaluator.STRAIGHT[mask];
+			TOP_CARD[mask] = HandEvaluator.TOP_CARD[mask];
+			TOP_BIT[mask] = Integer.highestOneBit(mask);
+		}
+	}
+
+	private VectorHandEvaluator()
+	{}
+
+	/**
+	 * Stores the score of pMasks[i] in pScores[i] for the masks of the whole
+	 * vectors at the start of pMasks, and returns the number of masks evaluated.
+	 * The other masks are left to the scalar evaluator.
+	 *
+	 * @param pMasks The masks of the hands to evaluate.
+	 * @param pScores The array that receives the scores.
+	 * @return The number of masks evaluated, a multiple of the number of lanes.
+	 * @pre LongVector.SPECIES_PREFERRED.length() >= 2
+	 * @pre pMasks != null && pScores != null && pScores.length >= pMasks.length
+	 * @pre each mask has between 5 and 7 cards
+	 */
+	static int evaluateAll(long[] pMasks, int[] pScores)
+	{
+		assert LANES >= 2;
+		assert pMasks != null && pScores != null && pScores.length >= pMasks.length;
+		int[] ranks = new int[NUMBER_OF_MASKS * LANES];
+		int bound = LONGS.loopBound(pMasks.length);
+		for( int i = 0; i < bound; i += LANES )
+		{
+			countRanks(pMasks, i, ranks);
+			findFlush(pMasks, i, ranks);
+			removeTopRanks(ranks);
+			scoreLow(ranks);
+			scoreHigh(ranks, pScores, i);
+		}
+		return bound;
+	}
+
+	/*
+	 * Stores in pRanks the masks of the ranks held at least once, twice, three
+	 * times, and four times in the hands of the vector of pMasks at pOffset.
+	 */
+	private static void countRanks(long[] pMasks, int pOffset, int[] pRanks)
+	{
+		LongVector masks = LongVector.fromArray(LONGS, pMasks, pOffset);
+		IntVector clubs = suit(masks, 0);
+		IntVector diamonds = suit(masks, 1);
+		IntVector spades = suit(masks, 2);
+		IntVector hearts = suit(masks, 3);
+
+		// Per-rank counts as bit planes
+		IntVector ranks = clubs.or(diamonds).or(spades).or(hearts);
+		IntVector twoOrMore = clubs.and(diamonds).or(spades.and(hearts)).or(clubs.or(diamonds).and(spades.or(hearts)));
+		IntVector threeOrMore = clubs.and(diamonds).or(spades.and(hearts)).and(clubs.and(spades).or(diamonds.and(hearts)));
+		IntVector quads = clubs.and(diamonds).and(spades).and(hearts);
+		ranks.intoArray(pRanks, RANKS * LANES);
+		twoOrMore.intoArray(pRanks, TWO_OR_MORE * LANES);
+		threeOrMore.intoArray(pRanks, THREE_OR_MORE * LANES);
+		quads.intoArray(pRanks, QUADS * LANES);
+	}
+
+	/*
+	 * Stores in pRanks the ranks of the suit with five cards or more of
+	 * the hands of the vector of pMasks at pOffset, or zero.
+	 */
+	private static void findFlush(long[] pMasks, int pOffset, int[] pRanks)
+	{
+		LongVector masks = LongVector.fromArray(LONGS, pMasks, pOffset);
+		IntVector clubs = suit(masks, 0);
+		IntVector diamonds = suit(masks, 1);
+		IntVector spades = suit(masks, 2);
+		IntVector hearts = suit(masks, 3);
+		// With at most seven cards, at most one suit has five cards or more.
+		clubs.blend(0, fiveOrMore(clubs).not())
+			.or(diamonds.blend(0, fiveOrMore(diamonds).not()))
+			.or(spades.blend(0, fiveOrMore(spades).not()))
+			.or(hearts.blend(0, fiveOrMore(hearts).not()))
+			.intoArray(pRanks, FLUSH * LANES);
+	}
+
+	/*
+	 * Stores in pRanks the masks of ranks without the highest pairs, trips,
+	 * or quads, which give the kickers of each category.
+	 */
+	private static void removeTopRanks(int[] pRanks)
+	{
+		IntVector ranks = IntVector.fromArray(INTS, pRanks, RANKS * LANES);
+		IntVector twoOrMore = IntVector.fromArray(INTS, pRanks, TWO_OR_MORE * LANES);
+		IntVector topPair = IntVector.fromArray(INTS, TOP_BIT, 0, pRanks, TWO_OR_MORE * LANES);
+		IntVector otherPairs = twoOrMore.and(topPair.not());
+		otherPairs.intoArray(pRanks, OTHER_PAIRS * LANES);
+		IntVector pairKickers = ranks.and(topPair.not());
+		pairKickers.intoArray(pRanks, PAIR_KICKERS * LANES);
+		IntVector secondPair = IntVector.fromArray(INTS, TOP_BIT, 0, pRanks, OTHER_PAIRS * LANES);
+		pairKickers.and(secondPair.not()).intoArray(pRanks, TWO_PAIR_KICKERS * LANES);
+		IntVector trips = IntVector.fromArray(INTS, TOP_BIT, 0, pRanks, THREE_OR_MORE * LANES);
+		ranks.and(trips.not()).intoArray(pRanks, TRIPS_KICKERS * LANES);
+		twoOrMore.and(trips.not()).intoArray(pRanks, FULL_HOUSE_PAIRS * LANES);
+		IntVector quad = IntVector.fromArray(INTS, TOP_BIT, 0, pRanks, QUADS * LANES);
+		ranks.and(quad.not()).intoArray(pRanks, QUAD_KICKERS * LANES);
+	}
+
+	/*
+	 * Stores in pRanks the greatest score of the categories up to three of a
+	 * kind that the hands have, as in HandEvaluator.evaluateWithoutBranches.
+	 */
+	private static void scoreLow(int[] pRanks)
+	{
+		IntVector topPair = IntVector.fromArray(INTS, TOP_CARD, 0, pRanks, TWO_OR_MORE * LANES);
+		IntVector secondPair = IntVector.fromArray(INTS, TOP_CARD, 0, pRanks, OTHER_PAIRS * LANES);
+		IntVector trips = IntVector.fromArray(INTS, TOP_CARD, 0, pRanks, THREE_OR_MORE * LANES);
+
+		IntVector score = IntVector.fromArray(INTS, TOP_FIVE, 0, pRanks, RANKS * LANES)
+				.or(category(Category.HIGH_CARD));
+		IntVector pair = topPair.lanewise(VectorOperators.LSHL, 16)
+				.or(IntVector.fromArray(INTS, TOP_FIVE, 0, pRanks, PAIR_KICKERS * LANES)
+						.lanewise(VectorOperators.LSHR, 8).lanewise(VectorOperators.LSHL, 4))
+				.or(category(Category.PAIR));
+		score = score.max(pair.blend(0, isZero(pRanks, TWO_OR_MORE)));
+		IntVector twoPair = topPair.lanewise(VectorOperators.LSHL, 16)
+				.or(secondPair.lanewise(VectorOperators.LSHL, 12))
+				.or(IntVector.fromArray(INTS, TOP_CARD, 0, pRanks, TWO_PAIR_KICKERS * LANES)
+						.lanewise(VectorOperators.LSHL, 8))
+				.or(category(Category.TWO_PAIR));
+		score = score.max(twoPair.blend(0, isZero(pRanks, OTHER_PAIRS)));
+		IntVector threeOfAKind = trips.lanewise(VectorOperators.LSHL, 16)
+				.or(IntVector.fromArray(INTS, TOP_FIVE, 0, pRanks, TRIPS_KICKERS * LANES)
+						.lanewise(VectorOperators.LSHR, 12).lanewise(VectorOperators.LSHL, 8))
+				.or(category(Category.THREE_OF_A_KIND));
+		score = score.max(threeOfAKind.blend(0, isZero(pRanks, THREE_OR_MORE)));
+		score.intoArray(pRanks, LOW_SCORE * LANES);
+	}
+
+	/*
+	 * Stores in pScores at pOffset the scores of the hands, the greatest of
+	 * the score in pRanks and of the scores of the stronger categories that
+	 * the hands have.
+	 */
+	private static void scoreHigh(int[] pRanks, int[] pScores, int pOffset)
+	{
+		IntVector straight = IntVector.fromArray(INTS, STRAIGHT, 0, pRanks, RANKS * LANES);
+		IntVector straightFlush = IntVector.fromArray(INTS, STRAIGHT, 0, pRanks, FLUSH * LANES);
+		IntVector trips = IntVector.fromArray(INTS, TOP_CARD, 0, pRanks, THREE_OR_MORE * LANES);
+		IntVector quad = IntVector.fromArray(INTS, TOP_CARD, 0, pRanks, QUADS * LANES);
+
+		IntVector score = IntVector.fromArray(INTS, pRanks, LOW_SCORE * LANES);
+		IntVector straightScore = straight.lanewise(VectorOperators.LSHL, 16).or(category(Category.STRAIGHT));
+		score = score.max(straightScore.blend(0, straight.compare(VectorOperators.LT, 0)));
+		IntVector flush = IntVector.fromArray(INTS, TOP_FIVE, 0, pRanks, FLUSH * LANES)
+				.or(category(Category.FLUSH));
+		score = score.max(flush.blend(0, isZero(pRanks, FLUSH)));
+		IntVector fullHouse = trips.lanewise(VectorOperators.LSHL, 16)
+				.or(IntVector.fromArray(INTS, TOP_CARD, 0, pRanks, FULL_HOUSE_PAIRS * LANES)
+						.lanewise(VectorOperators.LSHL, 12))
+				.or(category(Category.FULL_HOUSE));
+		score = score.max(fullHouse.blend(0, isZero(pRanks, THREE_OR_MORE).or(isZero(pRanks, FULL_HOUSE_PAIRS))));
+		IntVector fourOfAKind = quad.lanewise(VectorOperators.LSHL, 16)
+				.or(IntVector.fromArray(INTS, TOP_CARD, 0, pRanks, QUAD_KICKERS * LANES)
+						.lanewise(VectorOperators.LSHL, 12))
+				.or(category(Category.FOUR_OF_A_KIND));
+		score = score.max(fourOfAKind.blend(0, isZero(pRanks, QUADS)));
+		IntVector straightFlushScore = straightFlush.lanewise(VectorOperators.LSHL, 16)
+				.or(category(Category.STRAIGHT_FLUSH));
+		score = score.max(straightFlushScore.blend(0, straightFlush.compare(VectorOperators.LT, 0)));
+		score.intoArray(pScores, pOffset);
+	}
+
+	/*
+	 * The 13-bit masks of the ranks of suit pSuit, with the ace as the highest bit.
+	 */
+	private static IntVector suit(LongVector pMasks, int pSuit)
+	{
+		IntVector cards = ((IntVector) pMasks.lanewise(VectorOperators.LSHR, pSuit * NUMBER_OF_RANKS)
+				.convertShape(VectorOperators.L2I, INTS, 0)).and(RANK_MASK);
+		return cards.lanewise(VectorOperators.LSHR, 1).or(cards.and(1).lanewise(VectorOperators.LSHL, NUMBER_OF_RANKS - 1));
+	}
+
+	/*
+	 * The lanes where pSuit has five ranks or more, with a population
+	 * count made of bit operations.
+	 */
+	private static VectorMask<Integer> fiveOrMore(IntVector pSuit)
+	{
+		IntVector count = pSuit.sub(pSuit.lanewise(VectorOperators.LSHR, 1).and(0x5555));
+		count = count.and(0x3333).add(count.lanewise(VectorOperators.LSHR, 2).and(0x3333));
+		count = count.add(count.lanewise(VectorOperators.LSHR, 4)).and(0x0f0f);
+		count = count.add(count.lanewise(VectorOperators.LSHR, 8)).and(0x1f);
+		return count.compare(VectorOperators.GE, 5);
+	}
+
+	/*
+	 * The lanes where the mask of ranks at pMask in pRanks is zero.
+	 */
+	private static VectorMask<Integer> isZero(int[] pRanks, int pMask)
+	{
+		return IntVector.fromArray(INTS, pRanks, pMask * LANES).compare(VectorOperators.EQ, 0);
+	}
+
+	private static int category(Category pCategory)
+	{
+		return pCategory.ordinal() << HandEvaluator.CATEGORY_SHIFT;
+	}
+}
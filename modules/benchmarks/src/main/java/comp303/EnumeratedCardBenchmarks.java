@@ -0,0 +1,128 @@
+package comp303;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import comp303m02.Card;
+import comp303m02.Deck;
+import comp303m02.Hand;
+
+/**
+ * Benchmarks that compare EnumeratedCard and the collections built on
+ * EnumSet and EnumMap with comp303m02.Card, which stores its rank and
+ * suit in two fields, and the collections built on it. Each benchmark
+ * has a twin for the other representation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 10, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(1)
+@State(Scope.Thread)
+public class EnumeratedCardBenchmarks
+{
+	private static final int HAND_SIZE = 5;
+
+	private final EnumeratedDeck aEnumeratedDeck = new EnumeratedDeck(new SplittableRandom(0));
+	private final EnumeratedCard[] aEnumeratedCards = new EnumeratedCard[52];
+	private final Card[] aCards = new Card[52];
+	private final Map<EnumeratedCard, Integer> aEnumMap = new EnumMap<>(EnumeratedCard.class);
+	private final Map<Card, Integer> aHashMap = new HashMap<>();
+	private int aNext = 0;
+
+	@Setup
+	public void setUp()
+	{
+		Deck deck = new Deck(new SplittableRandom(0));
+		aEnumeratedDeck.shuffle();
+		deck.shuffle();
+		for( int i = 0; i < aCards.length; i++ )
+		{
+			aEnumeratedCards[i] = aEnumeratedDeck.draw();
+			aCards[i] = deck.draw();
+			aEnumMap.put(aEnumeratedCards[i], i);
+			aHashMap.put(aCards[i], i);
+		}
+	}
+
+	private int next()
+	{
+		aNext = (aNext + 1) % aCards.length;
+		return aNext;
+	}
+
+	@Benchmark
+	public int enumeratedCardGetRank()
+	{
+		EnumeratedCard card = aEnumeratedCards[next()];
+		return card.getRank().ordinal() + card.getSuit().ordinal();
+	}
+
+	@Benchmark
+	public int cardGetRank()
+	{
+		Card card = aCards[next()];
+		return card.getRank().ordinal() + card.getSuit().ordinal();
+	}
+
+	@Benchmark
+	public void enumeratedDeckShuffleAndDrawAll(Blackhole pBlackhole)
+	{
+		aEnumeratedDeck.shuffle();
+		while( !aEnumeratedDeck.isEmpty() )
+		{
+			pBlackhole.consume(aEnumeratedDeck.draw());
+		}
+	}
+
+	@Benchmark
+	public boolean enumeratedHandAddAndContains()
+	{
+		int next = next();
+		EnumeratedHand hand = new EnumeratedHand(HAND_SIZE);
+		for( int j = 0; j < HAND_SIZE; j++ )
+		{
+			hand.add(aEnumeratedCards[(next + j) % aEnumeratedCards.length]);
+		}
+		return hand.contains(aEnumeratedCards[(next + HAND_SIZE) % aEnumeratedCards.length]);
+	}
+
+	@Benchmark
+	public boolean handAddAndContains()
+	{
+		int next = next();
+		Hand hand = new Hand(HAND_SIZE);
+		for( int j = 0; j < HAND_SIZE; j++ )
+		{
+			hand.add(aCards[(next + j) % aCards.length]);
+		}
+		return hand.contains(aCards[(next + HAND_SIZE) % aCards.length]);
+	}
+
+	@Benchmark
+	public Integer enumMapGet()
+	{
+		return aEnumMap.get(aEnumeratedCards[next()]);
+	}
+
+	@Benchmark
+	public Integer hashMapGet()
+	{
+		return aHashMap.get(aCards[next()]);
+	}
+}
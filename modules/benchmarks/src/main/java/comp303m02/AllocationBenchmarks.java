@@ -0,0 +1,102 @@
+package comp303m02;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for a round of a simulation loop that shuffles a deck, deals
+ * five cards to four players, and evaluates their hands, when the loop
+ * creates new objects for each round, when it reuses the same objects with
+ * Deck.reset() and Hand.clear(), and when it takes them from an ObjectPool.
+ *
+ * Run them with -prof gc: gc.alloc.rate.norm is the number of bytes
+ * allocated per round, which is zero for the rounds that reuse their objects.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 10, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(1)
+@State(Scope.Thread)
+public class AllocationBenchmarks
+{
+	private static final int PLAYERS = 4;
+	private static final int HAND_SIZE = 5;
+
+	private final Hand[] aHands = new Hand[PLAYERS];
+	private final Deck aDeck = new Deck(new SplittableRandom(0));
+	private final ObjectPool<Hand> aHandPool = ObjectPool.ofHands(HAND_SIZE, PLAYERS);
+	private final ObjectPool<Deck> aDeckPool = new ObjectPool<>(() -> new Deck(new SplittableRandom(0)), Deck::reset, 1);
+	private long aSink = 0;
+
+	public AllocationBenchmarks()
+	{
+		for( int i = 0; i < PLAYERS; i++ )
+		{
+			aHands[i] = new Hand(HAND_SIZE);
+		}
+	}
+
+	@Benchmark
+	public long newObjects()
+	{
+		Deck deck = new Deck(new SplittableRandom(aSink));
+		deck.shuffle();
+		for( int i = 0; i < PLAYERS; i++ )
+		{
+			aHands[i] = new Hand(HAND_SIZE);
+			deal(deck, aHands[i]);
+		}
+		return aSink;
+	}
+
+	@Benchmark
+	public long reusedObjects()
+	{
+		aDeck.reset();
+		aDeck.shuffle();
+		for( Hand hand : aHands )
+		{
+			hand.clear();
+			deal(aDeck, hand);
+		}
+		return aSink;
+	}
+
+	@Benchmark
+	public long objectPool()
+	{
+		Deck deck = aDeckPool.acquire();
+		deck.shuffle();
+		for( int i = 0; i < PLAYERS; i++ )
+		{
+			aHands[i] = aHandPool.acquire();
+			deal(deck, aHands[i]);
+		}
+		for( Hand hand : aHands )
+		{
+			aHandPool.release(hand);
+		}
+		aDeckPool.release(deck);
+		return aSink;
+	}
+
+	private void deal(Deck pDeck, Hand pHand)
+	{
+		for( int i = 0; i < HAND_SIZE; i++ )
+		{
+			pHand.add(pDeck.draw());
+		}
+		aSink += HandEvaluator.evaluate(pHand);
+	}
+}
@@ -0,0 +1,193 @@
+package comp303m02;
+
+import java.nio.ByteBuffer;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import comp303m02.Card.Rank;
+
+/**
+ * Benchmarks for Card, Deck, and Hand. The benchmarks that take a card
+ * or a hand go through the shuffled cards and the hands in turn.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 10, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(1)
+@State(Scope.Thread)
+public class CardBenchmarks
+{
+	private static final int NUMBER_OF_HANDS = 1024;
+	private static final int HAND_SIZE = 5;
+
+	private final Deck aDeck = new Deck(new SplittableRandom(0));
+	private final Deck aDecoded = new Deck();
+	private final Comparator<Card> aByRank = Card.createByRankComparator();
+	private final Comparator<Hand> aByAces = Hand.createByRankComparator(Rank.ACE);
+	private final ByteBuffer aBuffer = ByteBuffer.allocateDirect(4096);
+	private final byte[] aEncoded = new byte[DeckCodec.FULL_DECK_BYTES];
+	private Card[] aCards;
+	private Hand[] aHands;
+	private int aNext = 0;
+
+	@Setup
+	public void setUp()
+	{
+		aCards = new Card[52];
+		aDeck.shuffle();
+		for( int i = 0; i < aCards.length; i++ )
+		{
+			aCards[i] = aDeck.draw();
+		}
+		aHands = new Hand[NUMBER_OF_HANDS];
+		for( int i = 0; i < aHands.length; i++ )
+		{
+			aDeck.shuffle();
+			aHands[i] = new Hand(HAND_SIZE);
+			while( !aHands[i].isFull() )
+			{
+				aHands[i].add(aDeck.draw());
+			}
+		}
+		aDeck.shuffle();
+		DeckCodec.encode(aDeck, aEncoded, 0);
+	}
+
+	private int next()
+	{
+		aNext = (aNext + 1) % (aCards.length * NUMBER_OF_HANDS);
+		return aNext;
+	}
+
+	private Card card(int pIndex)
+	{
+		return aCards[pIndex % aCards.length];
+	}
+
+	private Hand hand(int pIndex)
+	{
+		return aHands[pIndex % NUMBER_OF_HANDS];
+	}
+
+	@Benchmark
+	public Card deckShuffle()
+	{
+		aDeck.shuffle();
+		return aDeck.peek();
+	}
+
+	@Benchmark
+	public void deckShuffleAndDrawAll(Blackhole pBlackhole)
+	{
+		aDeck.shuffle();
+		while( !aDeck.isEmpty() )
+		{
+			pBlackhole.consume(aDeck.draw());
+		}
+	}
+
+	@Benchmark
+	public Hand handAdd()
+	{
+		int next = next();
+		Hand hand = new Hand(HAND_SIZE);
+		for( int j = 0; j < HAND_SIZE; j++ )
+		{
+			hand.add(card(next + j));
+		}
+		return hand;
+	}
+
+	@Benchmark
+	public ImmutableHand immutableHandWith()
+	{
+		int next = next();
+		ImmutableHand hand = new ImmutableHand(HAND_SIZE);
+		for( int j = 0; j < HAND_SIZE; j++ )
+		{
+			hand = hand.with(card(next + j));
+		}
+		return hand;
+	}
+
+	@Benchmark
+	public boolean handContains()
+	{
+		int next = next();
+		return hand(next).contains(card(next));
+	}
+
+	@Benchmark
+	public int handIterator()
+	{
+		int result = 0;
+		for( Card card : hand(next()) )
+		{
+			result += card.index();
+		}
+		return result;
+	}
+
+	@Benchmark
+	public void handForEachCardCode(Blackhole pBlackhole)
+	{
+		hand(next()).forEachCardCode(pBlackhole::consume);
+	}
+
+	@Benchmark
+	public int cardCompareTo()
+	{
+		int next = next();
+		return card(next).compareTo(card(next + 1));
+	}
+
+	@Benchmark
+	public int cardCreateByRankComparator()
+	{
+		int next = next();
+		return aByRank.compare(card(next), card(next + 1));
+	}
+
+	@Benchmark
+	public int handCreateByRankComparator()
+	{
+		int next = next();
+		return aByAces.compare(hand(next), hand(next + 1));
+	}
+
+	@Benchmark
+	public int dealLogWriterWriteDeck()
+	{
+		aBuffer.clear();
+		DealLogWriter.write(aDeck, aBuffer);
+		return aBuffer.position();
+	}
+
+	@Benchmark
+	public byte[] deckCodecEncode()
+	{
+		DeckCodec.encode(aDeck, aEncoded, 0);
+		return aEncoded;
+	}
+
+	@Benchmark
+	public Card deckCodecDecode()
+	{
+		DeckCodec.decode(aEncoded, 0, aDecoded);
+		return aDecoded.peek();
+	}
+}
@@ -0,0 +1,101 @@
+package comp303m02;
+
+import java.lang.ref.Reference;
+import java.util.SplittableRandom;
+
+/**
+ * Prints the heap taken by two million live decks, stored as Deck objects
+ * and in a DeckStore, and the time of a full garbage collection while they
+ * are live, then the time to shuffle each deck and draw five cards from it.
+ *
+ * As in FootprintReport, the memory is measured as the growth of the heap
+ * after garbage collection, so the results are approximate. The native
+ * memory of the DeckStore is not on the heap and is printed separately.
+ * Run with a heap of at least 1 GB.
+ */
+public final class DeckStoreReport
+{
+	private static final int GAMES = 2_000_000;
+	private static final int CARDS_PER_ROUND = 5;
+	private static final int COLLECTIONS = 5;
+
+	private DeckStoreReport()
+	{}
+
+	public static void main(String[] args)
+	{
+		long before = usedMemory();
+		Deck[] decks = new Deck[GAMES];
+		for( int i = 0; i < GAMES; i++ )
+		{
+			decks[i] = new Deck(new SplittableRandom(i));
+			decks[i].shuffle();
+		}
+		print("Deck objects", usedMemory() - before, 0);
+		System.out.printf("%-30s %8.1f ms%n", "Full GC with Deck objects", collectionTime());
+		SplittableRandom random = new SplittableRandom(0);
+		long start = System.nanoTime();
+		long sink = 0;
+		for( int i = 0; i < GAMES; i++ )
+		{
+			decks[i].shuffle();
+			for( int j = 0; j < CARDS_PER_ROUND; j++ )
+			{
+				sink += decks[i].draw().index();
+			}
+		}
+		System.out.printf("%-30s %8.1f ns per game%n", "Deck shuffle and draw", (System.nanoTime() - start) / (double) GAMES);
+		Reference.reachabilityFence(decks);
+		decks = null;
+
+		before = usedMemory();
+		DeckStore store = new DeckStore(GAMES);
+		for( int i = 0; i < GAMES; i++ )
+		{
+			store.shuffle(i, random);
+		}
+		print("DeckStore", usedMemory() - before, store.byteSize());
+		System.out.printf("%-30s %8.1f ms%n", "Full GC with DeckStore", collectionTime());
+		start = System.nanoTime();
+		for( int i = 0; i < GAMES; i++ )
+		{
+			store.shuffle(i, random);
+			for( int j = 0; j < CARDS_PER_ROUND; j++ )
+			{
+				sink += store.draw(i);
+			}
+		}
+		System.out.printf("%-30s %8.1f ns per game%n", "DeckStore shuffle and draw", (System.nanoTime() - start) / (double) GAMES);
+		Reference.reachabilityFence(store);
+		System.out.println("(sink " + sink % 10 + ")");
+	}
+
+	private static void print(String pName, long pHeapBytes, long pNativeBytes)
+	{
+		System.out.printf("%-30s %8.1f heap bytes per deck %8.1f native bytes per deck%n", pName,
+				(double) pHeapBytes / GAMES, (double) pNativeBytes / GAMES);
+	}
+
+	/*
+	 * The average time of a full garbage collection, in milliseconds.
+	 */
+	private static double collectionTime()
+	{
+		long start = System.nanoTime();
+		for( int i = 0; i < COLLECTIONS; i++ )
+		{
+			System.gc();
+		}
+		return (System.nanoTime() - start) / 1e6 / COLLECTIONS;
+	}
+
+	private static long usedMemory()
+	{
+		Runtime runtime = Runtime.getRuntime();
+		for( int i = 0; i < COLLECTIONS; i++ )
+		{
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+}
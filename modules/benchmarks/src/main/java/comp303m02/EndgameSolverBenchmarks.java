@@ -0,0 +1,73 @@
+package comp303m02;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import comp303m02.Card.Suit;
+
+/**
+ * Benchmarks for the endgame solver, on new deals of seven cards to four
+ * players, with a small and a large table. Each deal is a new search of the
+ * table. The statistics of the solver are printed at the end of each trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 10, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(1)
+@State(Scope.Thread)
+public class EndgameSolverBenchmarks
+{
+	@Param({"12", "20"})
+	private int aBits;
+
+	private final Deck aDeck = new Deck(new SplittableRandom(0));
+	private final ImmutableHand[] aHands = new ImmutableHand[4];
+	private TranspositionTable aTable;
+	private EndgameSolver aSolver;
+	private int aLeader = 0;
+
+	@Setup
+	public void setUp()
+	{
+		aTable = new TranspositionTable(aBits);
+		aSolver = new EndgameSolver(aTable);
+	}
+
+	@TearDown
+	public void tearDown()
+	{
+		System.out.printf("%nEndgameSolver with 2^%d entries: %.2fM nodes/s, hit rate %.3f, %d replacements%n",
+				aBits, aSolver.getNodesPerSecond() / 1e6, aSolver.getHitRate(), aSolver.getReplacements());
+	}
+
+	@Benchmark
+	public int solve4x7()
+	{
+		aDeck.shuffle();
+		for( int player = 0; player < aHands.length; player++ )
+		{
+			aHands[player] = new ImmutableHand(7);
+			for( int j = 0; j < 7; j++ )
+			{
+				aHands[player] = aHands[player].with(aDeck.draw());
+			}
+		}
+		aLeader = (aLeader + 1) % aHands.length;
+		aTable.newSearch();
+		return aSolver.solve(aHands, Suit.SPADES, aLeader);
+	}
+}
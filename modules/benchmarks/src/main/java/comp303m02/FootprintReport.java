@@ -0,0 +1,155 @@
+package comp303m02;
+
+import java.lang.ref.Reference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.IntFunction;
+
+/**
+ * Prints the memory taken by one million five-card hands in each of the
+ * representations of a hand: lists of Card objects, Hand, ImmutableHand,
+ * IntHand, arrays of codes (see CardCode), and a single array of masks.
+ *
+ * The memory is measured as the growth of the heap after garbage collection
+ * while the hands are created, so the results are approximate and depend on
+ * the JVM, but they show the cost of each representation. Run with a heap
+ * of at least 1 GB.
+ */
+public final class FootprintReport
+{
+	private static final int HANDS = 1_000_000;
+	private static final int HAND_SIZE = 5;
+	private static final int COLLECTIONS = 5;
+
+	private FootprintReport()
+	{}
+
+	public static void main(String[] args)
+	{
+		byte[] codes = deal();
+		report("List<Card> of new Cards", i ->
+		{
+			List<Card> hand = new ArrayList<>(HAND_SIZE);
+			for( int j = 0; j < HAND_SIZE; j++ )
+			{
+				Card card = Card.get(codes[i * HAND_SIZE + j]);
+				hand.add(new Card(card.getRank(), card.getSuit()));
+			}
+			return hand;
+		});
+		report("List<Card> of shared Cards", i ->
+		{
+			List<Card> hand = new ArrayList<>(HAND_SIZE);
+			for( int j = 0; j < HAND_SIZE; j++ )
+			{
+				hand.add(Card.get(codes[i * HAND_SIZE + j]));
+			}
+			return hand;
+		});
+		report("Hand", i ->
+		{
+			Hand hand = new Hand(HAND_SIZE);
+			for( int j = 0; j < HAND_SIZE; j++ )
+			{
+				hand.add(Card.get(codes[i * HAND_SIZE + j]));
+			}
+			return hand;
+		});
+		report("ImmutableHand", i ->
+		{
+			ImmutableHand hand = new ImmutableHand(HAND_SIZE);
+			for( int j = 0; j < HAND_SIZE; j++ )
+			{
+				hand = hand.with(Card.get(codes[i * HAND_SIZE + j]));
+			}
+			return hand;
+		});
+		report("IntHand", i ->
+		{
+			IntHand hand = new IntHand(HAND_SIZE);
+			for( int j = 0; j < HAND_SIZE; j++ )
+			{
+				hand.add(codes[i * HAND_SIZE + j]);
+			}
+			return hand;
+		});
+		report("int[] of codes", i ->
+		{
+			int[] hand = new int[HAND_SIZE];
+			for( int j = 0; j < HAND_SIZE; j++ )
+			{
+				hand[j] = codes[i * HAND_SIZE + j];
+			}
+			return hand;
+		});
+		report("byte[] of codes", i ->
+		{
+			byte[] hand = new byte[HAND_SIZE];
+			System.arraycopy(codes, i * HAND_SIZE, hand, 0, HAND_SIZE);
+			return hand;
+		});
+
+		// A single array of masks, without one object per hand
+		long before = usedMemory();
+		long[] masks = new long[HANDS];
+		for( int i = 0; i < HANDS; i++ )
+		{
+			for( int j = 0; j < HAND_SIZE; j++ )
+			{
+				masks[i] |= 1L << codes[i * HAND_SIZE + j];
+			}
+		}
+		print("long[] of masks", usedMemory() - before);
+		Reference.reachabilityFence(masks);
+	}
+
+	/*
+	 * The codes of the cards of HANDS hands, each dealt from a new deck.
+	 */
+	private static byte[] deal()
+	{
+		byte[] codes = new byte[HANDS * HAND_SIZE];
+		IntDeck deck = new IntDeck(new SplittableRandom(0));
+		for( int i = 0; i < codes.length; i++ )
+		{
+			if( i % HAND_SIZE == 0 )
+			{
+				deck.shuffle();
+			}
+			codes[i] = (byte) deck.draw();
+		}
+		return codes;
+	}
+
+	/*
+	 * Prints the memory taken by HANDS hands created by pFactory, not
+	 * counting the array that holds them.
+	 */
+	private static void report(String pName, IntFunction<Object> pFactory)
+	{
+		Object[] hands = new Object[HANDS];
+		long before = usedMemory();
+		for( int i = 0; i < HANDS; i++ )
+		{
+			hands[i] = pFactory.apply(i);
+		}
+		print(pName, usedMemory() - before);
+		Reference.reachabilityFence(hands);
+	}
+
+	private static void print(String pName, long pBytes)
+	{
+		System.out.printf("%-30s %8.1f bytes per hand %8.1f MB%n", pName, (double) pBytes / HANDS, pBytes / 1e6);
+	}
+
+	private static long usedMemory()
+	{
+		Runtime runtime = Runtime.getRuntime();
+		for( int i = 0; i < COLLECTIONS; i++ )
+		{
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+}
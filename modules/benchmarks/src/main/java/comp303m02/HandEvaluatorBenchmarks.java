@@ -0,0 +1,81 @@
+package comp303m02;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the hand evaluator, on random seven-card hands. evaluate7
+ * looks up the score with the perfect hash of the ranks, and
+ * evaluate7WithBranches tests the categories in turn. One operation of
+ * evaluateAll7 evaluates all the hands, to compare with evaluate7 times
+ * NUMBER_OF_HANDS. The batch evaluator runs on the lanes
+ * of the jdk.incubator.vector module, which is added to the forked JVM,
+ * and evaluateAll7Scalar runs the scalar batch evaluator on the same hands.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 10, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+@State(Scope.Thread)
+public class HandEvaluatorBenchmarks
+{
+	private static final int NUMBER_OF_HANDS = 1024;
+
+	private final long[] aMasks = new long[NUMBER_OF_HANDS];
+	private final int[] aScores = new int[NUMBER_OF_HANDS];
+	private int aNext = 0;
+
+	@Setup
+	public void setUp()
+	{
+		Deck deck = new Deck(new SplittableRandom(0));
+		for( int i = 0; i < aMasks.length; i++ )
+		{
+			deck.shuffle();
+			for( int j = 0; j < 7; j++ )
+			{
+				aMasks[i] |= 1L << deck.draw().index();
+			}
+		}
+	}
+
+	@Benchmark
+	public int evaluate7()
+	{
+		aNext = (aNext + 1) % NUMBER_OF_HANDS;
+		return HandEvaluator.evaluate(aMasks[aNext]);
+	}
+
+	@Benchmark
+	public int evaluate7WithBranches()
+	{
+		aNext = (aNext + 1) % NUMBER_OF_HANDS;
+		return HandEvaluator.evaluateWithBranches(aMasks[aNext]);
+	}
+
+	@Benchmark
+	public int[] evaluateAll7()
+	{
+		HandEvaluator.evaluateAll(aMasks, aScores);
+		return aScores;
+	}
+
+	@Benchmark
+	public int[] evaluateAll7Scalar()
+	{
+		HandEvaluator.evaluateAll(aMasks, aScores, 0);
+		return aScores;
+	}
+}
@@ -0,0 +1,158 @@
+package lecture1;
+
+import java.beans.XMLDecoder;
+import java.beans.XMLEncoder;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.gson.Gson;
+
+/**
+ * Benchmarks for in-memory round-trips of the products of the
+ * serialization examples, in CSV, XML, binary, and JSON format.
+ * The JSON round-trip uses Gson, as in SerializationExampleJSON1.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 10, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(1)
+@State(Scope.Thread)
+public class SerializationBenchmarks
+{
+	private static final int NUMBER_OF_PRODUCTS = 100;
+
+	private final Product1[] aFlatProducts = new Product1[NUMBER_OF_PRODUCTS];
+	private final Product2[] aPropertyProducts = new Product2[NUMBER_OF_PRODUCTS];
+	private final Product3[] aBeanProducts = new Product3[NUMBER_OF_PRODUCTS];
+	private final Product4[] aSerializableProducts = new Product4[NUMBER_OF_PRODUCTS];
+	private final Gson aGson = new Gson();
+
+	@Setup
+	public void setUp()
+	{
+		for( int i = 0; i < NUMBER_OF_PRODUCTS; i++ )
+		{
+			aFlatProducts[i] = new Product1("Product " + i, i);
+			aPropertyProducts[i] = new Product2("Product " + i, i);
+			aPropertyProducts[i].setProperty("weight", Integer.toString(i));
+			aBeanProducts[i] = new Product3("Product " + i, i);
+			aSerializableProducts[i] = new Product4("Product " + i, i);
+			if( i > 0 )
+			{
+				aBeanProducts[i].setRelated(aBeanProducts[i - 1]);
+				aSerializableProducts[i].setRelated(aSerializableProducts[i - 1]);
+			}
+		}
+	}
+
+	@Benchmark
+	public Product1[] csvRoundTrip() throws IOException
+	{
+		return readCSV(writeCSV(aFlatProducts));
+	}
+
+	@Benchmark
+	public Product3[] xmlRoundTrip()
+	{
+		return readXML(writeXML(aBeanProducts));
+	}
+
+	@Benchmark
+	public Product4[] binaryRoundTrip() throws IOException, ClassNotFoundException
+	{
+		return readBinary(writeBinary(aSerializableProducts));
+	}
+
+	@Benchmark
+	public Product2[] jsonRoundTrip()
+	{
+		return aGson.fromJson(aGson.toJson(aPropertyProducts), Product2[].class);
+	}
+
+	private static String writeCSV(Product1[] pProducts)
+	{
+		StringWriter buffer = new StringWriter();
+		try( PrintWriter out = new PrintWriter(buffer) )
+		{
+			for( Product1 product : pProducts )
+			{
+				out.println(product.getId() + "," + product.getName());
+			}
+		}
+		return buffer.toString();
+	}
+
+	private static Product1[] readCSV(String pData) throws IOException
+	{
+		List<Product1> products = new ArrayList<>();
+		try( BufferedReader in = new BufferedReader(new StringReader(pData)) )
+		{
+			String line = in.readLine();
+			while( line != null )
+			{
+				String[] tokens = line.split(",");
+				products.add(new Product1(tokens[1], Integer.parseInt(tokens[0])));
+				line = in.readLine();
+			}
+		}
+		return products.toArray(new Product1[products.size()]);
+	}
+
+	private static byte[] writeXML(Product3[] pProducts)
+	{
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		try( XMLEncoder encoder = new XMLEncoder(buffer) )
+		{
+			encoder.writeObject(pProducts);
+		}
+		return buffer.toByteArray();
+	}
+
+	private static Product3[] readXML(byte[] pData)
+	{
+		try( XMLDecoder decoder = new XMLDecoder(new ByteArrayInputStream(pData)) )
+		{
+			return (Product3[]) decoder.readObject();
+		}
+	}
+
+	private static byte[] writeBinary(Product4[] pProducts) throws IOException
+	{
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		try( ObjectOutputStream out = new ObjectOutputStream(buffer) )
+		{
+			out.writeObject(pProducts);
+		}
+		return buffer.toByteArray();
+	}
+
+	private static Product4[] readBinary(byte[] pData) throws IOException, ClassNotFoundException
+	{
+		try( ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(pData)) )
+		{
+			return (Product4[]) in.readObject();
+		}
+	}
+}
@@ -0,0 +1,90 @@
+package module08;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the traversal of an organization chart by
+ * the DefaultVisitor.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 10, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(1)
+@State(Scope.Thread)
+public class VisitorBenchmarks
+{
+	private static final int NUMBER_OF_FACULTIES = 10;
+	private static final int DEPARTMENTS_PER_FACULTY = 10;
+	private static final int COMMITTEES_PER_NODE = 3;
+	private static final int COMMITTEE_DEPTH = 2;
+
+	private final University aUniversity = createUniversity();
+	private final CountingVisitor aVisitor = new CountingVisitor();
+
+	@Benchmark
+	public long defaultVisitorTraversal()
+	{
+		aUniversity.accept(aVisitor);
+		return aVisitor.aCount;
+	}
+
+	private static University createUniversity()
+	{
+		University university = new University("University");
+		for( int i = 0; i < NUMBER_OF_FACULTIES; i++ )
+		{
+			Faculty faculty = new Faculty("Faculty " + i);
+			university.addFaculty(faculty);
+			for( int j = 0; j < COMMITTEES_PER_NODE; j++ )
+			{
+				faculty.addCommittee(createCommittee(COMMITTEE_DEPTH));
+			}
+			for( int j = 0; j < DEPARTMENTS_PER_FACULTY; j++ )
+			{
+				Department department = new Department("Department " + j);
+				faculty.addDepartment(department);
+				for( int k = 0; k < COMMITTEES_PER_NODE; k++ )
+				{
+					department.addCommittee(createCommittee(COMMITTEE_DEPTH));
+				}
+			}
+		}
+		return university;
+	}
+
+	private static Committee createCommittee(int pDepth)
+	{
+		Committee committee = new Committee("Committee");
+		if( pDepth > 0 )
+		{
+			for( int i = 0; i < COMMITTEES_PER_NODE; i++ )
+			{
+				committee.addCommittee(createCommittee(pDepth - 1));
+			}
+		}
+		return committee;
+	}
+
+	private static final class CountingVisitor extends DefaultVisitor
+	{
+		private long aCount = 0;
+
+		@Override
+		public void visitCommittee(Committee pCommittee)
+		{
+			aCount++;
+			super.visitCommittee(pCommittee);
+		}
+	}
+}
@@ -0,0 +1,62 @@
+package module6;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the notification of observers when
+ * the state of the Model changes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 10, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(1)
+@State(Scope.Thread)
+public class ObserverBenchmarks
+{
+	private static final int NUMBER_OF_OBSERVERS = 16;
+
+	private final Model aModel = new Model();
+	private final SummingObserver[] aObservers = new SummingObserver[NUMBER_OF_OBSERVERS];
+	private int aNumber = 0;
+
+	@Setup
+	public void setUp()
+	{
+		for( int i = 0; i < aObservers.length; i++ )
+		{
+			aObservers[i] = new SummingObserver();
+			aModel.addObserver(aObservers[i]);
+		}
+	}
+
+	@Benchmark
+	public long modelSetNumber()
+	{
+		aNumber = (aNumber + 1) % 11;
+		aModel.setNumber(aNumber);
+		return aObservers[0].aSum;
+	}
+
+	private static final class SummingObserver implements Observer
+	{
+		private long aSum = 0;
+
+		@Override
+		public void newNumber(int pNumber)
+		{
+			aSum += pNumber;
+		}
+	}
+}